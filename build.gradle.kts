@@ -17,6 +17,7 @@ val xseriesVersion: String by project
 val sirblobmanApiVersion: String by project
 val sirblobmanCombatLogVersion: String by project
 val caffeineVersion: String by project
+val junitVersion: String by project
 val projectPackageName = "${project.group}.openMentions"
 
 // Configure Java toolchain and compatibility settings
@@ -59,6 +60,12 @@ dependencies {
     implementation("com.github.cryptomorin:XSeries:${xseriesVersion}")
     // SQL caching
     implementation("com.github.ben-manes.caffeine:caffeine:${caffeineVersion}")
+
+    // JUnit for unit tests, the Paper API is only provided by the server at runtime
+    testImplementation("io.papermc.paper:paper-api:${paperApiVersion}")
+    testImplementation(platform("org.junit:junit-bom:${junitVersion}"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 // Disable the default JAR task
@@ -95,6 +102,11 @@ tasks {
         minecraftVersion("1.21") // Specify the Minecraft version
     }
 
+    // Run the unit tests on the JUnit platform
+    test {
+        useJUnitPlatform()
+    }
+
     // Configure Java compilation settings
     withType<JavaCompile>().configureEach {
         options.encoding = "UTF-8" // Set the file encoding
@@ -5,6 +5,9 @@ import io.github.tavstaldev.minecorelib.config.ConfigurationBase;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.temporal.TemporalAdjusters;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
 
 public class OMConfig extends ConfigurationBase {
 
@@ -17,13 +20,37 @@ public class OMConfig extends ConfigurationBase {
 
     // Storage
     public String storageType, storageFilename, storageHost, storageDatabase, storageUsername, storagePassword, storageTablePrefix;
-    public int storagePort;
+    public int storagePort, storageFlushInterval, storageMaxBatchSize, storageSqliteReaders;
+
+    // Cache
+    public int cacheOfflinePlayers, cacheOfflineIgnores, cacheExpireAfterAccess;
+
+    // Rate limit
+    public boolean rateLimitEnabled;
+    public int rateLimitMentionerCapacity, rateLimitMentionerRefill, rateLimitTargetCapacity, rateLimitTargetRefill,
+            rateLimitPairCapacity, rateLimitPairRefill;
+
+    // Groups
+    public boolean groupsEnabled;
+    public int groupsHereRadius, groupsPerTickBudget, groupsRefreshInterval;
+    public Map<String, String> groupPermissions;
+
+    // Vanish
+    public int vanishReconcileInterval;
+
+    // Combat
+    public boolean combatEnabled, combatPve;
+    public int combatDuration;
+
+    // Inbox
+    public boolean inboxEnabled;
+    public int inboxRetentionDays, inboxMaxPerPlayer, inboxDigestLines;
 
     // Settings
     public String defaultDisplay, defaultPreference, defaultSound;
     public double volume, pitch;
-    public int mentionCooldown, maxMentionsPerMessage;
-    public boolean allowSelfMention;
+    public int mentionCooldown, maxMentionsPerMessage, displayNameRefreshInterval;
+    public boolean allowSelfMention, bareNameMentions;
 
     @Override
     protected void loadDefaults() {
@@ -43,6 +70,55 @@ public class OMConfig extends ConfigurationBase {
         storageUsername = resolveGet("storage.username", "root");
         storagePassword = resolveGet("storage.password", "ascent");
         storageTablePrefix = resolveGet("storage.tablePrefix", "openmentions");
+        storageFlushInterval = resolveGet("storage.writeBehind.flushInterval", 5);
+        storageMaxBatchSize = resolveGet("storage.writeBehind.maxBatchSize", 100);
+        storageSqliteReaders = resolveGet("storage.sqliteReaders", 4);
+
+        // Cache
+        cacheOfflinePlayers = resolveGet("cache.offlinePlayers", 10000);
+        cacheOfflineIgnores = resolveGet("cache.offlineIgnores", 5000);
+        cacheExpireAfterAccess = resolveGet("cache.expireAfterAccess", 30);
+
+        // Rate limit, capacities are burst sizes and refills are tokens per minute.
+        // Disabled by default, so upgrading servers keep the behaviour they had until the owner opts in.
+        rateLimitEnabled = resolveGet("rateLimit.enabled", false);
+        rateLimitMentionerCapacity = resolveGet("rateLimit.mentioner.capacity", 5);
+        rateLimitMentionerRefill = resolveGet("rateLimit.mentioner.refillPerMinute", 20);
+        rateLimitTargetCapacity = resolveGet("rateLimit.target.capacity", 8);
+        rateLimitTargetRefill = resolveGet("rateLimit.target.refillPerMinute", 30);
+        rateLimitPairCapacity = resolveGet("rateLimit.pair.capacity", 2);
+        rateLimitPairRefill = resolveGet("rateLimit.pair.refillPerMinute", 6);
+
+        // Groups, each permission group maps a mention name to the permission of its members
+        groupsEnabled = resolveGet("groups.enabled", true);
+        groupsHereRadius = resolveGet("groups.hereRadius", 64);
+        groupsPerTickBudget = resolveGet("groups.perTickBudget", 50);
+        groupsRefreshInterval = resolveGet("groups.refreshInterval", 10);
+        if (!isConfigurationSection("groups.permissions"))
+            resolve("groups.permissions.staff", "openmentions.group.staff");
+        groupPermissions = new LinkedHashMap<>();
+        var groupSection = getConfigurationSection("groups.permissions");
+        if (groupSection != null) {
+            for (String group : groupSection.getKeys(false)) {
+                String permission = groupSection.getString(group);
+                if (permission != null && !permission.isEmpty())
+                    groupPermissions.put(group.toLowerCase(Locale.ROOT), permission);
+            }
+        }
+
+        // Vanish, the metadata is re-read periodically in case a plugin changes it without an event
+        vanishReconcileInterval = resolveGet("vanish.reconcileInterval", 5);
+
+        // Combat, only used when CombatLogX is not installed
+        combatEnabled = resolveGet("combat.enabled", true);
+        combatDuration = resolveGet("combat.duration", 15);
+        combatPve = resolveGet("combat.pve", false);
+
+        // Inbox, mentions of offline players are kept for the given number of days and delivered on join
+        inboxEnabled = resolveGet("inbox.enabled", true);
+        inboxRetentionDays = resolveGet("inbox.retentionDays", 7);
+        inboxMaxPerPlayer = resolveGet("inbox.maxPerPlayer", 50);
+        inboxDigestLines = resolveGet("inbox.digestLines", 5);
 
         // Settings
         defaultDisplay = resolveGet("settings.defaultDisplay", "ALL");
@@ -53,5 +129,8 @@ public class OMConfig extends ConfigurationBase {
         mentionCooldown = resolveGet("settings.mentionCooldown", 3);
         maxMentionsPerMessage = resolveGet("settings.maxMentionsPerMessage", 3);
         allowSelfMention = resolveGet("settings.allowSelfMention", true);
+        bareNameMentions = resolveGet("settings.bareNameMentions", false);
+        // Seconds between re-reading the display names set by nickname plugins, 0 to only read them on join
+        displayNameRefreshInterval = resolveGet("settings.displayNameRefreshInterval", 5);
     }
 }
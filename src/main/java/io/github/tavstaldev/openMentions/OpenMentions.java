@@ -8,13 +8,30 @@ import io.github.tavstaldev.openMentions.commands.CommandMentions;
 import io.github.tavstaldev.openMentions.commands.CommandsMentionsCompleter;
 import io.github.tavstaldev.openMentions.events.ChatListener;
 import io.github.tavstaldev.openMentions.events.PlayerListener;
+import io.github.tavstaldev.openMentions.managers.AsyncDatabaseManager;
+import io.github.tavstaldev.openMentions.managers.BukkitTaskScheduler;
 import io.github.tavstaldev.openMentions.managers.CombatLogManager;
 import io.github.tavstaldev.openMentions.managers.CombatManager;
+import io.github.tavstaldev.openMentions.managers.FoliaTaskScheduler;
+import io.github.tavstaldev.openMentions.managers.GroupMentionManager;
+import io.github.tavstaldev.openMentions.managers.MentionDeliveryQueue;
+import io.github.tavstaldev.openMentions.managers.MentionRateLimiter;
 import io.github.tavstaldev.openMentions.managers.MySqlManager;
+import io.github.tavstaldev.openMentions.managers.NotificationTemplateCache;
+import io.github.tavstaldev.openMentions.managers.OnlinePlayerDirectory;
 import io.github.tavstaldev.openMentions.managers.SqlLiteManager;
+import io.github.tavstaldev.openMentions.managers.TimingWheel;
+import io.github.tavstaldev.openMentions.managers.VanishRegistry;
+import io.github.tavstaldev.openMentions.models.IAsyncDatabase;
 import io.github.tavstaldev.openMentions.models.ICombatManager;
 import io.github.tavstaldev.openMentions.models.IDatabase;
-import io.github.tavstaldev.openMentions.tasks.CacheCleanTask;
+import io.github.tavstaldev.openMentions.models.IScheduledTask;
+import io.github.tavstaldev.openMentions.models.ITaskScheduler;
+import io.github.tavstaldev.openMentions.tasks.DisplayNameRefreshTask;
+import io.github.tavstaldev.openMentions.tasks.GroupMentionTask;
+import io.github.tavstaldev.openMentions.tasks.MentionDeliveryTask;
+import io.github.tavstaldev.openMentions.tasks.TimingWheelTask;
+import io.github.tavstaldev.openMentions.tasks.WriteBehindFlushTask;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.Plugin;
 
@@ -56,9 +73,22 @@ public final class OpenMentions extends PluginBase {
     /** Database manager for handling player data storage. */
     public static IDatabase Database;
 
+    /** Asynchronous access to the database, used to keep JDBC calls off the server thread. */
+    public static IAsyncDatabase AsyncDatabase;
+
     /** Combat manager for handling combat-related features. */
     public static ICombatManager CombatManager;
-    private CacheCleanTask cacheCleanTask; // Task for cleaning player caches.
+
+    /** Scheduler running the plugin's tasks on the right thread, on both Bukkit and Folia. */
+    public static ITaskScheduler Scheduler;
+
+    /** Timing wheel expiring cooldowns and other short-lived entries, advanced every tick. */
+    public static TimingWheel Timers;
+    private IScheduledTask timingWheelTask; // Task for advancing the timing wheel.
+    private IScheduledTask groupMentionTask; // Task for delivering group mentions.
+    private IScheduledTask mentionDeliveryTask; // Task for sending the queued mention notifications.
+    private IScheduledTask writeBehindFlushTask; // Task for writing pending player data changes.
+    private IScheduledTask displayNameRefreshTask; // Task for re-indexing the display names of the players.
 
     /**
      * Constructor for the OpenMentions plugin.
@@ -84,6 +114,21 @@ public final class OpenMentions extends PluginBase {
             return;
         }
 
+        // Initialize the scheduler, Folia has no single server thread to run the tasks on.
+        if (FoliaTaskScheduler.isSupported()) {
+            Scheduler = new FoliaTaskScheduler();
+            _logger.Info("Folia detected, using the region schedulers.");
+        } else {
+            Scheduler = new BukkitTaskScheduler();
+        }
+
+        // Start the timing wheel before anything can schedule on it.
+        Timers = new TimingWheel();
+        if (timingWheelTask != null && !timingWheelTask.isCancelled())
+            timingWheelTask.cancel();
+        timingWheelTask = Scheduler.runTimer(new TimingWheelTask(), 1, 1);
+        MentionRateLimiter.start();
+
         // Initialize Combat Manager
         Plugin combatLogPlugin = Bukkit.getPluginManager().getPlugin("CombatLogX");
         if (combatLogPlugin != null && combatLogPlugin.isEnabled()) {
@@ -91,12 +136,14 @@ public final class OpenMentions extends PluginBase {
             getLogger().info("Successfully hooked into CombatLogX!");
         } else {
             CombatManager = new CombatManager();
-            _logger.Warn("CombatLogX plugin not found or not enabled. Combat management features will be disabled.");
+            _logger.Warn("CombatLogX plugin not found or not enabled. Using the built-in combat tracker.");
         }
 
         // Register Events
         new PlayerListener();
         new ChatListener();
+        OnlinePlayerDirectory.reload();
+        VanishRegistry.start();
 
         // Generate config file
         saveDefaultConfig();
@@ -124,7 +171,16 @@ public final class OpenMentions extends PluginBase {
             }
         }
         Database.load();
-        Database.checkSchema();
+        if (!Database.checkSchema()) {
+            // The queries bind binary UUIDs, running on an outdated schema would corrupt the tables.
+            _logger.Error("Failed to migrate the database schema... Unloading...");
+            Bukkit.getPluginManager().disablePlugin(this);
+            return;
+        }
+        AsyncDatabase = new AsyncDatabaseManager(Database);
+        for (var player : OnlinePlayerDirectory.getPlayers()) {
+            Database.pinPlayer(player.getUniqueId());
+        }
 
         // Register Commands
         _logger.Debug("Registering commands...");
@@ -134,11 +190,26 @@ public final class OpenMentions extends PluginBase {
             command.setTabCompleter(new CommandsMentionsCompleter());
         }
 
-        // Register cache cleanup task.
-        if (cacheCleanTask != null && !cacheCleanTask.isCancelled())
-            cacheCleanTask.cancel();
-        cacheCleanTask = new CacheCleanTask(); // Runs every 5 minutes
-        cacheCleanTask.runTaskTimer(this, 0, 5 * 60 * 20);
+        // Register group mention delivery.
+        GroupMentionManager.reload();
+        GroupMentionManager.startRefresh();
+        if (groupMentionTask != null && !groupMentionTask.isCancelled())
+            groupMentionTask.cancel();
+        groupMentionTask = Scheduler.runTimer(new GroupMentionTask(), 1, 1);
+
+        // Register mention delivery task.
+        if (mentionDeliveryTask != null && !mentionDeliveryTask.isCancelled())
+            mentionDeliveryTask.cancel();
+        mentionDeliveryTask = Scheduler.runTimer(new MentionDeliveryTask(), 1, 1);
+
+        // Register write-behind flush task.
+        if (writeBehindFlushTask != null && !writeBehindFlushTask.isCancelled())
+            writeBehindFlushTask.cancel();
+        long flushPeriod = Math.max(1, Config().storageFlushInterval) * 20L;
+        writeBehindFlushTask = Scheduler.runTimer(new WriteBehindFlushTask(), flushPeriod, flushPeriod);
+
+        // Register display name refresh task.
+        startDisplayNameRefresh();
 
         _logger.Ok(String.format("%s has been successfully loaded.", getProjectName()));
         if (Config().checkForUpdates) {
@@ -161,8 +232,27 @@ public final class OpenMentions extends PluginBase {
      */
     @Override
     public void onDisable() {
-        if (cacheCleanTask != null && !cacheCleanTask.isCancelled())
-            cacheCleanTask.cancel();
+        if (writeBehindFlushTask != null && !writeBehindFlushTask.isCancelled())
+            writeBehindFlushTask.cancel();
+        if (displayNameRefreshTask != null && !displayNameRefreshTask.isCancelled())
+            displayNameRefreshTask.cancel();
+        OnlinePlayerDirectory.clear();
+        // Let queued operations finish, then write the remaining changes and close the database.
+        if (AsyncDatabase != null)
+            AsyncDatabase.shutdown();
+        if (Database != null)
+            Database.unload();
+        if (groupMentionTask != null && !groupMentionTask.isCancelled())
+            groupMentionTask.cancel();
+        GroupMentionManager.clear();
+        VanishRegistry.clear();
+        if (mentionDeliveryTask != null && !mentionDeliveryTask.isCancelled())
+            mentionDeliveryTask.cancel();
+        MentionDeliveryQueue.clear();
+        if (timingWheelTask != null && !timingWheelTask.isCancelled())
+            timingWheelTask.cancel();
+        if (Timers != null)
+            Timers.clear();
         _logger.Info(String.format("%s has been successfully unloaded.", getProjectName()));
     }
 
@@ -176,6 +266,24 @@ public final class OpenMentions extends PluginBase {
         _logger.Debug("Localizations reloaded.");
         _logger.Debug("Reloading configuration...");
         this._config.load();
+        NotificationTemplateCache.clear();
+        GroupMentionManager.reload();
+        GroupMentionManager.startRefresh();
+        startDisplayNameRefresh();
         _logger.Debug("Configuration reloaded.");
     }
+
+    /**
+     * Starts the periodic refresh of the display names with the configured interval, replacing the running one.
+     */
+    private void startDisplayNameRefresh() {
+        if (displayNameRefreshTask != null && !displayNameRefreshTask.isCancelled())
+            displayNameRefreshTask.cancel();
+        displayNameRefreshTask = null;
+        int interval = Config().displayNameRefreshInterval;
+        if (interval <= 0)
+            return;
+        long period = interval * 20L;
+        displayNameRefreshTask = Scheduler.runTimer(new DisplayNameRefreshTask(), period, period);
+    }
 }
\ No newline at end of file
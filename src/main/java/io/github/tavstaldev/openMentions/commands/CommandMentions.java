@@ -5,6 +5,7 @@ import io.github.tavstaldev.minecorelib.core.PluginLogger;
 import io.github.tavstaldev.minecorelib.models.command.SubCommandData;
 import io.github.tavstaldev.minecorelib.utils.ChatUtils;
 import io.github.tavstaldev.openMentions.OpenMentions;
+import io.github.tavstaldev.openMentions.managers.OnlinePlayerDirectory;
 import io.github.tavstaldev.openMentions.models.EMentionDisplay;
 import io.github.tavstaldev.openMentions.models.EMentionPreference;
 import io.github.tavstaldev.openMentions.utils.SoundUtils;
@@ -23,6 +24,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * CommandMentions class implements the CommandExecutor interface to handle the
@@ -101,6 +104,24 @@ public class CommandMentions implements CommandExecutor {
                     OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Reload.Done");
                     return true;
                 }
+                case "stats": {
+                    if (!player.hasPermission("openmentions.commands.stats")) {
+                        OpenMentions.Instance.sendLocalizedMsg(player, "General.NoPermission");
+                        return true;
+                    }
+
+                    OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Stats.Title");
+                    for (var stats : OpenMentions.Database.getCacheStatistics()) {
+                        OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Stats.Line", Map.of(
+                                "cache", stats.name(),
+                                "pinned", stats.pinnedSize(),
+                                "offline", stats.offlineSize(),
+                                "hit_rate", String.format("%.1f%%", stats.hitRate() * 100),
+                                "evictions", stats.evictions()
+                        ));
+                    }
+                    return true;
+                }
                 case "sound": {
                     if (args.length < 2) {
                         OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Sound.Usage");
@@ -108,17 +129,19 @@ public class CommandMentions implements CommandExecutor {
                     }
 
                     Optional<XSound> sound = SoundUtils.getSound(args[1]);
-                    if (sound.isEmpty()) {
+                    // Sounds missing from this server version would fall back silently at mention time.
+                    if (sound.isEmpty() || !sound.get().isSupported()) {
                         OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Sound.Invalid", Map.of("value", args[1]));
                         return true;
                     }
 
                     var playerId = player.getUniqueId();
                     String soundName = sound.get().name();
-                    OpenMentions.Database.updateSound(playerId, soundName);
-                    OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Sound.Set", Map.of(
-                            "value", soundName
-                    ));
+                    OpenMentions.AsyncDatabase.updateSound(playerId, soundName).thenRun(() ->
+                            OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Sound.Set", Map.of(
+                                    "value", soundName
+                            ))
+                    ).exceptionally(e -> handleDatabaseError(player, e));
                     return true;
                 }
                 case "display": {
@@ -136,10 +159,11 @@ public class CommandMentions implements CommandExecutor {
                     }
 
                     var playerId = player.getUniqueId();
-                    OpenMentions.Database.updateDisplay(playerId, display);
-                    OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Display.Set", Map.of(
-                            "value", display.toString()
-                    ));
+                    OpenMentions.AsyncDatabase.updateDisplay(playerId, display).thenRun(() ->
+                            OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Display.Set", Map.of(
+                                    "value", display.toString()
+                            ))
+                    ).exceptionally(e -> handleDatabaseError(player, e));
                     return true;
                 }
                 case "preference": {
@@ -157,10 +181,11 @@ public class CommandMentions implements CommandExecutor {
                     }
 
                     var playerId = player.getUniqueId();
-                    OpenMentions.Database.updatePreference(playerId, preference);
-                    OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Preference.Set", Map.of(
-                            "value", preference.toString()
-                    ));
+                    OpenMentions.AsyncDatabase.updatePreference(playerId, preference).thenRun(() ->
+                            OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Preference.Set", Map.of(
+                                    "value", preference.toString()
+                            ))
+                    ).exceptionally(e -> handleDatabaseError(player, e));
                     return true;
                 }
                 case "ignore": {
@@ -169,29 +194,31 @@ public class CommandMentions implements CommandExecutor {
                         return true;
                     }
 
-                    OfflinePlayer target = Bukkit.getOfflinePlayer(args[1]);
-                    if (target == null || !target.hasPlayedBefore()) {
-                        OpenMentions.Instance.sendLocalizedMsg(player, "General.PlayerNotFound", Map.of("player", args[1]));
-                        return true;
-                    }
-
                     var playerId = player.getUniqueId();
-                    var targetId = target.getUniqueId();
-
-                    if (playerId == targetId)
-                    {
-                        OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Ignore.Self");
-                        return true;
-                    }
+                    String targetName = args[1];
+                    resolvePlayerId(targetName).thenCompose(target -> {
+                        if (target.isEmpty()) {
+                            OpenMentions.Instance.sendLocalizedMsg(player, "General.PlayerNotFound", Map.of("player", targetName));
+                            return CompletableFuture.<Void>completedFuture(null);
+                        }
 
-                    if (OpenMentions.Database.isPlayerIgnored(playerId, targetId))
-                    {
-                        OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Ignore.AlreadyEnabled", Map.of("player", args[1]));
-                        return true;
-                    }
+                        var targetId = target.get();
+                        if (playerId.equals(targetId)) {
+                            OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Ignore.Self");
+                            return CompletableFuture.<Void>completedFuture(null);
+                        }
 
-                    OpenMentions.Database.addIgnoredPlayer(playerId, targetId);
-                    OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Ignore.Enabled", Map.of("player", args[1]));
+                        return OpenMentions.AsyncDatabase.isPlayerIgnored(playerId, targetId).thenCompose(isIgnored -> {
+                            if (isIgnored) {
+                                OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Ignore.AlreadyEnabled", Map.of("player", targetName));
+                                return CompletableFuture.<Void>completedFuture(null);
+                            }
+
+                            return OpenMentions.AsyncDatabase.addIgnoredPlayer(playerId, targetId).thenRun(() ->
+                                    OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Ignore.Enabled", Map.of("player", targetName))
+                            );
+                        });
+                    }).exceptionally(e -> handleDatabaseError(player, e));
                     return true;
                 }
                 case "unignore": {
@@ -200,29 +227,31 @@ public class CommandMentions implements CommandExecutor {
                         return true;
                     }
 
-                    OfflinePlayer target = Bukkit.getOfflinePlayer(args[1]);
-                    if (target == null || !target.hasPlayedBefore()) {
-                        OpenMentions.Instance.sendLocalizedMsg(player, "General.PlayerNotFound", Map.of("player", args[1]));
-                        return true;
-                    }
-
                     var playerId = player.getUniqueId();
-                    var targetId = target.getUniqueId();
-
-                    if (playerId == targetId)
-                    {
-                        OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Unignore.Self");
-                        return true;
-                    }
+                    String targetName = args[1];
+                    resolvePlayerId(targetName).thenCompose(target -> {
+                        if (target.isEmpty()) {
+                            OpenMentions.Instance.sendLocalizedMsg(player, "General.PlayerNotFound", Map.of("player", targetName));
+                            return CompletableFuture.<Void>completedFuture(null);
+                        }
 
-                    if (!OpenMentions.Database.isPlayerIgnored(playerId, targetId))
-                    {
-                        OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Unignore.AlreadyDisabled", Map.of("player", args[1]));
-                        return true;
-                    }
+                        var targetId = target.get();
+                        if (playerId.equals(targetId)) {
+                            OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Unignore.Self");
+                            return CompletableFuture.<Void>completedFuture(null);
+                        }
 
-                    OpenMentions.Database.removeIgnoredPlayer(playerId, targetId);
-                    OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Unignore.Disabled", Map.of("player", args[1]));
+                        return OpenMentions.AsyncDatabase.isPlayerIgnored(playerId, targetId).thenCompose(isIgnored -> {
+                            if (!isIgnored) {
+                                OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Unignore.AlreadyDisabled", Map.of("player", targetName));
+                                return CompletableFuture.<Void>completedFuture(null);
+                            }
+
+                            return OpenMentions.AsyncDatabase.removeIgnoredPlayer(playerId, targetId).thenRun(() ->
+                                    OpenMentions.Instance.sendLocalizedMsg(player, "Commands.Unignore.Disabled", Map.of("player", targetName))
+                            );
+                        });
+                    }).exceptionally(e -> handleDatabaseError(player, e));
                     return true;
                 }
             }
@@ -234,6 +263,48 @@ public class CommandMentions implements CommandExecutor {
         return true;
     }
 
+    /**
+     * Resolves the UUID of a player by name without blocking the server thread.
+     * Online players are found in the online directory, everyone else is looked up in the
+     * name directory of the database, and only names missing from it fall back to the
+     * server's profile cache, which is read on the global thread. Unknown names are never
+     * looked up from the Mojang API.
+     *
+     * @param name The name of the player.
+     * @return A future completed with the UUID of the player, or an empty Optional if the name is not known.
+     *         The future completes exceptionally if the name directory could not be read.
+     */
+    private CompletableFuture<Optional<UUID>> resolvePlayerId(String name) {
+        Player online = OnlinePlayerDirectory.getByName(name);
+        if (online != null)
+            return CompletableFuture.completedFuture(Optional.of(online.getUniqueId()));
+
+        return OpenMentions.AsyncDatabase.findPlayerId(name).thenCompose(playerId -> {
+            if (playerId.isPresent())
+                return CompletableFuture.completedFuture(playerId);
+
+            CompletableFuture<Optional<UUID>> future = new CompletableFuture<>();
+            OpenMentions.Scheduler.runGlobal(() -> {
+                OfflinePlayer cached = Bukkit.getOfflinePlayerIfCached(name);
+                future.complete(cached == null ? Optional.empty() : Optional.of(cached.getUniqueId()));
+            });
+            return future;
+        });
+    }
+
+    /**
+     * Logs a failed database operation and notifies the player about it.
+     *
+     * @param player The player who executed the command.
+     * @param ex     The exception that caused the operation to fail.
+     * @return Always null, so it can be used as an exceptionally handler.
+     */
+    private Void handleDatabaseError(Player player, Throwable ex) {
+        _logger.Error("Database operation failed for " + player.getName() + ": " + ex.getMessage());
+        OpenMentions.Instance.sendLocalizedMsg(player, "Commands.UnknownError");
+        return null;
+    }
+
     /**
      * List of subcommands available for the "/mentions" command.
      */
@@ -253,6 +324,11 @@ public class CommandMentions implements CommandExecutor {
                     "syntax", "",
                     "description", "Commands.Reload.Desc"
             )),
+            // STATS
+            new SubCommandData("stats", "openmentions.commands.stats", Map.of(
+                    "syntax", "",
+                    "description", "Commands.Stats.Desc"
+            )),
             // SET SOUND
             new SubCommandData("sound", "", Map.of(
                     "syntax", "Commands.Sound.Syntax",
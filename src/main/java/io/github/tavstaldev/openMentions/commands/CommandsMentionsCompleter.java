@@ -2,9 +2,12 @@ package io.github.tavstaldev.openMentions.commands;
 
 import com.cryptomorin.xseries.XSound;
 import io.github.tavstaldev.minecorelib.core.PluginLogger;
+import io.github.tavstaldev.minecorelib.models.command.SubCommandData;
 import io.github.tavstaldev.openMentions.OpenMentions;
+import io.github.tavstaldev.openMentions.managers.OnlinePlayerDirectory;
 import io.github.tavstaldev.openMentions.models.EMentionDisplay;
 import io.github.tavstaldev.openMentions.models.EMentionPreference;
+import io.github.tavstaldev.openMentions.utils.PrefixIndex;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.ConsoleCommandSender;
@@ -13,9 +16,11 @@ import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Provides tab completion for the "mentions" command.
@@ -24,7 +29,41 @@ import java.util.List;
 public class CommandsMentionsCompleter implements TabCompleter {
     // Logger instance for logging messages related to this class.
     private final PluginLogger _logger = OpenMentions.Logger().WithModule(CommandsMentionsCompleter.class);
-    private final Collection<XSound> _sounds = XSound.getValues();
+
+    /** Maximum number of suggestions returned for a single keystroke. */
+    private static final int MAX_SUGGESTIONS = 100;
+
+    // Indexes built once, so a keystroke only does a binary search.
+    private final PrefixIndex _subCommandIndex;
+    private final PrefixIndex _soundIndex;
+    private final PrefixIndex _displayIndex;
+    private final PrefixIndex _preferenceIndex;
+    private final Map<String, SubCommandData> _subCommands = new HashMap<>();
+
+    /**
+     * Builds the indexes of the suggestions.
+     */
+    public CommandsMentionsCompleter() {
+        for (var subCommand : CommandMentions.SubCommands) {
+            _subCommands.put(subCommand.command, subCommand);
+        }
+        _subCommandIndex = new PrefixIndex(_subCommands.keySet());
+
+        List<String> sounds = new ArrayList<>();
+        try {
+            // Only the sounds of this server version, the sound command rejects the others.
+            for (var sound : XSound.getValues()) {
+                if (sound.isSupported())
+                    sounds.add(sound.name());
+            }
+        } catch (Exception ex) {
+            _logger.Error("Failed to retrieve sound events for tab completion.");
+            _logger.Error(ex);
+        }
+        _soundIndex = new PrefixIndex(sounds);
+        _displayIndex = new PrefixIndex(Arrays.stream(EMentionDisplay.values()).map(Enum::name).toList());
+        _preferenceIndex = new PrefixIndex(Arrays.stream(EMentionPreference.values()).map(Enum::name).toList());
+    }
 
     /**
      * Handles tab completion for the "mentions" command.
@@ -43,65 +82,48 @@ public class CommandsMentionsCompleter implements TabCompleter {
                 return new ArrayList<>();
             }
             Player player = (Player) sender;
-            List<String> commandList = new ArrayList<>();
 
             // Handle tab completion based on the number of arguments provided.
             switch (args.length) {
-                case 0:
+                case 0: {
+                    return _subCommandIndex.complete("", MAX_SUGGESTIONS, name -> canUse(player, name));
+                }
                 case 1: {
                     // Suggest subcommands based on the player's permissions.
-                    for (var subCommand : CommandMentions.SubCommands) {
-                        if (subCommand.permission == null || subCommand.permission.isEmpty()) {
-                            commandList.add(subCommand.command);
-                        }
-                        else if (player.hasPermission(subCommand.permission)) {
-                            commandList.add(subCommand.command);
-                        }
-                    }
-
-                    // Filter suggestions based on the current input.
-                    commandList.removeIf(cmd -> !cmd.toLowerCase().startsWith(args[0].toLowerCase()));
-                    break;
+                    return _subCommandIndex.complete(args[0], MAX_SUGGESTIONS, name -> canUse(player, name));
                 }
                 case 2: {
                     // Provide specific suggestions for subcommands with additional arguments.
-                    switch (args[0].toLowerCase()) {
+                    switch (args[0].toLowerCase(Locale.ROOT)) {
                         case "sound": {
-                            // Suggest available sound events.
-                            try {
-                                for (var sound : _sounds) {
-                                    commandList.add(sound.name());
-                                }
-                            } catch (Exception ex) {
-                                _logger.Error("Failed to retrieve sound events for tab completion.");
-                                _logger.Error(ex);
-                            }
-                            break;
+                            return _soundIndex.complete(args[1], MAX_SUGGESTIONS);
                         }
                         case "display": {
-                            // Suggest available display options.
-                            for (var value : EMentionDisplay.values()) {
-                                commandList.add(value.name());
-                            }
-                            break;
+                            return _displayIndex.complete(args[1], MAX_SUGGESTIONS);
                         }
                         case "preference": {
-                            // Suggest available preference options.
-                            for (var value : EMentionPreference.values()) {
-                                commandList.add(value.name());
+                            return _preferenceIndex.complete(args[1], MAX_SUGGESTIONS);
+                        }
+                        case "ignore":
+                        case "unignore": {
+                            // Suggest online players from the directory.
+                            String prefix = args[1].toLowerCase(Locale.ROOT);
+                            List<String> commandList = new ArrayList<>();
+                            for (var onlinePlayer : OnlinePlayerDirectory.getPlayers()) {
+                                if (onlinePlayer.getUniqueId().equals(player.getUniqueId()) || !player.canSee(onlinePlayer))
+                                    continue;
+                                if (onlinePlayer.getName().toLowerCase(Locale.ROOT).startsWith(prefix))
+                                    commandList.add(onlinePlayer.getName());
                             }
-                            break;
+                            // Sort the suggestions alphabetically.
+                            commandList.sort(String.CASE_INSENSITIVE_ORDER);
+                            return commandList.size() > MAX_SUGGESTIONS ? commandList.subList(0, MAX_SUGGESTIONS) : commandList;
                         }
                     }
-                    // Filter suggestions based on the current input.
-                    commandList.removeIf(cmd -> !cmd.toLowerCase().startsWith(args[1].toLowerCase()));
                     break;
                 }
             }
-
-            // Sort the suggestions alphabetically.
-            Collections.sort(commandList);
-            return commandList;
+            return new ArrayList<>();
         }
         catch (Exception ex) {
             // Log any errors that occur during tab completion.
@@ -110,4 +132,18 @@ public class CommandsMentionsCompleter implements TabCompleter {
             return new ArrayList<>();
         }
     }
+
+    /**
+     * Checks if a player may use a subcommand.
+     *
+     * @param player The player typing the command.
+     * @param name The name of the subcommand.
+     * @return True if the subcommand needs no permission or the player has it.
+     */
+    private boolean canUse(Player player, String name) {
+        SubCommandData subCommand = _subCommands.get(name);
+        if (subCommand == null)
+            return false;
+        return subCommand.permission == null || subCommand.permission.isEmpty() || player.hasPermission(subCommand.permission);
+    }
 }
\ No newline at end of file
@@ -2,8 +2,14 @@ package io.github.tavstaldev.openMentions.events;
 
 import io.github.tavstaldev.minecorelib.core.PluginLogger;
 import io.github.tavstaldev.openMentions.OpenMentions;
+import io.github.tavstaldev.openMentions.managers.GroupMentionManager;
+import io.github.tavstaldev.openMentions.managers.MentionInbox;
+import io.github.tavstaldev.openMentions.managers.MentionRateLimiter;
+import io.github.tavstaldev.openMentions.managers.OnlinePlayerDirectory;
+import io.github.tavstaldev.openMentions.managers.PlayerCacheManager;
+import io.github.tavstaldev.openMentions.managers.VanishRegistry;
+import io.github.tavstaldev.openMentions.utils.MentionTokenizer;
 import io.github.tavstaldev.openMentions.utils.MentionUtils;
-import io.github.tavstaldev.openMentions.utils.VanishUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -11,8 +17,11 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Listener class for handling chat events in the OpenMentions plugin.
@@ -22,9 +31,6 @@ public class ChatListener implements Listener {
     // Logger instance for logging debug information related to the ChatListener.
     private final PluginLogger _logger = OpenMentions.Logger().WithModule(ChatListener.class);
 
-    // Regular expression pattern to match Minecraft usernames in chat messages.
-    private final Pattern minecraftUsernamePattern = Pattern.compile("@([a-zA-Z0-9_]{3,16}$)\\b");
-
     /**
      * Constructor for the ChatListener class.
      * Registers the chat event listener with the Bukkit plugin manager.
@@ -38,6 +44,7 @@ public class ChatListener implements Listener {
     /**
      * Event handler for processing player chat messages.
      * Detects mentions in chat messages and applies mention effects if applicable.
+     * '@' mentions of offline players are stored in their inbox.
      *
      * @param event The AsyncPlayerChatEvent triggered when a player sends a chat message.
      */
@@ -46,34 +53,99 @@ public class ChatListener implements Listener {
         if (event.isCancelled())
             return;
 
-        Player source = event.getPlayer();
         String rawMessage = event.getMessage();
+        final var config = OpenMentions.Config();
+        // Fast path, most messages do not mention anyone.
+        if (!config.bareNameMentions && rawMessage.indexOf('@') < 0)
+            return;
 
-        int mentionCount = 0;
-        final int maxMentionCount = OpenMentions.Config().maxMentionsPerMessage;
-        final boolean allowSelfMention = OpenMentions.Config().allowSelfMention;
+        Player source = event.getPlayer();
+        // The cooldown applies to whole messages, so every mention of one message is handled alike.
+        if (PlayerCacheManager.isOnCooldown(source.getUniqueId()))
+            return;
 
-        Matcher matcher = minecraftUsernamePattern.matcher(rawMessage);
-        while (matcher.find() && mentionCount < maxMentionCount) {
-            String mentionName = matcher.group(1);
-            Player mentionedPlayer = Bukkit.getPlayerExact(mentionName);
-            if (mentionedPlayer == null)
-                continue;
+        final int maxMentionCount = config.maxMentionsPerMessage;
+        final boolean allowSelfMention = config.allowSelfMention;
 
-            if (mentionedPlayer.getUniqueId() == source.getUniqueId() && !allowSelfMention)
-                continue;
+        // A name can be written several ways in one message, but every group and player is notified once.
+        Set<String> mentionedGroups = new HashSet<>(2);
+        Set<UUID> mentionedPlayers = new HashSet<>(4);
+        // Both modes resolve names alike, so display names can be mentioned with '@' in either.
+        // Groups need the '@', so a plain word like "here" never notifies a whole group.
+        MentionTokenizer.MentionResolver resolver = (mentionName, hasSymbol) ->
+                (hasSymbol && tryGroupMention(source, mentionName.toLowerCase(Locale.ROOT), mentionedGroups))
+                || tryMention(source, OnlinePlayerDirectory.find(mentionName), allowSelfMention, mentionedPlayers);
+        String message;
+        if (config.bareNameMentions) {
+            message = MentionTokenizer.highlightNames(rawMessage, maxMentionCount, OnlinePlayerDirectory.getNameTrie(), resolver);
+        } else {
+            message = MentionTokenizer.highlight(rawMessage, maxMentionCount, resolver);
+        }
+        boolean queuedOffline = config.inboxEnabled && MentionInbox.recordOfflineMentions(source, rawMessage, maxMentionCount);
 
-            if (mentionedPlayer.getGameMode() == org.bukkit.GameMode.SPECTATOR)
-                continue;
+        // The message only changes if at least one mention was accepted.
+        if (message == rawMessage && !queuedOffline)
+            return;
 
-            if (VanishUtil.isVanished(mentionedPlayer))
-                continue;
+        if (message != rawMessage)
+            event.setMessage(message);
+        // Offline mentions cost a database lookup each, so they start the cooldown too.
+        if (config.mentionCooldown > 0)
+            PlayerCacheManager.setCooldown(source.getUniqueId(), config.mentionCooldown, TimeUnit.SECONDS);
+    }
 
-            if (!MentionUtils.mentionPlayer(mentionedPlayer, source))
-                continue;
-            rawMessage = rawMessage.replaceFirst("@" + Pattern.quote(mentionName), "§e@" + mentionName + "§r");
-            mentionCount++;
-        }
-        event.setMessage(rawMessage);
+    /**
+     * Attempts to mention a group of players.
+     *
+     * @param source The player who sent the message.
+     * @param name The lowercase mention name.
+     * @param mentionedGroups The groups already mentioned in the message, which are highlighted again without another fan-out.
+     * @return True if the name is a group the player may mention within their rate limit and the mention was queued, false otherwise.
+     */
+    private boolean tryGroupMention(Player source, String name, Set<String> mentionedGroups) {
+        if (!GroupMentionManager.isGroup(name) || !GroupMentionManager.canMention(source, name))
+            return false;
+
+        if (mentionedGroups.contains(name))
+            return true;
+
+        if (!MentionRateLimiter.tryAcquireMentioner(source.getUniqueId()))
+            return false;
+
+        GroupMentionManager.mentionGroup(source, name);
+        mentionedGroups.add(name);
+        return true;
+    }
+
+    /**
+     * Attempts to mention a resolved player.
+     *
+     * @param source The player who sent the message.
+     * @param mentionedPlayer The player being mentioned, or null if the name did not resolve.
+     * @param allowSelfMention Whether players are allowed to mention themselves.
+     * @param mentionedPlayers The players already mentioned in the message, which are highlighted again without another notification.
+     * @return True if the mention was accepted and should be highlighted, false otherwise.
+     */
+    private boolean tryMention(Player source, Player mentionedPlayer, boolean allowSelfMention, Set<UUID> mentionedPlayers) {
+        if (mentionedPlayer == null)
+            return false;
+
+        if (mentionedPlayer.getUniqueId() == source.getUniqueId() && !allowSelfMention)
+            return false;
+
+        if (mentionedPlayer.getGameMode() == org.bukkit.GameMode.SPECTATOR)
+            return false;
+
+        if (VanishRegistry.isVanished(mentionedPlayer))
+            return false;
+
+        if (mentionedPlayers.contains(mentionedPlayer.getUniqueId()))
+            return true;
+
+        if (!MentionUtils.mentionPlayer(mentionedPlayer, source))
+            return false;
+
+        mentionedPlayers.add(mentionedPlayer.getUniqueId());
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -2,24 +2,49 @@ package io.github.tavstaldev.openMentions.events;
 
 import io.github.tavstaldev.minecorelib.core.PluginLogger;
 import io.github.tavstaldev.openMentions.OpenMentions;
+import io.github.tavstaldev.openMentions.managers.GroupMentionManager;
+import io.github.tavstaldev.openMentions.managers.MentionInbox;
+import io.github.tavstaldev.openMentions.managers.OnlinePlayerDirectory;
 import io.github.tavstaldev.openMentions.managers.PlayerCacheManager;
+import io.github.tavstaldev.openMentions.managers.VanishRegistry;
 import io.github.tavstaldev.openMentions.models.EMentionDisplay;
 import io.github.tavstaldev.openMentions.models.EMentionPreference;
+import io.github.tavstaldev.openMentions.models.InboxMention;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Event listener class for handling player-related events in the OpenMentions plugin.
- * Includes player join, quit, and chat events.
+ * Includes player pre-login, join, and quit events.
  */
 public class PlayerListener implements Listener {
     /** Logger instance for logging messages related to EventListener. */
     private final PluginLogger _logger = OpenMentions.Logger().WithModule(PlayerListener.class);
 
+    /** Maximum time the pre-login waits for the prefetch, in seconds. */
+    private static final long PREFETCH_TIMEOUT = 10;
+
+    /** Time after which a prefetched inbox that no join consumed is dropped, in seconds. */
+    private static final long PREFETCH_EXPIRY = 60;
+
+    /** Inboxes of the players whose data was prefetched during the login and has not been consumed by the join yet. */
+    private final Map<UUID, List<InboxMention>> _prefetched = new ConcurrentHashMap<>();
+
     /**
      * Initializes and registers the event listener with the Bukkit plugin manager.
      */
@@ -29,30 +54,134 @@ public class PlayerListener implements Listener {
         _logger.Debug("Event listener registered.");
     }
 
+    /**
+     * Handles the AsyncPlayerPreLoginEvent.
+     * Loads or creates the player's data, their ignore list and their inbox while the login is still
+     * off the server thread, so all of them are ready before the player enters the world.
+     * The wait is bounded, the join loads whatever the prefetch did not finish in time.
+     *
+     * @param event The AsyncPlayerPreLoginEvent triggered when a player attempts to log in.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED)
+            return;
+
+        var playerId = event.getUniqueId();
+        // Pin first, so the prefetched data lands in the online tier of the caches.
+        OpenMentions.Database.pinPlayer(playerId);
+        // The client may disconnect before the login, the join unmarks the player otherwise.
+        PlayerCacheManager.markForRemoval(playerId);
+        try {
+            List<InboxMention> inbox = loadProfile(playerId)
+                    .thenCombine(OpenMentions.AsyncDatabase.getIgnoredPlayers(playerId), (profile, ignored) -> profile)
+                    .thenCombine(loadInbox(playerId), (profile, mentions) -> mentions)
+                    .orTimeout(PREFETCH_TIMEOUT, TimeUnit.SECONDS)
+                    .join();
+            _prefetched.put(playerId, inbox);
+            OpenMentions.Timers.schedule(PREFETCH_EXPIRY, TimeUnit.SECONDS, () -> _prefetched.remove(playerId, inbox));
+        } catch (CompletionException ex) {
+            _logger.Error("Failed to prefetch player data for " + event.getName() + ": " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Handles the PlayerLoginEvent.
+     * Releases the data pinned during the pre-login if another plugin denies the login.
+     *
+     * @param event The PlayerLoginEvent triggered when a player logs in.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(PlayerLoginEvent event) {
+        if (event.getResult() == PlayerLoginEvent.Result.ALLOWED)
+            return;
+
+        var playerId = event.getPlayer().getUniqueId();
+        _prefetched.remove(playerId);
+        OpenMentions.Database.releasePlayer(playerId);
+    }
+
     /**
      * Handles the PlayerJoinEvent.
-     * Loads or creates player data and adds it to the PlayerCacheManager.
+     * Loads or creates player data if it was not prefetched and adds it to the PlayerCacheManager,
+     * delivers the player's inbox and records the player's name in the name directory.
      *
      * @param event The PlayerJoinEvent triggered when a player joins the server.
      */
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
-        var config = OpenMentions.Config();
         Player player = event.getPlayer();
         var playerId = player.getUniqueId();
-        var playerOptData = OpenMentions.Database.getData(playerId);
-        if (playerOptData.isEmpty()) {
-            var defaultSoundKey = config.defaultSound;
-            var defaultDisplay = EMentionDisplay.valueOf(config.defaultDisplay);
-            var defaultPreference = EMentionPreference.valueOf(config.defaultPreference);
-            OpenMentions.Database.addData(playerId, defaultSoundKey, defaultDisplay, defaultPreference);
+        OnlinePlayerDirectory.add(player);
+        // Nickname plugins often set the display name after the join event, read it again a bit later.
+        OpenMentions.Timers.schedule(1, TimeUnit.SECONDS, () ->
+                OpenMentions.Scheduler.runForEntity(player, () -> OnlinePlayerDirectory.refreshDisplayName(player)));
+        GroupMentionManager.update(player);
+        VanishRegistry.update(player);
+        OpenMentions.Database.pinPlayer(playerId);
+        // The profile and the inbox are normally prefetched during the login, this is only a fallback.
+        List<InboxMention> inbox = _prefetched.remove(playerId);
+        if (inbox == null) {
+            loadProfile(playerId).exceptionally(e -> {
+                _logger.Error("Failed to load player data for " + player.getName() + ": " + e.getMessage());
+                return null;
+            });
+            MentionInbox.deliver(player, loadInbox(playerId));
+        } else {
+            MentionInbox.deliver(player, CompletableFuture.completedFuture(inbox));
         }
+        // Keeps the name directory used by the commands current, even after a name change.
+        OpenMentions.AsyncDatabase.updatePlayerName(playerId, player.getName()).exceptionally(e -> {
+            _logger.Error("Failed to update the name of " + player.getName() + ": " + e.getMessage());
+            return null;
+        });
         if (PlayerCacheManager.isMarkedForRemoval(playerId))
             PlayerCacheManager.unmarkForRemoval(playerId);
     }
 
-    @EventHandler
+    /**
+     * Loads the data of a player, creating it with the default settings if it does not exist yet.
+     *
+     * @param playerId The UUID of the player.
+     * @return A future completed once the data is cached.
+     */
+    private CompletableFuture<Void> loadProfile(UUID playerId) {
+        var config = OpenMentions.Config();
+        return OpenMentions.AsyncDatabase.getData(playerId).thenCompose(playerOptData -> {
+            if (playerOptData.isPresent())
+                return CompletableFuture.<Void>completedFuture(null);
+
+            var defaultSoundKey = config.defaultSound;
+            var defaultDisplay = EMentionDisplay.valueOf(config.defaultDisplay);
+            var defaultPreference = EMentionPreference.valueOf(config.defaultPreference);
+            return OpenMentions.AsyncDatabase.addData(playerId, defaultSoundKey, defaultDisplay, defaultPreference);
+        });
+    }
+
+    /**
+     * Loads the inbox of a player, unless the inbox is disabled.
+     *
+     * @param playerId The UUID of the player.
+     * @return A future completed with the mentions in the player's inbox.
+     */
+    private CompletableFuture<List<InboxMention>> loadInbox(UUID playerId) {
+        if (!OpenMentions.Config().inboxEnabled)
+            return CompletableFuture.completedFuture(List.of());
+        return OpenMentions.AsyncDatabase.getInbox(playerId);
+    }
+
+    /**
+     * Handles the PlayerQuitEvent.
+     * Removes the player from the online directory, the groups and the vanish registry, and marks their cached data for removal.
+     *
+     * @param event The PlayerQuitEvent triggered when a player leaves the server.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerQuit(PlayerQuitEvent event) {
+        OnlinePlayerDirectory.remove(event.getPlayer());
+        GroupMentionManager.remove(event.getPlayer().getUniqueId());
+        VanishRegistry.remove(event.getPlayer().getUniqueId());
+        _prefetched.remove(event.getPlayer().getUniqueId());
         PlayerCacheManager.markForRemoval(event.getPlayer().getUniqueId());
     }
 }
\ No newline at end of file
@@ -0,0 +1,181 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import io.github.tavstaldev.minecorelib.core.PluginLogger;
+import io.github.tavstaldev.openMentions.OpenMentions;
+import io.github.tavstaldev.openMentions.models.EMentionDisplay;
+import io.github.tavstaldev.openMentions.models.EMentionPreference;
+import io.github.tavstaldev.openMentions.models.IAsyncDatabase;
+import io.github.tavstaldev.openMentions.models.IDatabase;
+import io.github.tavstaldev.openMentions.models.InboxMention;
+import io.github.tavstaldev.openMentions.models.PlayerDatabaseData;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs the operations of an IDatabase on a dedicated I/O executor.
+ * Every operation gets its own virtual thread, while a semaphore bounds the number of
+ * operations that may use the database at the same time to the size of the backend's pool.
+ * Reads answered by the backend's caches complete right away, without a thread or a permit.
+ */
+public class AsyncDatabaseManager implements IAsyncDatabase {
+    /** Logger instance for logging messages related to AsyncDatabaseManager. */
+    private static final PluginLogger _logger = OpenMentions.Logger().WithModule(AsyncDatabaseManager.class);
+
+    /** The database the operations are delegated to. */
+    private final IDatabase _database;
+
+    /** Executor running the database operations. */
+    private final ExecutorService _executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /** Limits the number of operations running against the database at the same time. */
+    private final Semaphore _permits;
+
+    /**
+     * Creates a new asynchronous wrapper around a database.
+     *
+     * @param database The database to delegate the operations to.
+     */
+    public AsyncDatabaseManager(IDatabase database) {
+        _database = database;
+        _permits = new Semaphore(Math.max(1, database.getMaxConcurrency()), true);
+    }
+
+    /**
+     * Runs a task on the I/O executor once a database permit is available.
+     *
+     * @param task The task to run.
+     * @return A future completed with the result of the task.
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            _permits.acquireUninterruptibly();
+            try {
+                return task.get();
+            } finally {
+                _permits.release();
+            }
+        }, _executor);
+    }
+
+    /**
+     * Runs a task on the I/O executor once a database permit is available.
+     *
+     * @param task The task to run.
+     * @return A future completed once the task has finished.
+     */
+    public CompletableFuture<Void> run(Runnable task) {
+        return supply(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    @Override
+    public void shutdown() {
+        _executor.shutdown();
+        try {
+            if (!_executor.awaitTermination(10, TimeUnit.SECONDS))
+                _logger.Warn("Timed out while waiting for pending database operations to finish.");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> flush() {
+        return run(_database::flush);
+    }
+
+    @Override
+    public CompletableFuture<Void> addData(UUID playerId, String soundKey, EMentionDisplay display, EMentionPreference preference) {
+        return run(() -> _database.addData(playerId, soundKey, display, preference));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateSound(UUID playerId, String soundKey) {
+        return run(() -> _database.updateSound(playerId, soundKey));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateDisplay(UUID playerId, EMentionDisplay display) {
+        return run(() -> _database.updateDisplay(playerId, display));
+    }
+
+    @Override
+    public CompletableFuture<Void> updatePreference(UUID playerId, EMentionPreference preference) {
+        return run(() -> _database.updatePreference(playerId, preference));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateData(UUID playerId, String soundKey, EMentionDisplay display, EMentionPreference preference) {
+        return run(() -> _database.updateData(playerId, soundKey, display, preference));
+    }
+
+    @Override
+    public CompletableFuture<Void> removeData(UUID playerId) {
+        return run(() -> _database.removeData(playerId));
+    }
+
+    @Override
+    public CompletableFuture<Optional<PlayerDatabaseData>> getData(UUID playerId) {
+        PlayerDatabaseData cached = _database.getCachedData(playerId);
+        if (cached != null)
+            return CompletableFuture.completedFuture(Optional.of(cached));
+        return supply(() -> _database.getData(playerId));
+    }
+
+    @Override
+    public CompletableFuture<Set<UUID>> getIgnoredPlayers(UUID playerId) {
+        Set<UUID> cached = _database.getCachedIgnoredPlayers(playerId);
+        if (cached != null)
+            return CompletableFuture.completedFuture(cached);
+        return supply(() -> _database.getIgnoredPlayers(playerId));
+    }
+
+    @Override
+    public CompletableFuture<Void> updatePlayerName(UUID playerId, String name) {
+        return run(() -> _database.updatePlayerName(playerId, name));
+    }
+
+    @Override
+    public CompletableFuture<Optional<UUID>> findPlayerId(String name) {
+        return supply(() -> _database.findPlayerId(name));
+    }
+
+    @Override
+    public CompletableFuture<List<InboxMention>> getInbox(UUID playerId) {
+        return supply(() -> _database.getInbox(playerId));
+    }
+
+    @Override
+    public CompletableFuture<Void> clearInbox(UUID playerId, long lastId) {
+        return run(() -> _database.clearInbox(playerId, lastId));
+    }
+
+    @Override
+    public CompletableFuture<Void> addIgnoredPlayer(UUID playerId, UUID ignoredPlayerId) {
+        return run(() -> _database.addIgnoredPlayer(playerId, ignoredPlayerId));
+    }
+
+    @Override
+    public CompletableFuture<Void> removeIgnoredPlayer(UUID playerId, UUID ignoredPlayerId) {
+        return run(() -> _database.removeIgnoredPlayer(playerId, ignoredPlayerId));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isPlayerIgnored(UUID playerId, UUID ignoredPlayerId) {
+        Set<UUID> cached = _database.getCachedIgnoredPlayers(playerId);
+        if (cached != null)
+            return CompletableFuture.completedFuture(cached.contains(ignoredPlayerId));
+        return supply(() -> _database.isPlayerIgnored(playerId, ignoredPlayerId));
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import io.github.tavstaldev.openMentions.OpenMentions;
+import io.github.tavstaldev.openMentions.models.IScheduledTask;
+import io.github.tavstaldev.openMentions.models.ITaskScheduler;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Implementation of the ITaskScheduler interface for Bukkit and Paper.
+ * Every task runs on the single server thread.
+ */
+public class BukkitTaskScheduler implements ITaskScheduler {
+    /**
+     * Handle of a task scheduled with the Bukkit scheduler.
+     */
+    private record BukkitScheduledTask(BukkitTask task) implements IScheduledTask {
+        @Override
+        public void cancel() {
+            task.cancel();
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return task.isCancelled();
+        }
+    }
+
+    @Override
+    public IScheduledTask runTimer(Runnable task, long delay, long period) {
+        return new BukkitScheduledTask(Bukkit.getScheduler().runTaskTimer(OpenMentions.Instance, task, delay, period));
+    }
+
+    @Override
+    public void runForEntity(Entity entity, Runnable task) {
+        // Already on the owning thread, no need to wait for the next tick.
+        if (Bukkit.isPrimaryThread()) {
+            if (entity.isValid())
+                task.run();
+            return;
+        }
+
+        Bukkit.getScheduler().runTask(OpenMentions.Instance, () -> {
+            if (entity.isValid())
+                task.run();
+        });
+    }
+
+    @Override
+    public void runGlobal(Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+            return;
+        }
+
+        Bukkit.getScheduler().runTask(OpenMentions.Instance, task);
+    }
+}
@@ -1,26 +1,61 @@
 package io.github.tavstaldev.openMentions.managers;
 
 import com.github.sirblobman.combatlogx.api.ICombatLogX;
+import com.github.sirblobman.combatlogx.api.event.PlayerTagEvent;
+import com.github.sirblobman.combatlogx.api.event.PlayerUntagEvent;
 import io.github.tavstaldev.minecorelib.core.PluginLogger;
 import io.github.tavstaldev.openMentions.OpenMentions;
 import io.github.tavstaldev.openMentions.models.ICombatManager;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.Plugin;
 
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Manages interactions with the CombatLogX plugin to determine if a player is in combat.
  * Implements the ICombatManager interface.
+ * The combat state is mirrored from the tag and untag events of CombatLogX into a concurrent set,
+ * so checking it from the chat thread does not call into CombatLogX at all.
  */
-public class CombatLogManager implements ICombatManager {
+public class CombatLogManager implements ICombatManager, Listener {
     // Logger instance for logging messages related to this class.
     private final PluginLogger _logger = OpenMentions.Logger().WithModule(CombatLogManager.class);
 
     // Reference to the CombatLogX API.
     private ICombatLogX combatLogXAPI;
 
-    // Tracks whether the CombatLogX plugin has been initialized.
-    private boolean isInitialized = false;
+    // Players who are tagged and cannot bypass the combat checks.
+    private final Set<UUID> _tagged = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Hooks into CombatLogX and registers the listener of its combat events.
+     * Players who are already in combat are added right away.
+     */
+    public CombatLogManager() {
+        Plugin plugin = Bukkit.getPluginManager().getPlugin("CombatLogX");
+        if (!(plugin instanceof ICombatLogX)) {
+            // Fallback if CombatLogX is not found or incompatible.
+            _logger.Warn("CombatLogX is not compatible, combat checks will be disabled.");
+            return;
+        }
+
+        combatLogXAPI = (ICombatLogX) plugin;
+        Bukkit.getPluginManager().registerEvents(this, OpenMentions.Instance);
+        try {
+            for (Player player : combatLogXAPI.getCombatManager().getPlayersInCombat()) {
+                tag(player);
+            }
+        } catch (Exception ex) {
+            _logger.Error(String.format("Unknown error happened while loading the players in combat...\n%s", ex.getMessage()));
+        }
+    }
 
     /**
      * Checks if a given player is currently in combat.
@@ -30,37 +65,53 @@ public class CombatLogManager implements ICombatManager {
      */
     @Override
     public boolean isPlayerInCombat(Player player) {
-        try {
-            // If the CombatLogX API is not yet initialized, attempt to initialize it.
-            if (combatLogXAPI == null) {
-                if (!isInitialized) {
-                    isInitialized = true;
+        return _tagged.contains(player.getUniqueId());
+    }
 
-                    // Attempt to retrieve the CombatLogX plugin from the Bukkit plugin manager.
-                    Plugin plugin = Bukkit.getPluginManager().getPlugin("CombatLogX");
-                    if (plugin instanceof ICombatLogX) {
-                        combatLogXAPI = (ICombatLogX) plugin;
-                    } else {
-                        // Fallback if CombatLogX is not found or incompatible.
-                        return false;
-                    }
-                } else {
-                    // If initialization has already been attempted, return false.
-                    return false;
-                }
-            }
+    /**
+     * Handles the PlayerTagEvent of CombatLogX.
+     *
+     * @param event The event fired when a player is tagged.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerTag(PlayerTagEvent event) {
+        tag(event.getPlayer());
+    }
 
-            // Use the CombatLogX API to check if the player is in combat.
-            var combatManager = combatLogXAPI.getCombatManager();
-            if (combatManager.canBypass(player)) {
-                // If the player can bypass combat checks, return false.
-                return false;
-            }
-            return combatManager.isInCombat(player);
+    /**
+     * Handles the PlayerUntagEvent of CombatLogX.
+     *
+     * @param event The event fired when a player is no longer in combat.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerUntag(PlayerUntagEvent event) {
+        _tagged.remove(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Handles the PlayerQuitEvent, in case the player leaves without being untagged.
+     *
+     * @param event The event fired when a player leaves the server.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        _tagged.remove(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Marks a player as in combat, unless they can bypass the combat checks.
+     * The bypass is only checked here, once per tag.
+     *
+     * @param player The player who was tagged.
+     */
+    private void tag(Player player) {
+        try {
+            if (combatLogXAPI.getCombatManager().canBypass(player))
+                return;
+
+            _tagged.add(player.getUniqueId());
         } catch (Exception ex) {
-            // Log any errors that occur during the combat check.
             _logger.Error("Error checking combat status for player " + player.getName() + ": " + ex.getMessage());
-            return false;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,24 +1,140 @@
 package io.github.tavstaldev.openMentions.managers;
 
+import io.github.tavstaldev.openMentions.OMConfig;
+import io.github.tavstaldev.openMentions.OpenMentions;
 import io.github.tavstaldev.openMentions.models.ICombatManager;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
+import org.bukkit.entity.Projectile;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.projectiles.ProjectileSource;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
- * A basic implementation of the ICombatManager interface.
- * This class provides a placeholder implementation for checking
- * if a player is in combat.
+ * Built-in implementation of the ICombatManager interface, used when CombatLogX is not installed.
+ * A player is in combat for a configured time after dealing or taking damage from another player,
+ * or from any living entity if PvE combat is enabled. Projectiles count for their shooter.
+ * The combat deadlines live in a CooldownTable, so the check is lock-free from any thread,
+ * and expire through the plugin's timing wheel.
  */
-public class CombatManager implements ICombatManager {
+public class CombatManager implements ICombatManager, Listener {
+    private final CooldownTable _deadlines = new CooldownTable();
+
+    /**
+     * Registers the listener of the damage events.
+     */
+    public CombatManager() {
+        Bukkit.getPluginManager().registerEvents(this, OpenMentions.Instance);
+    }
+
     /**
      * Checks if a given player is currently in combat.
      *
      * @param player The player to check.
-     * @return Always returns false as this is a placeholder implementation.
+     * @return True if the player dealt or took combat damage within the configured time.
      */
     @Override
     public boolean isPlayerInCombat(Player player) {
-        // Placeholder implementation
-        // I might implement this later
-        return false;
+        return _deadlines.isActive(player.getUniqueId());
+    }
+
+    /**
+     * Handles the EntityDamageByEntityEvent.
+     * Tags the players involved in the damage, after every other plugin had the chance to cancel it.
+     *
+     * @param event The event fired when an entity is damaged by another entity.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityDamageByEntity(EntityDamageByEntityEvent event) {
+        OMConfig config = OpenMentions.Config();
+        if (!config.combatEnabled)
+            return;
+
+        Entity victim = event.getEntity();
+        Entity attacker = getAttacker(event.getDamager());
+        if (attacker == null || attacker == victim)
+            return;
+
+        boolean victimIsPlayer = isPlayer(victim);
+        boolean attackerIsPlayer = isPlayer(attacker);
+        if (victimIsPlayer && attackerIsPlayer) {
+            tag(victim.getUniqueId(), config.combatDuration);
+            tag(attacker.getUniqueId(), config.combatDuration);
+            return;
+        }
+
+        if (!config.combatPve)
+            return;
+
+        if (victimIsPlayer && attacker instanceof LivingEntity) {
+            tag(victim.getUniqueId(), config.combatDuration);
+        } else if (attackerIsPlayer && victim instanceof LivingEntity) {
+            tag(attacker.getUniqueId(), config.combatDuration);
+        }
+    }
+
+    /**
+     * Handles the PlayerQuitEvent, so players who leave do not stay in combat.
+     *
+     * @param event The event fired when a player leaves the server.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        _deadlines.remove(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Retrieves the entity responsible for the damage, the shooter in case of projectiles.
+     *
+     * @return The attacker, or null if it is not an entity, such as a dispenser.
+     */
+    private static Entity getAttacker(Entity damager) {
+        if (damager instanceof Projectile projectile) {
+            ProjectileSource shooter = projectile.getShooter();
+            return shooter instanceof Entity entity ? entity : null;
+        }
+        return damager;
+    }
+
+    /**
+     * Checks if an entity is a real player, NPCs of other plugins are not.
+     */
+    private static boolean isPlayer(Entity entity) {
+        return entity instanceof Player && !entity.hasMetadata("NPC");
+    }
+
+    /**
+     * Puts a player in combat, or extends their combat, for the given time.
+     *
+     * @param playerId The UUID of the player.
+     * @param duration The length of the combat, in seconds.
+     */
+    private void tag(UUID playerId, int duration) {
+        if (duration <= 0)
+            return;
+
+        long nanos = TimeUnit.SECONDS.toNanos(duration);
+        // A refreshed entry already has an expiry scheduled, which reschedules itself if needed.
+        if (_deadlines.put(playerId, System.nanoTime() + nanos))
+            OpenMentions.Timers.schedule(nanos, TimeUnit.NANOSECONDS, () -> expire(playerId));
+    }
+
+    /**
+     * Removes the combat entry of a player if it has expired, or waits for the rest of it otherwise.
+     *
+     * @param playerId The UUID of the player.
+     */
+    private void expire(UUID playerId) {
+        long remaining = _deadlines.expire(playerId, System.nanoTime());
+        if (remaining > 0)
+            OpenMentions.Timers.schedule(remaining, TimeUnit.NANOSECONDS, () -> expire(playerId));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,403 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Concurrent table of cooldown deadlines keyed by player UUID.
+ * Entries live in primitive open-addressing arrays split into segments, each guarded by a
+ * StampedLock. Lookups use optimistic reads, so checking a cooldown never blocks and never
+ * allocates; deadlines are monotonic System.nanoTime values.
+ * The same layout also stores token buckets for rate limiting, see tryAcquire.
+ */
+public class CooldownTable {
+    /** Number of segments. Must be a power of two. */
+    private static final int SEGMENTS = 16;
+
+    /** Initial number of slots of a segment. Must be a power of two. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Number of longs stored per slot: most significant bits, least significant bits, deadline. */
+    private static final int STRIDE = 3;
+
+    private final Segment[] _segments = new Segment[SEGMENTS];
+
+    /**
+     * The arrays of a segment. A resize swaps the whole holder, so an optimistic reader
+     * always sees arrays of matching length.
+     */
+    private static final class Slots {
+        final long[] entries;
+        final boolean[] used;
+        final int mask;
+
+        Slots(int capacity) {
+            entries = new long[capacity * STRIDE];
+            used = new boolean[capacity];
+            mask = capacity - 1;
+        }
+    }
+
+    private static final class Segment {
+        final StampedLock lock = new StampedLock();
+        Slots slots = new Slots(INITIAL_CAPACITY);
+        int size;
+    }
+
+    /**
+     * Creates a new, empty cooldown table.
+     */
+    public CooldownTable() {
+        for (int i = 0; i < SEGMENTS; i++) {
+            _segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Mixes the bits of a UUID into a well distributed hash.
+     * The top bits select the segment, the low bits the home slot within it.
+     * Package-private, so the tests can build keys colliding in one segment.
+     */
+    static int hash(long msb, long lsb) {
+        long h = (msb ^ Long.rotateLeft(lsb, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private Segment segmentOf(int hash) {
+        return _segments[(hash >>> 28) & (SEGMENTS - 1)];
+    }
+
+    /**
+     * Finds the slot of a key.
+     *
+     * @return The slot index, or -1 if the key is not in the table.
+     */
+    private static int find(Slots slots, int hash, long msb, long lsb) {
+        int index = hash & slots.mask;
+        // Bounded by the capacity, so an inconsistent optimistic read can never loop forever.
+        for (int probes = 0; probes <= slots.mask; probes++) {
+            if (!slots.used[index])
+                return -1;
+            int offset = index * STRIDE;
+            if (slots.entries[offset] == msb && slots.entries[offset + 1] == lsb)
+                return index;
+            index = (index + 1) & slots.mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves the deadline of a key.
+     *
+     * @return The deadline, or now if the key is not in the table.
+     */
+    private long readDeadline(Segment segment, int hash, long msb, long lsb, long now) {
+        long stamp = segment.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            Slots slots = segment.slots;
+            int index = find(slots, hash, msb, lsb);
+            long deadline = index < 0 ? now : slots.entries[index * STRIDE + 2];
+            if (segment.lock.validate(stamp))
+                return deadline;
+        }
+
+        stamp = segment.lock.readLock();
+        try {
+            Slots slots = segment.slots;
+            int index = find(slots, hash, msb, lsb);
+            return index < 0 ? now : slots.entries[index * STRIDE + 2];
+        } finally {
+            segment.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Checks if a player is on cooldown.
+     *
+     * @param msb The most significant bits of the player's UUID.
+     * @param lsb The least significant bits of the player's UUID.
+     * @param now The current System.nanoTime value.
+     * @return True if the player has a deadline later than now.
+     */
+    public boolean isActive(long msb, long lsb, long now) {
+        int hash = hash(msb, lsb);
+        return readDeadline(segmentOf(hash), hash, msb, lsb, now) - now > 0;
+    }
+
+    /**
+     * Checks if a player is on cooldown.
+     *
+     * @param playerId The UUID of the player.
+     * @return True if the player's cooldown has not expired yet.
+     */
+    public boolean isActive(UUID playerId) {
+        return isActive(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits(), System.nanoTime());
+    }
+
+    /**
+     * Retrieves the remaining time of a player's cooldown.
+     *
+     * @param playerId The UUID of the player.
+     * @param unit The unit of the returned value.
+     * @return The remaining time, or 0 if the player is not on cooldown.
+     */
+    public long getRemaining(UUID playerId, TimeUnit unit) {
+        long msb = playerId.getMostSignificantBits();
+        long lsb = playerId.getLeastSignificantBits();
+        int hash = hash(msb, lsb);
+        long now = System.nanoTime();
+        long remaining = readDeadline(segmentOf(hash), hash, msb, lsb, now) - now;
+        return remaining > 0 ? unit.convert(remaining, TimeUnit.NANOSECONDS) : 0;
+    }
+
+    /**
+     * Sets the cooldown deadline of a player, replacing the previous one.
+     *
+     * @param playerId The UUID of the player.
+     * @param deadline The System.nanoTime value at which the cooldown ends.
+     * @return True if the player had no entry in the table yet.
+     */
+    public boolean put(UUID playerId, long deadline) {
+        long msb = playerId.getMostSignificantBits();
+        long lsb = playerId.getLeastSignificantBits();
+        int hash = hash(msb, lsb);
+        Segment segment = segmentOf(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            Slots slots = segment.slots;
+            int index = find(slots, hash, msb, lsb);
+            if (index >= 0) {
+                slots.entries[index * STRIDE + 2] = deadline;
+                return false;
+            }
+
+            if ((segment.size + 1) * 4 > (slots.mask + 1) * 3) {
+                slots = resize(slots);
+                segment.slots = slots;
+            }
+            insert(slots, hash, msb, lsb, deadline);
+            segment.size++;
+            return true;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the cooldown of a player.
+     *
+     * @param playerId The UUID of the player.
+     * @return True if the player had a cooldown entry.
+     */
+    public boolean remove(UUID playerId) {
+        long msb = playerId.getMostSignificantBits();
+        long lsb = playerId.getLeastSignificantBits();
+        int hash = hash(msb, lsb);
+        Segment segment = segmentOf(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            Slots slots = segment.slots;
+            int index = find(slots, hash, msb, lsb);
+            if (index < 0)
+                return false;
+
+            delete(slots, index);
+            segment.size--;
+            return true;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the cooldown of a player if it has already expired.
+     * The check and the removal are atomic, so a deadline refreshed concurrently is never lost.
+     *
+     * @param playerId The UUID of the player.
+     * @param now The current System.nanoTime value.
+     * @return The remaining nanoseconds if the cooldown is still active, otherwise 0.
+     */
+    public long expire(UUID playerId, long now) {
+        long msb = playerId.getMostSignificantBits();
+        long lsb = playerId.getLeastSignificantBits();
+        int hash = hash(msb, lsb);
+        Segment segment = segmentOf(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            Slots slots = segment.slots;
+            int index = find(slots, hash, msb, lsb);
+            if (index < 0)
+                return 0;
+
+            long remaining = slots.entries[index * STRIDE + 2] - now;
+            if (remaining > 0)
+                return remaining;
+
+            delete(slots, index);
+            segment.size--;
+            return 0;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Takes one token from a rate limiting bucket stored in the table.
+     * Buckets use the generic cell rate algorithm: the stored deadline is the time at which the
+     * bucket becomes full again, so a whole token bucket fits in a single slot.
+     *
+     * @param msb The first half of the bucket's key.
+     * @param lsb The second half of the bucket's key.
+     * @param interval The time it takes to refill one token, in nanoseconds.
+     * @param capacity The maximum number of tokens of the bucket.
+     * @param now The current System.nanoTime value.
+     * @return True if a token was taken, false if the bucket is empty.
+     */
+    public boolean tryAcquire(long msb, long lsb, long interval, int capacity, long now) {
+        int hash = hash(msb, lsb);
+        Segment segment = segmentOf(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            Slots slots = segment.slots;
+            int index = find(slots, hash, msb, lsb);
+            long full = index < 0 ? now : Math.max(slots.entries[index * STRIDE + 2], now);
+            long next = full + interval;
+            if (next - now > interval * capacity)
+                return false;
+
+            if (index >= 0) {
+                slots.entries[index * STRIDE + 2] = next;
+                return true;
+            }
+
+            if ((segment.size + 1) * 4 > (slots.mask + 1) * 3) {
+                slots = resize(slots);
+                segment.slots = slots;
+            }
+            insert(slots, hash, msb, lsb, next);
+            segment.size++;
+            return true;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Gives back a token taken by tryAcquire.
+     *
+     * @param msb The first half of the bucket's key.
+     * @param lsb The second half of the bucket's key.
+     * @param interval The time it takes to refill one token, in nanoseconds.
+     */
+    public void refund(long msb, long lsb, long interval) {
+        int hash = hash(msb, lsb);
+        Segment segment = segmentOf(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            Slots slots = segment.slots;
+            int index = find(slots, hash, msb, lsb);
+            if (index >= 0)
+                slots.entries[index * STRIDE + 2] -= interval;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes every expired entry of the table.
+     *
+     * @param now The current System.nanoTime value.
+     * @return The number of removed entries.
+     */
+    public int purgeExpired(long now) {
+        int removed = 0;
+        for (Segment segment : _segments) {
+            long stamp = segment.lock.writeLock();
+            try {
+                Slots slots = segment.slots;
+                int index = 0;
+                while (index <= slots.mask) {
+                    // Deleting shifts the following entries back, so the same slot is checked again.
+                    if (slots.used[index] && slots.entries[index * STRIDE + 2] - now <= 0) {
+                        delete(slots, index);
+                        segment.size--;
+                        removed++;
+                    } else {
+                        index++;
+                    }
+                }
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Retrieves the number of entries in the table, including expired ones not removed yet.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : _segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                size += segment.size;
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    private static void insert(Slots slots, int hash, long msb, long lsb, long deadline) {
+        int index = hash & slots.mask;
+        while (slots.used[index]) {
+            index = (index + 1) & slots.mask;
+        }
+        int offset = index * STRIDE;
+        slots.entries[offset] = msb;
+        slots.entries[offset + 1] = lsb;
+        slots.entries[offset + 2] = deadline;
+        slots.used[index] = true;
+    }
+
+    /**
+     * Removes a slot using backward shift deletion, so no tombstones are left behind.
+     */
+    private static void delete(Slots slots, int index) {
+        int mask = slots.mask;
+        int hole = index;
+        int next = index;
+        while (true) {
+            next = (next + 1) & mask;
+            if (!slots.used[next])
+                break;
+
+            int offset = next * STRIDE;
+            int home = hash(slots.entries[offset], slots.entries[offset + 1]) & mask;
+            // Move the entry into the hole unless its home slot lies cyclically in (hole, next].
+            boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (movable) {
+                System.arraycopy(slots.entries, offset, slots.entries, hole * STRIDE, STRIDE);
+                hole = next;
+            }
+        }
+        slots.used[hole] = false;
+    }
+
+    private static Slots resize(Slots slots) {
+        Slots resized = new Slots((slots.mask + 1) * 2);
+        for (int i = 0; i <= slots.mask; i++) {
+            if (!slots.used[i])
+                continue;
+            int offset = i * STRIDE;
+            long msb = slots.entries[offset];
+            long lsb = slots.entries[offset + 1];
+            insert(resized, hash(msb, lsb), msb, lsb, slots.entries[offset + 2]);
+        }
+        return resized;
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import io.github.tavstaldev.openMentions.OpenMentions;
+import io.github.tavstaldev.openMentions.models.IScheduledTask;
+import io.github.tavstaldev.openMentions.models.ITaskScheduler;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+
+/**
+ * Implementation of the ITaskScheduler interface for Folia.
+ * Timers run on the global region thread, entity tasks run on the thread of the region
+ * that owns the entity and follow it between regions.
+ */
+public class FoliaTaskScheduler implements ITaskScheduler {
+    /**
+     * Handle of a task scheduled with a Folia scheduler.
+     */
+    private record FoliaScheduledTask(ScheduledTask task) implements IScheduledTask {
+        @Override
+        public void cancel() {
+            task.cancel();
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return task.isCancelled();
+        }
+    }
+
+    /**
+     * Checks if the server is running Folia.
+     *
+     * @return True if the region threaded server is present, false otherwise.
+     */
+    public static boolean isSupported() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public IScheduledTask runTimer(Runnable task, long delay, long period) {
+        // Folia rejects delays below one tick.
+        ScheduledTask scheduled = Bukkit.getGlobalRegionScheduler().runAtFixedRate(OpenMentions.Instance,
+                t -> task.run(), Math.max(1, delay), Math.max(1, period));
+        return new FoliaScheduledTask(scheduled);
+    }
+
+    @Override
+    public void runForEntity(Entity entity, Runnable task) {
+        // Without a retired callback the task is dropped if the entity is removed first.
+        entity.getScheduler().run(OpenMentions.Instance, t -> task.run(), null);
+    }
+
+    @Override
+    public void runGlobal(Runnable task) {
+        Bukkit.getGlobalRegionScheduler().execute(OpenMentions.Instance, task);
+    }
+}
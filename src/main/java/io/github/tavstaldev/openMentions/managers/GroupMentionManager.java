@@ -0,0 +1,265 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import io.github.tavstaldev.openMentions.OMConfig;
+import io.github.tavstaldev.openMentions.OpenMentions;
+import io.github.tavstaldev.openMentions.utils.MentionUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manages group mentions such as {@code @everyone}, {@code @here} and the configured permission groups.
+ * Group membership is precomputed and kept current on join, quit and a periodic permission refresh.
+ * Mentions are delivered by the global thread over several ticks, with a limited number of
+ * recipients per tick, so a large audience does not produce a single spike of notifications.
+ * The checks and the notification of each recipient run on the thread owning the recipient.
+ */
+public class GroupMentionManager {
+    /** Group of every online player. */
+    public static final String EVERYONE = "everyone";
+
+    /** Group of the online players near the mentioner. */
+    public static final String HERE = "here";
+
+    /** Members of every group, keyed by the lowercase group name. */
+    private static final Map<String, Set<UUID>> _members = new ConcurrentHashMap<>();
+
+    /** Group mentions waiting to be delivered. */
+    private static final Queue<FanOut> _queue = new ConcurrentLinkedQueue<>();
+
+    /** The pending permission refresh, replaced when the refresh is restarted. */
+    private static TimingWheel.Timeout _refreshTimeout;
+
+    /** The group mention currently being delivered. Only used by the global thread. */
+    private static FanOut _current;
+
+    /**
+     * A group mention being delivered.
+     */
+    private static final class FanOut {
+        final Player mentioner;
+        final String group;
+        UUID[] recipients;
+        Set<UUID> ignoredBy;
+        Location origin;
+        int index;
+
+        FanOut(Player mentioner, String group) {
+            this.mentioner = mentioner;
+            this.group = group;
+        }
+    }
+
+    /**
+     * Rebuilds the membership of every group from the players that are currently online.
+     */
+    public static void reload() {
+        _members.clear();
+        _members.put(EVERYONE, ConcurrentHashMap.newKeySet());
+        for (String group : OpenMentions.Config().groupPermissions.keySet()) {
+            _members.put(group, ConcurrentHashMap.newKeySet());
+        }
+        refresh();
+    }
+
+    /**
+     * Starts the periodic refresh of the permission groups on the plugin's timing wheel.
+     * A refresh that is already pending is cancelled, so the interval is read again after a reload.
+     */
+    public static synchronized void startRefresh() {
+        if (_refreshTimeout != null)
+            _refreshTimeout.cancel();
+        long interval = Math.max(1, OpenMentions.Config().groupsRefreshInterval);
+        _refreshTimeout = OpenMentions.Timers.schedule(interval, TimeUnit.SECONDS, () -> {
+            refresh();
+            startRefresh();
+        });
+    }
+
+    /**
+     * Re-checks the permission groups of every online player.
+     */
+    private static void refresh() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            OpenMentions.Scheduler.runForEntity(player, () -> update(player));
+        }
+    }
+
+    /**
+     * Updates the group memberships of a player.
+     * Should be called on join and whenever the permissions of the player may have changed,
+     * from the thread owning the player.
+     *
+     * @param player The player to update.
+     */
+    public static void update(Player player) {
+        UUID playerId = player.getUniqueId();
+        Set<UUID> everyone = _members.get(EVERYONE);
+        if (everyone != null)
+            everyone.add(playerId);
+
+        for (Map.Entry<String, String> group : OpenMentions.Config().groupPermissions.entrySet()) {
+            Set<UUID> members = _members.get(group.getKey());
+            if (members == null)
+                continue;
+
+            if (player.hasPermission(group.getValue())) {
+                members.add(playerId);
+            } else {
+                members.remove(playerId);
+            }
+        }
+    }
+
+    /**
+     * Removes a player from every group.
+     *
+     * @param playerId The UUID of the player who left the server.
+     */
+    public static void remove(UUID playerId) {
+        for (Set<UUID> members : _members.values()) {
+            members.remove(playerId);
+        }
+    }
+
+    /**
+     * Checks if a name refers to a group.
+     *
+     * @param name The lowercase name to check.
+     * @return True if the name is a group name and group mentions are enabled.
+     */
+    public static boolean isGroup(String name) {
+        if (!OpenMentions.Config().groupsEnabled)
+            return false;
+        return name.equals(EVERYONE) || name.equals(HERE) || OpenMentions.Config().groupPermissions.containsKey(name);
+    }
+
+    /**
+     * Checks if a player may mention a group.
+     *
+     * @param player The player who wants to mention the group.
+     * @param group The lowercase name of the group.
+     * @return True if the player has the permission of the group's mention.
+     */
+    public static boolean canMention(Player player, String group) {
+        return player.hasPermission("openmentions.mention." + group);
+    }
+
+    /**
+     * Queues a group mention for delivery. Can be called from any thread.
+     *
+     * @param mentioner The player who mentioned the group.
+     * @param group The lowercase name of the group.
+     */
+    public static void mentionGroup(Player mentioner, String group) {
+        FanOut fanOut = new FanOut(mentioner, group.toLowerCase(Locale.ROOT));
+        if (!fanOut.group.equals(HERE)) {
+            _queue.add(fanOut);
+            return;
+        }
+
+        // The location of the mentioner can only be read on the thread owning them.
+        OpenMentions.Scheduler.runForEntity(mentioner, () -> {
+            fanOut.origin = mentioner.getLocation();
+            _queue.add(fanOut);
+        });
+    }
+
+    /**
+     * Delivers the queued group mentions, up to the configured number of recipients.
+     * Must be called from the global thread once per tick.
+     */
+    public static void tick() {
+        OMConfig config = OpenMentions.Config();
+        int budget = Math.max(1, config.groupsPerTickBudget);
+        while (budget > 0) {
+            if (_current == null) {
+                _current = _queue.poll();
+                if (_current == null)
+                    return;
+                start(_current, config);
+            }
+
+            FanOut fanOut = _current;
+            while (budget > 0 && fanOut.index < fanOut.recipients.length) {
+                UUID recipientId = fanOut.recipients[fanOut.index++];
+                // Skipped recipients are cheap, only the recipients handed to their thread count against the budget.
+                if (deliver(fanOut, recipientId, config))
+                    budget--;
+            }
+
+            if (fanOut.index >= fanOut.recipients.length)
+                _current = null;
+        }
+    }
+
+    /**
+     * Takes the snapshot of the recipients and the ignore data of a group mention.
+     */
+    private static void start(FanOut fanOut, OMConfig config) {
+        String source = fanOut.group.equals(HERE) ? EVERYONE : fanOut.group;
+        Set<UUID> members = _members.get(source);
+        fanOut.recipients = members == null ? new UUID[0] : members.toArray(new UUID[0]);
+        // One reverse index lookup replaces an ignore list lookup per recipient.
+        fanOut.ignoredBy = OpenMentions.Database.getIgnoredBy(fanOut.mentioner.getUniqueId());
+    }
+
+    /**
+     * Hands a group mention to the thread owning a single recipient.
+     *
+     * @return True if the recipient was handed over, false if the recipient was skipped.
+     */
+    private static boolean deliver(FanOut fanOut, UUID recipientId, OMConfig config) {
+        if (recipientId.equals(fanOut.mentioner.getUniqueId()) || fanOut.ignoredBy.contains(recipientId))
+            return false;
+
+        Player recipient = Bukkit.getPlayer(recipientId);
+        if (recipient == null)
+            return false;
+
+        OpenMentions.Scheduler.runForEntity(recipient, () -> deliverTo(fanOut, recipient, config));
+        return true;
+    }
+
+    /**
+     * Delivers a group mention to a recipient, unless the state of the recipient excludes them.
+     * Must be called from the thread owning the recipient.
+     */
+    private static void deliverTo(FanOut fanOut, Player recipient, OMConfig config) {
+        if (recipient.getGameMode() == GameMode.SPECTATOR || VanishRegistry.isVanished(recipient))
+            return;
+
+        if (fanOut.group.equals(HERE)) {
+            if (fanOut.origin == null || recipient.getWorld() != fanOut.origin.getWorld())
+                return;
+            double radius = config.groupsHereRadius;
+            if (recipient.getLocation().distanceSquared(fanOut.origin) > radius * radius)
+                return;
+        }
+
+        MentionUtils.deliverMention(recipient, fanOut.mentioner);
+    }
+
+    /**
+     * Drops every queued group mention.
+     */
+    public static void clear() {
+        _queue.clear();
+        _current = null;
+        synchronized (GroupMentionManager.class) {
+            if (_refreshTimeout != null)
+                _refreshTimeout.cancel();
+            _refreshTimeout = null;
+        }
+    }
+}
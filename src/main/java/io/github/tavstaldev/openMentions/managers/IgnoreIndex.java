@@ -0,0 +1,259 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import io.github.tavstaldev.openMentions.models.CacheStatistics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory index of the ignore lists, shared by the database managers.
+ * Keeps the complete ignore set of every cached player, plus a reverse index telling which online
+ * players ignore a given player. Lookups are lock-free; loads and changes of the same player are
+ * serialized by a striped lock, so a concurrent load can never cache a set missing a change.
+ */
+public class IgnoreIndex {
+    /** Number of lock stripes. Must be a power of two. */
+    private static final int STRIPES = 64;
+
+    private final TieredCache<IgnoreSet> _forward;
+    private final Map<UUID, Set<UUID>> _ignoredBy = new ConcurrentHashMap<>();
+    private final Set<UUID> _indexed = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock[] _locks = new ReentrantLock[STRIPES];
+
+    /**
+     * Loads every player ignored by a player from the database.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        /**
+         * Loads the ignore list of a player.
+         *
+         * @param playerId The UUID of the player who is ignoring.
+         * @return The UUIDs of every ignored player.
+         * @throws Exception If the database operation fails.
+         */
+        Collection<UUID> load(UUID playerId) throws Exception;
+    }
+
+    /**
+     * Writes a single ignore list change to the database.
+     */
+    @FunctionalInterface
+    public interface Writer {
+        /**
+         * Executes the change.
+         *
+         * @throws Exception If the database operation fails.
+         */
+        void write() throws Exception;
+    }
+
+    /**
+     * Creates a new ignore index.
+     *
+     * @param offlineSize The maximum number of ignore sets cached for offline players.
+     * @param expireAfterAccess The number of minutes after which unused offline entries expire.
+     */
+    public IgnoreIndex(int offlineSize, int expireAfterAccess) {
+        _forward = new TieredCache<>("ignores", offlineSize, expireAfterAccess);
+        for (int i = 0; i < STRIPES; i++) {
+            _locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Retrieves the lock guarding the ignore set of a player.
+     *
+     * @param playerId The UUID of the player.
+     * @return The lock of the player's stripe.
+     */
+    private ReentrantLock lockOf(UUID playerId) {
+        int hash = playerId.hashCode();
+        return _locks[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    /**
+     * Retrieves the ignore set of a player, loading it in full on a cache miss.
+     *
+     * @param playerId The UUID of the player who is ignoring.
+     * @param loader Loads the ignore list from the database.
+     * @return The complete ignore set of the player.
+     * @throws Exception If the ignore list cannot be loaded.
+     */
+    public Set<UUID> get(UUID playerId, Loader loader) throws Exception {
+        IgnoreSet cached = _forward.getIfPresent(playerId);
+        if (cached != null)
+            return cached;
+
+        ReentrantLock lock = lockOf(playerId);
+        lock.lock();
+        try {
+            cached = _forward.getIfPresent(playerId);
+            if (cached != null)
+                return cached;
+
+            IgnoreSet set = new IgnoreSet(loader.load(playerId));
+            _forward.put(playerId, set);
+            if (_forward.isPinned(playerId))
+                index(playerId, set);
+            return set;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the cached ignore set of a player without touching the database.
+     *
+     * @param playerId The UUID of the player who is ignoring.
+     * @return The ignore set, or null if it is not cached.
+     */
+    public Set<UUID> getIfPresent(UUID playerId) {
+        return _forward.getIfPresent(playerId);
+    }
+
+    /**
+     * Retrieves the online players who ignore a player.
+     *
+     * @param playerId The UUID of the player who may be ignored.
+     * @return A read-only view of the UUIDs of the online players ignoring the player.
+     */
+    public Set<UUID> getIgnoredBy(UUID playerId) {
+        Set<UUID> ignoredBy = _ignoredBy.get(playerId);
+        return ignoredBy == null ? Set.of() : Collections.unmodifiableSet(ignoredBy);
+    }
+
+    /**
+     * Writes a new ignore to the database and applies it to the cached sets.
+     *
+     * @param playerId The UUID of the player who is ignoring.
+     * @param ignoredPlayerId The UUID of the player being ignored.
+     * @param writer Writes the change to the database.
+     * @throws Exception If the change cannot be written.
+     */
+    public void add(UUID playerId, UUID ignoredPlayerId, Writer writer) throws Exception {
+        ReentrantLock lock = lockOf(playerId);
+        lock.lock();
+        try {
+            writer.write();
+            // Sets that are not cached are loaded in full on the next lookup.
+            IgnoreSet set = _forward.getIfPresent(playerId);
+            if (set != null && set.insert(ignoredPlayerId) && _indexed.contains(playerId))
+                indexEntry(playerId, ignoredPlayerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes an ignore from the database and from the cached sets.
+     *
+     * @param playerId The UUID of the player who is ignoring.
+     * @param ignoredPlayerId The UUID of the player being unignored.
+     * @param writer Writes the change to the database.
+     * @throws Exception If the change cannot be written.
+     */
+    public void remove(UUID playerId, UUID ignoredPlayerId, Writer writer) throws Exception {
+        ReentrantLock lock = lockOf(playerId);
+        lock.lock();
+        try {
+            writer.write();
+            IgnoreSet set = _forward.getIfPresent(playerId);
+            if (set != null && set.delete(ignoredPlayerId) && _indexed.contains(playerId))
+                unindexEntry(playerId, ignoredPlayerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pins the ignore set of a player who is online and adds it to the reverse index.
+     *
+     * @param playerId The UUID of the player.
+     */
+    public void pin(UUID playerId) {
+        ReentrantLock lock = lockOf(playerId);
+        lock.lock();
+        try {
+            _forward.pin(playerId);
+            IgnoreSet set = _forward.getIfPresent(playerId);
+            if (set != null)
+                index(playerId, set);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the ignore set of a player who left and removes it from the reverse index.
+     *
+     * @param playerId The UUID of the player.
+     */
+    public void release(UUID playerId) {
+        ReentrantLock lock = lockOf(playerId);
+        lock.lock();
+        try {
+            if (_indexed.remove(playerId)) {
+                IgnoreSet set = _forward.getIfPresent(playerId);
+                if (set != null) {
+                    for (UUID ignoredId : set) {
+                        unindexEntry(playerId, ignoredId);
+                    }
+                }
+            }
+            _forward.release(playerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a snapshot of the statistics of the ignore set cache.
+     *
+     * @return The statistics of the cache.
+     */
+    public CacheStatistics getStatistics() {
+        return _forward.getStatistics();
+    }
+
+    /**
+     * Adds every entry of a player's ignore set to the reverse index.
+     * Must be called while holding the player's lock.
+     */
+    private void index(UUID playerId, IgnoreSet set) {
+        if (!_indexed.add(playerId))
+            return;
+
+        for (UUID ignoredId : set) {
+            indexEntry(playerId, ignoredId);
+        }
+    }
+
+    /**
+     * Adds a single entry to the reverse index.
+     * The update runs inside compute, so it cannot race with the removal of an emptied set.
+     */
+    private void indexEntry(UUID playerId, UUID ignoredId) {
+        _ignoredBy.compute(ignoredId, (k, ignoredBy) -> {
+            if (ignoredBy == null)
+                ignoredBy = ConcurrentHashMap.newKeySet();
+            ignoredBy.add(playerId);
+            return ignoredBy;
+        });
+    }
+
+    /**
+     * Removes a single entry from the reverse index, dropping the set once it is empty.
+     */
+    private void unindexEntry(UUID playerId, UUID ignoredId) {
+        _ignoredBy.computeIfPresent(ignoredId, (k, ignoredBy) -> {
+            ignoredBy.remove(playerId);
+            return ignoredBy.isEmpty() ? null : ignoredBy;
+        });
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Compact, read-only view of the players ignored by a single player.
+ * UUIDs are stored as sorted pairs of longs in a copy-on-write array, so lookups from chat
+ * threads are lock-free, allocation-free binary searches. Only the IgnoreIndex may modify it.
+ */
+public class IgnoreSet extends AbstractSet<UUID> {
+    private static final long[] EMPTY = new long[0];
+
+    /** Sorted most/least significant bit pairs: [msb0, lsb0, msb1, lsb1, ...]. */
+    private volatile long[] _entries;
+
+    /**
+     * Creates a new set from the given UUIDs.
+     *
+     * @param ids The UUIDs to store.
+     */
+    IgnoreSet(Collection<UUID> ids) {
+        UUID[] sorted = ids.toArray(new UUID[0]);
+        Arrays.sort(sorted);
+        long[] entries = new long[sorted.length * 2];
+        int count = 0;
+        for (UUID id : sorted) {
+            if (count > 0 && entries[count - 2] == id.getMostSignificantBits() && entries[count - 1] == id.getLeastSignificantBits())
+                continue;
+            entries[count++] = id.getMostSignificantBits();
+            entries[count++] = id.getLeastSignificantBits();
+        }
+        _entries = count == 0 ? EMPTY : Arrays.copyOf(entries, count);
+    }
+
+    /**
+     * Finds the position of a UUID in an entry array.
+     *
+     * @return The pair index of the UUID if present, otherwise (-(insertion point) - 1).
+     */
+    private static int search(long[] entries, long msb, long lsb) {
+        int low = 0;
+        int high = entries.length / 2 - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midMsb = entries[mid * 2];
+            int cmp = Long.compare(midMsb, msb);
+            if (cmp == 0)
+                cmp = Long.compare(entries[mid * 2 + 1], lsb);
+            if (cmp < 0)
+                low = mid + 1;
+            else if (cmp > 0)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Checks if the set contains the given UUID.
+     *
+     * @param msb The most significant bits of the UUID.
+     * @param lsb The least significant bits of the UUID.
+     * @return True if the UUID is in the set.
+     */
+    public boolean contains(long msb, long lsb) {
+        return search(_entries, msb, lsb) >= 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof UUID id))
+            return false;
+        return contains(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    @Override
+    public int size() {
+        return _entries.length / 2;
+    }
+
+    @Override
+    public Iterator<UUID> iterator() {
+        final long[] entries = _entries;
+        return new Iterator<>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < entries.length;
+            }
+
+            @Override
+            public UUID next() {
+                if (index >= entries.length)
+                    throw new NoSuchElementException();
+                UUID id = new UUID(entries[index], entries[index + 1]);
+                index += 2;
+                return id;
+            }
+        };
+    }
+
+    /**
+     * Adds a UUID to the set.
+     *
+     * @param id The UUID to add.
+     * @return True if the set did not contain the UUID.
+     */
+    synchronized boolean insert(UUID id) {
+        long[] entries = _entries;
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        int index = search(entries, msb, lsb);
+        if (index >= 0)
+            return false;
+
+        int position = (-index - 1) * 2;
+        long[] updated = new long[entries.length + 2];
+        System.arraycopy(entries, 0, updated, 0, position);
+        updated[position] = msb;
+        updated[position + 1] = lsb;
+        System.arraycopy(entries, position, updated, position + 2, entries.length - position);
+        _entries = updated;
+        return true;
+    }
+
+    /**
+     * Removes a UUID from the set.
+     *
+     * @param id The UUID to remove.
+     * @return True if the set contained the UUID.
+     */
+    synchronized boolean delete(UUID id) {
+        long[] entries = _entries;
+        int index = search(entries, id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (index < 0)
+            return false;
+
+        int position = index * 2;
+        long[] updated = entries.length == 2 ? EMPTY : new long[entries.length - 2];
+        System.arraycopy(entries, 0, updated, 0, position);
+        System.arraycopy(entries, position + 2, updated, position, entries.length - position - 2);
+        _entries = updated;
+        return true;
+    }
+}
@@ -0,0 +1,189 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import io.github.tavstaldev.minecorelib.core.PluginLogger;
+import io.github.tavstaldev.openMentions.OpenMentions;
+import io.github.tavstaldev.openMentions.models.InboxMention;
+import io.github.tavstaldev.openMentions.utils.UuidUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects the mentions of offline players and writes them to the inbox table in batches.
+ * The pending mentions of a player are bounded by the inbox cap, so a flood of mentions
+ * only keeps the newest ones even before they reach the database.
+ */
+public class InboxBuffer {
+    /** Logger instance for logging messages related to InboxBuffer. */
+    private static final PluginLogger _logger = OpenMentions.Logger().WithModule(InboxBuffer.class);
+
+    /** Maximum number of rows of a single INSERT statement, keeps SQLite below its parameter limit. */
+    private static final int ROWS_PER_STATEMENT = 100;
+
+    /** Pending mentions, keyed by the player they were sent to, oldest first. */
+    private final Map<UUID, ArrayDeque<InboxMention>> _pending = new ConcurrentHashMap<>();
+
+    /** Number of pending mentions of every player. */
+    private final AtomicInteger _size = new AtomicInteger();
+
+    /** Writes a batch of mentions to the database. */
+    private final BatchWriter _writer;
+
+    /** Maximum number of pending mentions of a single player. */
+    private final int _maxPerPlayer;
+
+    /** Number of pending mentions that triggers an early flush. */
+    private final int _maxBatchSize;
+
+    /**
+     * Serializes flushes, so a batch is never written twice at the same time.
+     * The inserts run on a virtual thread, which a lock does not pin to its carrier like a monitor would.
+     */
+    private final ReentrantLock _flushLock = new ReentrantLock();
+
+    /** Whether an early flush has already been requested. */
+    private final AtomicBoolean _flushRequested = new AtomicBoolean(false);
+
+    /**
+     * Callback writing a batch of mentions to the database.
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+        /**
+         * Writes a batch of mentions to the database.
+         *
+         * @param batch The pending mentions, keyed by the player they were sent to.
+         * @throws Exception If the batch could not be written.
+         */
+        void write(Map<UUID, List<InboxMention>> batch) throws Exception;
+    }
+
+    /**
+     * Creates a new inbox buffer.
+     *
+     * @param writer The callback writing a batch of mentions to the database.
+     * @param maxPerPlayer The maximum number of pending mentions of a single player.
+     * @param maxBatchSize The number of pending mentions that triggers an early flush.
+     */
+    public InboxBuffer(BatchWriter writer, int maxPerPlayer, int maxBatchSize) {
+        _writer = writer;
+        _maxPerPlayer = Math.max(1, maxPerPlayer);
+        _maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    /**
+     * Queues a mention to be written, dropping the oldest pending mention of the player if they reached the cap.
+     * Requests an asynchronous flush once the batch size threshold is reached.
+     *
+     * @param playerId The UUID of the mentioned player.
+     * @param mention The mention to store.
+     */
+    public void add(UUID playerId, InboxMention mention) {
+        offer(playerId, mention);
+        if (_size.get() >= _maxBatchSize && OpenMentions.AsyncDatabase != null && _flushRequested.compareAndSet(false, true))
+            OpenMentions.AsyncDatabase.flush();
+    }
+
+    /**
+     * Queues a mention without requesting a flush, so a failed batch does not retry itself right away.
+     */
+    private void offer(UUID playerId, InboxMention mention) {
+        _pending.compute(playerId, (key, mentions) -> {
+            if (mentions == null)
+                mentions = new ArrayDeque<>();
+            if (mentions.size() >= _maxPerPlayer)
+                mentions.pollFirst();
+            else
+                _size.incrementAndGet();
+            mentions.addLast(mention);
+            return mentions;
+        });
+    }
+
+    /**
+     * Writes every pending mention to the database.
+     * Mentions that fail to be written are queued again, within the cap of their player.
+     */
+    public void flush() {
+        _flushLock.lock();
+        try {
+            _flushRequested.set(false);
+            if (_pending.isEmpty())
+                return;
+
+            Map<UUID, List<InboxMention>> batch = new HashMap<>();
+            for (UUID playerId : _pending.keySet()) {
+                ArrayDeque<InboxMention> mentions = _pending.remove(playerId);
+                if (mentions == null)
+                    continue;
+                _size.addAndGet(-mentions.size());
+                batch.put(playerId, new ArrayList<>(mentions));
+            }
+
+            try {
+                _writer.write(batch);
+            } catch (Exception ex) {
+                _logger.Error(String.format("Failed to write the inbox of %s players, it will be retried...\n%s", batch.size(), ex.getMessage()));
+                for (var entry : batch.entrySet()) {
+                    for (InboxMention mention : entry.getValue()) {
+                        offer(entry.getKey(), mention);
+                    }
+                }
+            }
+        } finally {
+            _flushLock.unlock();
+        }
+    }
+
+    /**
+     * Inserts a batch of mentions using multi-row INSERT statements.
+     * Runs on the given connection, so the caller decides about the transaction.
+     *
+     * @param connection The connection to insert with.
+     * @param table The name of the inbox table.
+     * @param batch The mentions to insert, keyed by the player they were sent to.
+     * @throws SQLException If a database error occurs.
+     */
+    public static void insertRows(Connection connection, String table, Map<UUID, List<InboxMention>> batch) throws SQLException {
+        List<UUID> targets = new ArrayList<>();
+        List<InboxMention> rows = new ArrayList<>();
+        for (var entry : batch.entrySet()) {
+            for (InboxMention mention : entry.getValue()) {
+                targets.add(entry.getKey());
+                rows.add(mention);
+            }
+        }
+
+        for (int start = 0; start < rows.size(); start += ROWS_PER_STATEMENT) {
+            int count = Math.min(ROWS_PER_STATEMENT, rows.size() - start);
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(table)
+                    .append(" (PlayerId, SenderId, SenderName, CreatedAt) VALUES ");
+            for (int i = 0; i < count; i++) {
+                sql.append(i == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(sql.append(';').toString())) {
+                int parameter = 1;
+                for (int i = start; i < start + count; i++) {
+                    InboxMention mention = rows.get(i);
+                    statement.setBytes(parameter++, UuidUtils.toBytes(targets.get(i)));
+                    statement.setBytes(parameter++, UuidUtils.toBytes(mention.senderId()));
+                    statement.setString(parameter++, mention.senderName());
+                    statement.setLong(parameter++, mention.createdAt());
+                }
+                statement.executeUpdate();
+            }
+        }
+    }
+}
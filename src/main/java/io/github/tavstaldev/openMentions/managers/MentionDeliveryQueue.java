@@ -0,0 +1,130 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import io.github.tavstaldev.minecorelib.core.PluginLogger;
+import io.github.tavstaldev.openMentions.OpenMentions;
+import io.github.tavstaldev.openMentions.models.PlayerDatabaseData;
+import io.github.tavstaldev.openMentions.utils.MentionUtils;
+import org.bukkit.entity.Player;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Queue of the mention notifications waiting to be sent.
+ * Any thread can enqueue; the global thread drains the queue once per tick and merges the
+ * notifications of the same recipient, so several mentions within a tick produce a single
+ * message, action bar and sound. On Folia each notification then runs on the region of its recipient.
+ */
+public class MentionDeliveryQueue {
+    /** Logger instance for logging messages related to MentionDeliveryQueue. */
+    private static final PluginLogger _logger = OpenMentions.Logger().WithModule(MentionDeliveryQueue.class);
+
+    /** Maximum number of queued notifications handled in a single tick. */
+    private static final int MAX_PER_TICK = 4096;
+
+    /** Maximum number of mentioner names listed in a merged notification. */
+    private static final int MAX_NAMES = 5;
+
+    private static final Queue<Delivery> _queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * A single queued notification.
+     *
+     * @param player The player to notify.
+     * @param data The mention settings of the player.
+     * @param mentioner The name of the player who mentioned them.
+     */
+    private record Delivery(Player player, PlayerDatabaseData data, String mentioner) {}
+
+    /**
+     * The merged notifications of a single recipient.
+     */
+    private static final class Batch {
+        final Player player;
+        PlayerDatabaseData data;
+        final Set<String> mentioners = new LinkedHashSet<>();
+        int others;
+
+        Batch(Player player) {
+            this.player = player;
+        }
+    }
+
+    /**
+     * Queues a mention notification. Can be called from any thread.
+     *
+     * @param player The player to notify.
+     * @param data The mention settings of the player.
+     * @param mentioner The name of the player who mentioned them.
+     */
+    public static void enqueue(Player player, PlayerDatabaseData data, String mentioner) {
+        _queue.add(new Delivery(player, data, mentioner));
+    }
+
+    /**
+     * Sends the queued notifications, one per recipient, each on the thread owning the recipient.
+     * Must be called from the global thread.
+     */
+    public static void drain() {
+        if (_queue.isEmpty())
+            return;
+
+        Map<UUID, Batch> batches = new LinkedHashMap<>();
+        Delivery delivery;
+        int count = 0;
+        while (count++ < MAX_PER_TICK && (delivery = _queue.poll()) != null) {
+            Player player = delivery.player();
+            Batch batch = batches.computeIfAbsent(player.getUniqueId(), k -> new Batch(player));
+            // The latest settings win, in case they changed between two mentions.
+            batch.data = delivery.data();
+            if (batch.mentioners.size() < MAX_NAMES || batch.mentioners.contains(delivery.mentioner())) {
+                batch.mentioners.add(delivery.mentioner());
+            } else {
+                batch.others++;
+            }
+        }
+
+        for (Batch batch : batches.values()) {
+            if (!batch.player.isOnline())
+                continue;
+
+            String mentioners = formatMentioners(batch);
+            // The notification touches the player, so it runs on the thread owning them.
+            OpenMentions.Scheduler.runForEntity(batch.player, () -> notify(batch.player, batch.data, mentioners));
+        }
+    }
+
+    /**
+     * Sends a merged notification to a player.
+     */
+    private static void notify(Player player, PlayerDatabaseData data, String mentioners) {
+        try {
+            MentionUtils.notifyPlayer(player, data, mentioners);
+        } catch (Exception ex) {
+            _logger.Error(String.format("Unknown error happened while notifying %s about a mention...\n%s", player.getName(), ex.getMessage()));
+        }
+    }
+
+    /**
+     * Joins the names of the mentioners of a batch.
+     */
+    private static String formatMentioners(Batch batch) {
+        if (batch.mentioners.size() == 1 && batch.others == 0)
+            return batch.mentioners.iterator().next();
+
+        String names = String.join(", ", batch.mentioners);
+        return batch.others > 0 ? names + " +" + batch.others : names;
+    }
+
+    /**
+     * Drops every queued notification.
+     */
+    public static void clear() {
+        _queue.clear();
+    }
+}
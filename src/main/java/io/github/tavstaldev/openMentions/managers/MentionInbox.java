@@ -0,0 +1,152 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import io.github.tavstaldev.minecorelib.core.PluginLogger;
+import io.github.tavstaldev.openMentions.OpenMentions;
+import io.github.tavstaldev.openMentions.models.EMentionPreference;
+import io.github.tavstaldev.openMentions.models.InboxMention;
+import io.github.tavstaldev.openMentions.utils.MentionTokenizer;
+import org.bukkit.entity.Player;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Keeps the mentions of offline players and delivers them as a single digest when they join.
+ * Offline names are resolved from the name directory on the database executor, and the mentions
+ * are buffered by the database, which writes them in batches and keeps every inbox within its cap.
+ */
+public class MentionInbox {
+    /** Logger instance for logging messages related to MentionInbox. */
+    private static final PluginLogger _logger = OpenMentions.Logger().WithModule(MentionInbox.class);
+
+    /**
+     * The mentions of a single sender in a digest.
+     */
+    private static final class Sender {
+        String name;
+        int count;
+    }
+
+    /**
+     * Stores the '@' mentions of offline players in a chat message.
+     * Online players and groups are skipped, the chat listener already handled them.
+     * Every lookup takes a token from the sender's rate limit before it reaches the database,
+     * so a flood of unknown names is refused without touching the name directory.
+     *
+     * @param source The player who sent the message.
+     * @param message The raw chat message.
+     * @param maxMentions The maximum number of names to look up.
+     * @return True if at least one name was looked up, false otherwise.
+     */
+    public static boolean recordOfflineMentions(Player source, String message, int maxMentions) {
+        List<String> names = MentionTokenizer.findNames(message, maxMentions);
+        if (names.isEmpty())
+            return false;
+
+        UUID sourceId = source.getUniqueId();
+        String sourceName = source.getName();
+        boolean queued = false;
+        for (String name : names) {
+            // Only the account name counts, an online player's display name must not hide an offline player of that name.
+            if (OnlinePlayerDirectory.getByName(name) != null || GroupMentionManager.isGroup(name.toLowerCase(Locale.ROOT)))
+                continue;
+            // The sender's bucket only refills over time, so the remaining names would be refused too.
+            if (!MentionRateLimiter.tryAcquireMentioner(sourceId))
+                break;
+
+            queued = true;
+            OpenMentions.AsyncDatabase.findPlayerId(name).thenAccept(playerId -> {
+                if (playerId.isEmpty() || playerId.get().equals(sourceId))
+                    return;
+                if (!MentionRateLimiter.tryAcquireTarget(sourceId, playerId.get()))
+                    return;
+
+                OpenMentions.Database.addInboxMention(playerId.get(), new InboxMention(0, sourceId, sourceName, System.currentTimeMillis()));
+            }).exceptionally(e -> {
+                _logger.Error("Failed to store the mention of " + name + ": " + e.getMessage());
+                return null;
+            });
+        }
+        return queued;
+    }
+
+    /**
+     * Sends the digest of a player's inbox once it is loaded, then removes the delivered mentions.
+     * Mentions of ignored players are dropped, and players who disabled mentions get no digest.
+     *
+     * @param player The player who joined.
+     * @param inbox The future of the mentions in the player's inbox.
+     */
+    public static void deliver(Player player, CompletableFuture<List<InboxMention>> inbox) {
+        UUID playerId = player.getUniqueId();
+        var database = OpenMentions.AsyncDatabase;
+        inbox.thenCompose(mentions -> {
+            if (mentions.isEmpty())
+                return CompletableFuture.<Void>completedFuture(null);
+
+            long lastId = mentions.getLast().id();
+            return database.getData(playerId).thenCombine(database.getIgnoredPlayers(playerId), (dataOpt, ignored) -> {
+                // The settings may still be created on a first join, the digest is sent by default then.
+                if (dataOpt.map(data -> data.preference != EMentionPreference.NEVER).orElse(true)) {
+                    Map<UUID, Sender> senders = summarize(mentions, ignored);
+                    if (!senders.isEmpty())
+                        OpenMentions.Scheduler.runForEntity(player, () -> sendDigest(player, senders));
+                }
+                return lastId;
+            }).thenCompose(id -> database.clearInbox(playerId, id));
+        }).exceptionally(e -> {
+            _logger.Error("Failed to deliver the inbox of " + player.getName() + ": " + e.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * Groups the mentions of an inbox by their sender, keeping the order of the first mention of each.
+     */
+    private static Map<UUID, Sender> summarize(List<InboxMention> mentions, Set<UUID> ignored) {
+        Map<UUID, Sender> senders = new LinkedHashMap<>();
+        for (InboxMention mention : mentions) {
+            if (ignored.contains(mention.senderId()))
+                continue;
+
+            Sender sender = senders.computeIfAbsent(mention.senderId(), id -> new Sender());
+            // Mentions are ordered by time, so this ends with the newest name of the sender.
+            sender.name = mention.senderName();
+            sender.count++;
+        }
+        return senders;
+    }
+
+    /**
+     * Sends the digest of an inbox. Must be called from the thread owning the player.
+     */
+    private static void sendDigest(Player player, Map<UUID, Sender> senders) {
+        if (!player.isOnline())
+            return;
+
+        int total = 0;
+        for (Sender sender : senders.values()) {
+            total += sender.count;
+        }
+        OpenMentions.Instance.sendLocalizedMsg(player, "Inbox.Header", Map.of("count", total));
+
+        int lines = Math.max(1, OpenMentions.Config().inboxDigestLines);
+        int shown = 0;
+        for (Sender sender : senders.values()) {
+            if (shown == lines)
+                break;
+            OpenMentions.Instance.sendLocalizedMsg(player, "Inbox.Line", Map.of(
+                    "player", sender.name,
+                    "count", sender.count
+            ));
+            shown++;
+        }
+        if (senders.size() > shown)
+            OpenMentions.Instance.sendLocalizedMsg(player, "Inbox.More", Map.of("count", senders.size() - shown));
+    }
+}
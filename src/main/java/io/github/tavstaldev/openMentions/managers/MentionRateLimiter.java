@@ -0,0 +1,159 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import io.github.tavstaldev.openMentions.OMConfig;
+import io.github.tavstaldev.openMentions.OpenMentions;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the rate of mentions with token buckets on three axes: per mentioner, per target and
+ * per mentioner and target pair. Each axis has its own burst capacity and refill rate, so a group
+ * of accounts spamming one player is limited by the target's bucket, while a single player
+ * spamming everyone is limited by their own.
+ */
+public class MentionRateLimiter {
+    /** Time between two sweeps removing the buckets that are full again, in seconds. */
+    private static final long PURGE_INTERVAL = 30;
+
+    private static final CooldownTable _mentioners = new CooldownTable();
+    private static final CooldownTable _targets = new CooldownTable();
+    private static final CooldownTable _pairs = new CooldownTable();
+
+    /**
+     * Starts the periodic sweep of the full buckets on the plugin's timing wheel.
+     */
+    public static void start() {
+        OpenMentions.Timers.schedule(PURGE_INTERVAL, TimeUnit.SECONDS, MentionRateLimiter::purge);
+    }
+
+    /**
+     * Removes the buckets that refilled completely, then schedules the next sweep.
+     */
+    private static void purge() {
+        long now = System.nanoTime();
+        _mentioners.purgeExpired(now);
+        _targets.purgeExpired(now);
+        _pairs.purgeExpired(now);
+        start();
+    }
+
+    /**
+     * Retrieves the time it takes to refill one token.
+     *
+     * @param capacity The burst capacity of the bucket.
+     * @param refillPerMinute The number of tokens refilled per minute.
+     * @return The refill interval in nanoseconds, or 0 if the axis is disabled.
+     */
+    private static long interval(int capacity, int refillPerMinute) {
+        if (capacity <= 0 || refillPerMinute <= 0)
+            return 0;
+        return TimeUnit.MINUTES.toNanos(1) / refillPerMinute;
+    }
+
+    /**
+     * Takes a token from every bucket the mention counts against.
+     * If any bucket is empty, the tokens already taken are given back and the mention is refused.
+     *
+     * @param mentionerId The UUID of the player who mentioned.
+     * @param targetId The UUID of the player being mentioned.
+     * @return True if the mention is within the limits, false otherwise.
+     */
+    public static boolean tryAcquire(UUID mentionerId, UUID targetId) {
+        OMConfig config = OpenMentions.Config();
+        if (!config.rateLimitEnabled)
+            return true;
+
+        long now = System.nanoTime();
+        long mentionerMsb = mentionerId.getMostSignificantBits();
+        long mentionerLsb = mentionerId.getLeastSignificantBits();
+        long targetMsb = targetId.getMostSignificantBits();
+        long targetLsb = targetId.getLeastSignificantBits();
+        // The pair key is ordered, so mentioning back and forth uses two different buckets.
+        long pairMsb = mix(mentionerMsb ^ Long.rotateLeft(targetLsb, 32)) ^ mentionerLsb;
+        long pairLsb = mix(targetMsb ^ Long.rotateLeft(mentionerLsb, 32)) ^ targetLsb;
+
+        long pairInterval = interval(config.rateLimitPairCapacity, config.rateLimitPairRefill);
+        if (pairInterval > 0 && !_pairs.tryAcquire(pairMsb, pairLsb, pairInterval, config.rateLimitPairCapacity, now))
+            return false;
+
+        long mentionerInterval = interval(config.rateLimitMentionerCapacity, config.rateLimitMentionerRefill);
+        if (mentionerInterval > 0 && !_mentioners.tryAcquire(mentionerMsb, mentionerLsb, mentionerInterval, config.rateLimitMentionerCapacity, now)) {
+            if (pairInterval > 0)
+                _pairs.refund(pairMsb, pairLsb, pairInterval);
+            return false;
+        }
+
+        long targetInterval = interval(config.rateLimitTargetCapacity, config.rateLimitTargetRefill);
+        if (targetInterval > 0 && !_targets.tryAcquire(targetMsb, targetLsb, targetInterval, config.rateLimitTargetCapacity, now)) {
+            if (pairInterval > 0)
+                _pairs.refund(pairMsb, pairLsb, pairInterval);
+            if (mentionerInterval > 0)
+                _mentioners.refund(mentionerMsb, mentionerLsb, mentionerInterval);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Takes a token from the mentioner's bucket only, for mentions whose target is not known yet.
+     * A group mention or the lookup of an offline name counts as a single mention of its sender,
+     * so it shares the sender's budget with their direct mentions instead of bypassing it.
+     *
+     * @param mentionerId The UUID of the player who mentioned.
+     * @return True if the mention is within the limits, false otherwise.
+     */
+    public static boolean tryAcquireMentioner(UUID mentionerId) {
+        OMConfig config = OpenMentions.Config();
+        if (!config.rateLimitEnabled)
+            return true;
+
+        long interval = interval(config.rateLimitMentionerCapacity, config.rateLimitMentionerRefill);
+        return interval <= 0 || _mentioners.tryAcquire(mentionerId.getMostSignificantBits(), mentionerId.getLeastSignificantBits(),
+                interval, config.rateLimitMentionerCapacity, System.nanoTime());
+    }
+
+    /**
+     * Takes a token from the target's and the pair's buckets, once the target of a mention
+     * already counted by {@link #tryAcquireMentioner(UUID)} is known.
+     * If either bucket is empty, the token already taken is given back and the mention is refused.
+     *
+     * @param mentionerId The UUID of the player who mentioned.
+     * @param targetId The UUID of the player being mentioned.
+     * @return True if the mention is within the limits, false otherwise.
+     */
+    public static boolean tryAcquireTarget(UUID mentionerId, UUID targetId) {
+        OMConfig config = OpenMentions.Config();
+        if (!config.rateLimitEnabled)
+            return true;
+
+        long now = System.nanoTime();
+        long mentionerMsb = mentionerId.getMostSignificantBits();
+        long mentionerLsb = mentionerId.getLeastSignificantBits();
+        long targetMsb = targetId.getMostSignificantBits();
+        long targetLsb = targetId.getLeastSignificantBits();
+        long pairMsb = mix(mentionerMsb ^ Long.rotateLeft(targetLsb, 32)) ^ mentionerLsb;
+        long pairLsb = mix(targetMsb ^ Long.rotateLeft(mentionerLsb, 32)) ^ targetLsb;
+
+        long pairInterval = interval(config.rateLimitPairCapacity, config.rateLimitPairRefill);
+        if (pairInterval > 0 && !_pairs.tryAcquire(pairMsb, pairLsb, pairInterval, config.rateLimitPairCapacity, now))
+            return false;
+
+        long targetInterval = interval(config.rateLimitTargetCapacity, config.rateLimitTargetRefill);
+        if (targetInterval > 0 && !_targets.tryAcquire(targetMsb, targetLsb, targetInterval, config.rateLimitTargetCapacity, now)) {
+            if (pairInterval > 0)
+                _pairs.refund(pairMsb, pairLsb, pairInterval);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Scrambles the bits of a value, used to combine two UUIDs into one key.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+}
@@ -1,22 +1,28 @@
 package io.github.tavstaldev.openMentions.managers;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import io.github.tavstaldev.minecorelib.core.PluginLogger;
 import io.github.tavstaldev.openMentions.OMConfig;
 import io.github.tavstaldev.openMentions.OpenMentions;
+import io.github.tavstaldev.openMentions.models.CacheStatistics;
 import io.github.tavstaldev.openMentions.models.EMentionDisplay;
 import io.github.tavstaldev.openMentions.models.EMentionPreference;
 import io.github.tavstaldev.openMentions.models.IDatabase;
+import io.github.tavstaldev.openMentions.models.InboxMention;
 import io.github.tavstaldev.openMentions.models.PlayerDatabaseData;
-import org.jetbrains.annotations.NotNull;
+import io.github.tavstaldev.openMentions.utils.UuidUtils;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.util.HashSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -27,21 +33,21 @@ import java.util.concurrent.TimeUnit;
  * for the OpenMentions plugin. It uses HikariCP for connection pooling.
  */
 public class MySqlManager implements IDatabase {
+    /**
+     * Maximum number of connections in the pool.
+     */
+    private static final int POOL_SIZE = 10;
+
     /**
      * HikariDataSource instance for managing database connections.
      */
     private static HikariDataSource _dataSource;
-    private final Cache<@NotNull UUID, PlayerDatabaseData> _playerCache = Caffeine.newBuilder()
-            .maximumSize(1000)
-            .expireAfterWrite(15, TimeUnit.MINUTES)
-            .build();
-
-    private final Cache<@NotNull UUID, Set<UUID>> _ignoredPlayerCache = Caffeine.newBuilder()
-            .maximumSize(1000)
-            .expireAfterWrite(5, TimeUnit.MINUTES)
-            .build();
+    private ProfileCache _playerCache;
+    private IgnoreIndex _ignoreIndex;
 
     private OMConfig _config;
+    private WriteBehindBuffer _writeBehind;
+    private InboxBuffer _inbox;
 
     /**
      * Logger instance for logging messages related to MySqlManager.
@@ -54,20 +60,35 @@ public class MySqlManager implements IDatabase {
     @Override
     public void load() {
         _config = OpenMentions.Config();
+        _writeBehind = new WriteBehindBuffer(this::writeBatch, _config.storageMaxBatchSize);
+        _inbox = new InboxBuffer(this::writeInbox, _config.inboxMaxPerPlayer, _config.storageMaxBatchSize);
+        _playerCache = new ProfileCache("players", _config.cacheOfflinePlayers, _config.cacheExpireAfterAccess);
+        _ignoreIndex = new IgnoreIndex(_config.cacheOfflineIgnores, _config.cacheExpireAfterAccess);
         _dataSource = CreateDataSource();
     }
 
     /**
-     * Closes the database connection pool if it is open.
+     * Writes the pending changes and closes the database connection pool if it is open.
      */
     @Override
     public void unload() {
+        flush();
         if (_dataSource != null) {
             if (!_dataSource.isClosed())
                 _dataSource.close();
         }
     }
 
+    /**
+     * Retrieves the maximum number of operations that can use the database at the same time.
+     *
+     * @return The size of the connection pool.
+     */
+    @Override
+    public int getMaxConcurrency() {
+        return POOL_SIZE;
+    }
+
     /**
      * Creates and configures a HikariDataSource for MySQL database connections.
      *
@@ -84,7 +105,7 @@ public class MySqlManager implements IDatabase {
                     _config.storageDatabase));
             config.setUsername(_config.storageUsername);
             config.setPassword(_config.storagePassword);
-            config.setMaximumPoolSize(10); // Pool size defaults to 10
+            config.setMaximumPoolSize(POOL_SIZE);
             config.setMaxLifetime(30000);
             return new HikariDataSource(config);
         } catch (Exception ex) {
@@ -94,34 +115,178 @@ public class MySqlManager implements IDatabase {
     }
 
     /**
-     * Ensures the database schema is created. Creates the players table if it does not exist.
+     * Brings the database schema up to date by applying the pending migrations.
+     * Expired inbox mentions are removed afterwards, a failure to do so does not fail the check.
+     *
+     * @return True if every migration was applied, false otherwise.
      */
     @Override
-    public void checkSchema() {
+    public boolean checkSchema() {
         try (Connection connection = _dataSource.getConnection()) {
-            // Players table
-            String sql = String.format("CREATE TABLE IF NOT EXISTS %s_players (" +
-                            "PlayerId VARCHAR(36) PRIMARY KEY, " +
-                            "Sound VARCHAR(200) NOT NULL, " +
-                            "Display VARCHAR(32) NOT NULL, " +
-                            "Preference VARCHAR(32) NOT NULL);",
-                    _config.storageTablePrefix);
-            PreparedStatement statement = connection.prepareStatement(sql);
-            statement.executeUpdate();
-
-            sql = String.format("CREATE TABLE IF NOT EXISTS %s_ignores (" +
-                            "PlayerId VARCHAR(36) NOT NULL, " +
-                            "IgnoredId VARCHAR(36) NOT NULL, " +
-                            "PRIMARY KEY (PlayerId, IgnoredId));",
-                    _config.storageTablePrefix
-            );
-            statement = connection.prepareStatement(sql);
-            statement.executeUpdate();
+            new SchemaMigrator(_config.storageTablePrefix, getMigrations()).migrate(connection, false);
         } catch (Exception ex) {
             _logger.Error(String.format("Unknown error happened while creating tables...\n%s", ex.getMessage()));
+            return false;
+        }
+
+        if (_config.inboxRetentionDays <= 0)
+            return true;
+        try (Connection connection = _dataSource.getConnection()) {
+            String sql = String.format("DELETE FROM %s_inbox WHERE CreatedAt<?;",
+                    _config.storageTablePrefix);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setLong(1, getInboxCutoff());
+                int purged = statement.executeUpdate();
+                if (purged > 0)
+                    _logger.Debug(String.format("Removed %s expired inbox mentions.", purged));
+            }
+        } catch (Exception ex) {
+            _logger.Error(String.format("Unknown error happened while removing expired inbox mentions...\n%s", ex.getMessage()));
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the time before which inbox mentions are expired.
+     *
+     * @return The cutoff in milliseconds since the epoch, 0 if mentions never expire.
+     */
+    private long getInboxCutoff() {
+        if (_config.inboxRetentionDays <= 0)
+            return 0;
+        return System.currentTimeMillis() - TimeUnit.DAYS.toMillis(_config.inboxRetentionDays);
+    }
+
+    /**
+     * Retrieves the schema migrations of the MySQL database.
+     * MySQL commits schema changes implicitly, so migrations are written to be safe to run again
+     * if the server stops before their version is recorded.
+     *
+     * @return The migrations, in order.
+     */
+    private List<SchemaMigrator.Migration> getMigrations() {
+        String prefix = _config.storageTablePrefix;
+        return List.of(
+                new SchemaMigrator.Migration(1, "Create players and ignores tables", connection -> {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.executeUpdate(String.format("CREATE TABLE IF NOT EXISTS %s_players (" +
+                                        "PlayerId VARCHAR(36) PRIMARY KEY, " +
+                                        "Sound VARCHAR(200) NOT NULL, " +
+                                        "Display VARCHAR(32) NOT NULL, " +
+                                        "Preference VARCHAR(32) NOT NULL);",
+                                prefix));
+
+                        statement.executeUpdate(String.format("CREATE TABLE IF NOT EXISTS %s_ignores (" +
+                                        "PlayerId VARCHAR(36) NOT NULL, " +
+                                        "IgnoredId VARCHAR(36) NOT NULL, " +
+                                        "PRIMARY KEY (PlayerId, IgnoredId));",
+                                prefix));
+                    }
+                }),
+                new SchemaMigrator.Migration(2, "Store UUIDs as 16-byte binary and index IgnoredId", connection -> {
+                    // The tables are swapped in a single atomic rename, so if it already happened only the
+                    // version record is missing.
+                    if (isBinaryColumn(connection, prefix + "_players", "PlayerId"))
+                        return;
+
+                    try (Statement statement = connection.createStatement()) {
+                        statement.executeUpdate(String.format("DROP TABLE IF EXISTS %s_players_new, %s_ignores_new, %s_players_legacy, %s_ignores_legacy;",
+                                prefix, prefix, prefix, prefix));
+                        statement.executeUpdate(String.format("CREATE TABLE %s_players_new (" +
+                                        "PlayerId BINARY(16) PRIMARY KEY, " +
+                                        "Sound VARCHAR(200) NOT NULL, " +
+                                        "Display VARCHAR(32) NOT NULL, " +
+                                        "Preference VARCHAR(32) NOT NULL);",
+                                prefix));
+                        statement.executeUpdate(String.format("CREATE TABLE %s_ignores_new (" +
+                                        "PlayerId BINARY(16) NOT NULL, " +
+                                        "IgnoredId BINARY(16) NOT NULL, " +
+                                        "PRIMARY KEY (PlayerId, IgnoredId), " +
+                                        "INDEX %s_ignores_ignored (IgnoredId));",
+                                prefix, prefix));
+
+                        SchemaMigrator.copyPlayers(connection, prefix + "_players", prefix + "_players_new");
+                        SchemaMigrator.copyIgnores(connection, prefix + "_ignores", prefix + "_ignores_new");
+
+                        statement.executeUpdate(String.format("RENAME TABLE " +
+                                        "%s_players TO %s_players_legacy, %s_players_new TO %s_players, " +
+                                        "%s_ignores TO %s_ignores_legacy, %s_ignores_new TO %s_ignores;",
+                                prefix, prefix, prefix, prefix, prefix, prefix, prefix, prefix));
+                        statement.executeUpdate(String.format("DROP TABLE %s_players_legacy, %s_ignores_legacy;", prefix, prefix));
+                    }
+                }),
+                new SchemaMigrator.Migration(3, "Create the name directory", connection -> {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.executeUpdate(String.format("CREATE TABLE IF NOT EXISTS %s_names (" +
+                                        "Name VARCHAR(16) PRIMARY KEY, " +
+                                        "PlayerId BINARY(16) NOT NULL, " +
+                                        "INDEX %s_names_player (PlayerId));",
+                                prefix, prefix));
+                    }
+                }),
+                new SchemaMigrator.Migration(4, "Create the inbox of offline mentions", connection -> {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.executeUpdate(String.format("CREATE TABLE IF NOT EXISTS %s_inbox (" +
+                                        "Id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                                        "PlayerId BINARY(16) NOT NULL, " +
+                                        "SenderId BINARY(16) NOT NULL, " +
+                                        "SenderName VARCHAR(16) NOT NULL, " +
+                                        "CreatedAt BIGINT NOT NULL, " +
+                                        "INDEX %s_inbox_player (PlayerId, Id), " +
+                                        "INDEX %s_inbox_created (CreatedAt));",
+                                prefix, prefix, prefix));
+                    }
+                })
+        );
+    }
+
+    /**
+     * Checks if a column of a table stores binary data.
+     *
+     * @param connection The connection to query with.
+     * @param table The name of the table.
+     * @param column The name of the column.
+     * @return True if the column is a binary column, false otherwise.
+     * @throws SQLException If a database error occurs.
+     */
+    private static boolean isBinaryColumn(Connection connection, String table, String column) throws SQLException {
+        try (ResultSet result = connection.getMetaData().getColumns(connection.getCatalog(), null, table, column)) {
+            return result.next() && result.getInt("DATA_TYPE") == Types.BINARY;
         }
     }
 
+    /**
+     * Pins the cached data of a player who is online, so it is not evicted while they play.
+     *
+     * @param playerId The UUID of the player.
+     */
+    @Override
+    public void pinPlayer(UUID playerId) {
+        _playerCache.pin(playerId);
+        _ignoreIndex.pin(playerId);
+    }
+
+    /**
+     * Releases the cached data of a player who left into the size-bounded offline tier.
+     *
+     * @param playerId The UUID of the player.
+     */
+    @Override
+    public void releasePlayer(UUID playerId) {
+        _playerCache.release(playerId);
+        _ignoreIndex.release(playerId);
+    }
+
+    /**
+     * Retrieves the statistics of the player data caches.
+     *
+     * @return The statistics of every cache.
+     */
+    @Override
+    public List<CacheStatistics> getCacheStatistics() {
+        return List.of(_playerCache.getStatistics(), _ignoreIndex.getStatistics());
+    }
+
     /**
      * Adds a new player's data to the database.
      *
@@ -137,7 +302,7 @@ public class MySqlManager implements IDatabase {
                             "VALUES (?, ?, ?, ?);",
                     _config.storageTablePrefix);
             try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, playerId.toString());
+                statement.setBytes(1, UuidUtils.toBytes(playerId));
                 statement.setString(2, soundKey);
                 statement.setString(3, display.name());
                 statement.setString(4, preference.name());
@@ -152,94 +317,65 @@ public class MySqlManager implements IDatabase {
     }
 
     /**
-     * Updates the sound key for a specific player in the database.
+     * Updates the sound key for a specific player.
+     * The cached data is updated right away, the database is updated by the next write-behind flush.
      *
      * @param playerId The UUID of the player.
      * @param soundKey The new sound key to associate with the player.
      */
     @Override
     public void updateSound(UUID playerId, String soundKey) {
-        try (Connection connection = _dataSource.getConnection()) {
-            String sql = String.format("UPDATE %s_players SET Sound=? WHERE PlayerId=?;",
-                    _config.storageTablePrefix);
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, soundKey);
-                statement.setString(2, playerId.toString());
-                statement.executeUpdate();
-            }
-
-            if (_playerCache.getIfPresent(playerId) != null) {
-                PlayerDatabaseData data = _playerCache.getIfPresent(playerId);
-                if (data == null)
-                    return;
-                data.soundName = soundKey;
-                _playerCache.put(playerId, data);
-            }
-        } catch (Exception ex) {
-            _logger.Error(String.format("Unknown error happened while updating player data...\n%s", ex.getMessage()));
-        }
+        var dataOpt = getData(playerId);
+        if (dataOpt.isEmpty())
+            return;
+
+        PlayerDatabaseData data = dataOpt.get();
+        data.setSound(soundKey);
+        _playerCache.put(playerId, data);
+        _writeBehind.enqueue(data);
     }
 
     /**
-     * Updates the display preference for a specific player in the database.
+     * Updates the display preference for a specific player.
+     * The cached data is updated right away, the database is updated by the next write-behind flush.
      *
      * @param playerId The UUID of the player.
      * @param display  The new display preference to associate with the player.
      */
     @Override
     public void updateDisplay(UUID playerId, EMentionDisplay display) {
-        try (Connection connection = _dataSource.getConnection()) {
-            String sql = String.format("UPDATE %s_players SET Display=? WHERE PlayerId=?;",
-                    _config.storageTablePrefix);
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, display.name());
-                statement.setString(2, playerId.toString());
-                statement.executeUpdate();
-            }
-
-            if (_playerCache.getIfPresent(playerId) != null) {
-                PlayerDatabaseData data = _playerCache.getIfPresent(playerId);
-                if (data == null)
-                    return;
-                data.display = display;
-                _playerCache.put(playerId, data);
-            }
-        } catch (Exception ex) {
-            _logger.Error(String.format("Unknown error happened while updating player data...\n%s", ex.getMessage()));
-        }
+        var dataOpt = getData(playerId);
+        if (dataOpt.isEmpty())
+            return;
+
+        PlayerDatabaseData data = dataOpt.get();
+        data.setDisplay(display);
+        _playerCache.put(playerId, data);
+        _writeBehind.enqueue(data);
     }
 
     /**
-     * Updates the mention preference for a specific player in the database.
+     * Updates the mention preference for a specific player.
+     * The cached data is updated right away, the database is updated by the next write-behind flush.
      *
      * @param playerId   The UUID of the player.
      * @param preference The new mention preference to associate with the player.
      */
     @Override
     public void updatePreference(UUID playerId, EMentionPreference preference) {
-        try (Connection connection = _dataSource.getConnection()) {
-            String sql = String.format("UPDATE %s_players SET Preference=? WHERE PlayerId=?;",
-                    _config.storageTablePrefix);
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, preference.name());
-                statement.setString(2, playerId.toString());
-                statement.executeUpdate();
-            }
-
-            if (_playerCache.getIfPresent(playerId) != null) {
-                PlayerDatabaseData data = _playerCache.getIfPresent(playerId);
-                if (data == null)
-                    return;
-                data.preference = preference;
-                _playerCache.put(playerId, data);
-            }
-        } catch (Exception ex) {
-            _logger.Error(String.format("Unknown error happened while updating player data...\n%s", ex.getMessage()));
-        }
+        var dataOpt = getData(playerId);
+        if (dataOpt.isEmpty())
+            return;
+
+        PlayerDatabaseData data = dataOpt.get();
+        data.setPreference(preference);
+        _playerCache.put(playerId, data);
+        _writeBehind.enqueue(data);
     }
 
     /**
-     * Updates all data for a specific player in the database.
+     * Updates all data for a specific player.
+     * The cached data is updated right away, the database is updated by the next write-behind flush.
      *
      * @param playerId   The UUID of the player.
      * @param soundKey   The new sound key to associate with the player.
@@ -248,28 +384,88 @@ public class MySqlManager implements IDatabase {
      */
     @Override
     public void updateData(UUID playerId, String soundKey, EMentionDisplay display, EMentionPreference preference) {
+        var dataOpt = getData(playerId);
+        if (dataOpt.isEmpty())
+            return;
+
+        PlayerDatabaseData data = dataOpt.get();
+        data.update(soundKey, display, preference);
+        _playerCache.put(playerId, data);
+        _writeBehind.enqueue(data);
+    }
+
+    /**
+     * Writes every pending player data change to the database.
+     */
+    @Override
+    public void flush() {
+        if (_writeBehind != null)
+            _writeBehind.flush();
+        if (_inbox != null)
+            _inbox.flush();
+    }
+
+    /**
+     * Writes a batch of player data changes to the database in a single transaction.
+     *
+     * @param batch The changed player data to write.
+     * @throws SQLException If the batch could not be written.
+     */
+    private void writeBatch(List<PlayerDatabaseData> batch) throws SQLException {
         try (Connection connection = _dataSource.getConnection()) {
             String sql = String.format("UPDATE %s_players SET Sound=?, Display=?, Preference=? WHERE PlayerId=?;",
                     _config.storageTablePrefix);
+            connection.setAutoCommit(false);
             try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, soundKey);
-                statement.setString(2, display.name());
-                statement.setString(3, preference.name());
-                statement.setString(4, playerId.toString());
-                statement.executeUpdate();
+                for (PlayerDatabaseData data : batch) {
+                    statement.setString(1, data.soundName);
+                    statement.setString(2, data.display.name());
+                    statement.setString(3, data.preference.name());
+                    statement.setBytes(4, UuidUtils.toBytes(data.playerId));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(true);
             }
+        }
+    }
 
-            if (_playerCache.getIfPresent(playerId) != null) {
-                PlayerDatabaseData data = _playerCache.getIfPresent(playerId);
-                if (data == null)
-                    return;
-                data.preference = preference;
-                data.display = display;
-                data.soundName = soundKey;
-                _playerCache.put(playerId, data);
+    /**
+     * Writes a batch of inbox mentions in a single transaction, then trims the inbox of every
+     * mentioned player to the configured cap, dropping their oldest mentions.
+     *
+     * @param batch The mentions to write, keyed by the player they were sent to.
+     * @throws SQLException If the batch could not be written.
+     */
+    private void writeInbox(Map<UUID, List<InboxMention>> batch) throws SQLException {
+        try (Connection connection = _dataSource.getConnection()) {
+            // The derived table lets MySQL read the table it deletes from.
+            String sql = String.format("DELETE FROM %s_inbox WHERE PlayerId=? AND Id<=(SELECT Id FROM " +
+                            "(SELECT Id FROM %s_inbox WHERE PlayerId=? ORDER BY Id DESC LIMIT 1 OFFSET ?) AS newest);",
+                    _config.storageTablePrefix, _config.storageTablePrefix);
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                InboxBuffer.insertRows(connection, _config.storageTablePrefix + "_inbox", batch);
+                for (UUID playerId : batch.keySet()) {
+                    byte[] id = UuidUtils.toBytes(playerId);
+                    statement.setBytes(1, id);
+                    statement.setBytes(2, id);
+                    statement.setInt(3, _config.inboxMaxPerPlayer);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(true);
             }
-        } catch (Exception ex) {
-            _logger.Error(String.format("Unknown error happened while updating player data...\n%s", ex.getMessage()));
         }
     }
 
@@ -284,10 +480,11 @@ public class MySqlManager implements IDatabase {
             String sql = String.format("DELETE FROM %s_players WHERE PlayerId=?;",
                     _config.storageTablePrefix);
             try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, playerId.toString());
+                statement.setBytes(1, UuidUtils.toBytes(playerId));
                 statement.executeUpdate();
             }
 
+            _writeBehind.discard(playerId);
             if (_playerCache.getIfPresent(playerId) != null) {
                 _playerCache.invalidate(playerId);
             }
@@ -296,6 +493,17 @@ public class MySqlManager implements IDatabase {
         }
     }
 
+    /**
+     * Retrieves the cached data of a player, without touching the database.
+     *
+     * @param playerId The UUID of the player.
+     * @return The cached data, or null if it has to be loaded from the database.
+     */
+    @Override
+    public PlayerDatabaseData getCachedData(UUID playerId) {
+        return _playerCache.getIfPresent(playerId);
+    }
+
     /**
      * Retrieves a specific player's data from the database.
      *
@@ -309,15 +517,22 @@ public class MySqlManager implements IDatabase {
             return Optional.of(data);
         }
 
+        // Changes waiting for the next flush are newer than the stored row.
+        data = _writeBehind.getPending(playerId);
+        if (data != null) {
+            _playerCache.put(playerId, data);
+            return Optional.of(data);
+        }
+
         try (Connection connection = _dataSource.getConnection()) {
             String sql = String.format("SELECT * FROM %s_players WHERE PlayerId=? LIMIT 1;",
                     _config.storageTablePrefix);
             try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, playerId.toString());
+                statement.setBytes(1, UuidUtils.toBytes(playerId));
                 try (ResultSet result = statement.executeQuery()) {
                     if (result.next()) {
                         data = new PlayerDatabaseData(
-                                UUID.fromString(result.getString("PlayerId")),
+                                UuidUtils.fromBytes(result.getBytes("PlayerId")),
                                 result.getString("Sound"),
                                 EMentionDisplay.valueOf(result.getString("Display")),
                                 EMentionPreference.valueOf(result.getString("Preference"))
@@ -337,92 +552,260 @@ public class MySqlManager implements IDatabase {
     }
 
     /**
-     * Adds a player to the ignored list of another player in the database.
+     * Records the current name of a player in the name directory.
+     * Names the player used before are removed in the same transaction, and so is the
+     * entry of another player who had this name before.
      *
-     * @param playerId        The UUID of the player who is ignoring another player.
-     * @param ignoredPlayerId The UUID of the player being ignored.
+     * @param playerId The UUID of the player.
+     * @param name The current name of the player.
      */
     @Override
-    public void addIgnoredPlayer(UUID playerId, UUID ignoredPlayerId) {
+    public void updatePlayerName(UUID playerId, String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        try (Connection connection = _dataSource.getConnection()) {
+            String deleteSql = String.format("DELETE FROM %s_names WHERE PlayerId=? AND Name<>?;",
+                    _config.storageTablePrefix);
+            String replaceSql = String.format("REPLACE INTO %s_names (Name, PlayerId) VALUES (?, ?);",
+                    _config.storageTablePrefix);
+            connection.setAutoCommit(false);
+            try (PreparedStatement delete = connection.prepareStatement(deleteSql);
+                 PreparedStatement replace = connection.prepareStatement(replaceSql)) {
+                delete.setBytes(1, UuidUtils.toBytes(playerId));
+                delete.setString(2, key);
+                delete.executeUpdate();
+
+                replace.setString(1, key);
+                replace.setBytes(2, UuidUtils.toBytes(playerId));
+                replace.executeUpdate();
+                connection.commit();
+            } catch (SQLException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (Exception ex) {
+            _logger.Error(String.format("Unknown error happened while updating the name directory...\n%s", ex.getMessage()));
+        }
+    }
+
+    /**
+     * Finds the UUID of a player by their last known name in the name directory.
+     *
+     * @param name The name of the player, in any case.
+     * @return The UUID of the player, or an empty Optional if the name is not known.
+     * @throws IllegalStateException If the name directory could not be read.
+     */
+    @Override
+    public Optional<UUID> findPlayerId(String name) {
         try (Connection connection = _dataSource.getConnection()) {
-            String sql = String.format("INSERT INTO %s_ignores (PlayerId, IgnoredId) " +
-                            "VALUES (?, ?);",
+            String sql = String.format("SELECT PlayerId FROM %s_names WHERE Name=?;",
                     _config.storageTablePrefix);
             try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, playerId.toString());
-                statement.setString(2, ignoredPlayerId.toString());
-                statement.executeUpdate();
+                statement.setString(1, name.toLowerCase(Locale.ROOT));
+                try (ResultSet result = statement.executeQuery()) {
+                    if (result.next())
+                        return Optional.of(UuidUtils.fromBytes(result.getBytes("PlayerId")));
+                }
             }
+        } catch (Exception ex) {
+            // An unknown name and a failed lookup must not look the same to the caller.
+            throw new IllegalStateException("Failed to find a player by name: " + ex.getMessage(), ex);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Queues a mention of an offline player, it is written with the next flush.
+     *
+     * @param playerId The UUID of the mentioned player.
+     * @param mention The mention to store.
+     */
+    @Override
+    public void addInboxMention(UUID playerId, InboxMention mention) {
+        _inbox.add(playerId, mention);
+    }
 
-            Set<UUID> ignoredSet = _ignoredPlayerCache.getIfPresent(playerId);
-            if (ignoredSet != null) {
-                ignoredSet.add(ignoredPlayerId);
-            } else {
-                _ignoredPlayerCache.put(playerId, Set.of(ignoredPlayerId));
+    /**
+     * Retrieves the unexpired inbox mentions of a player, oldest first.
+     * The pending mentions are written first, so none of them is missed.
+     *
+     * @param playerId The UUID of the player.
+     * @return The mentions in the inbox of the player.
+     */
+    @Override
+    public List<InboxMention> getInbox(UUID playerId) {
+        _inbox.flush();
+        List<InboxMention> mentions = new ArrayList<>();
+        try (Connection connection = _dataSource.getConnection()) {
+            String sql = String.format("SELECT Id, SenderId, SenderName, CreatedAt FROM %s_inbox " +
+                            "WHERE PlayerId=? AND CreatedAt>=? ORDER BY Id LIMIT ?;",
+                    _config.storageTablePrefix);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setBytes(1, UuidUtils.toBytes(playerId));
+                statement.setLong(2, getInboxCutoff());
+                statement.setInt(3, _config.inboxMaxPerPlayer);
+                try (ResultSet result = statement.executeQuery()) {
+                    while (result.next()) {
+                        mentions.add(new InboxMention(
+                                result.getLong("Id"),
+                                UuidUtils.fromBytes(result.getBytes("SenderId")),
+                                result.getString("SenderName"),
+                                result.getLong("CreatedAt")
+                        ));
+                    }
+                }
             }
         } catch (Exception ex) {
-            _logger.Error(String.format("Unknown error happened while adding ignore data...\n%s", ex.getMessage()));
+            _logger.Error(String.format("Unknown error happened while loading the inbox...\n%s", ex.getMessage()));
+            return List.of();
         }
+        return mentions;
     }
 
     /**
-     * Removes a player from the ignored list of another player in the database.
+     * Removes the delivered mentions from the inbox of a player.
      *
-     * @param playerId        The UUID of the player who is removing another player from their ignored list.
-     * @param ignoredPlayerId The UUID of the player being removed from the ignored list.
+     * @param playerId The UUID of the player.
+     * @param lastId The identifier of the newest delivered mention.
      */
     @Override
-    public void removeIgnoredPlayer(UUID playerId, UUID ignoredPlayerId) {
+    public void clearInbox(UUID playerId, long lastId) {
         try (Connection connection = _dataSource.getConnection()) {
-            String sql = String.format("DELETE FROM %s_ignores WHERE PlayerId=? AND IgnoredId=? LIMIT 1;",
+            String sql = String.format("DELETE FROM %s_inbox WHERE PlayerId=? AND Id<=?;",
                     _config.storageTablePrefix);
             try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, playerId.toString());
-                statement.setString(2, ignoredPlayerId.toString());
+                statement.setBytes(1, UuidUtils.toBytes(playerId));
+                statement.setLong(2, lastId);
                 statement.executeUpdate();
             }
+        } catch (Exception ex) {
+            _logger.Error(String.format("Unknown error happened while clearing the inbox...\n%s", ex.getMessage()));
+        }
+    }
 
-            Set<UUID> ignoredSet = _ignoredPlayerCache.getIfPresent(playerId);
-            if (ignoredSet != null) {
-                ignoredSet.remove(ignoredPlayerId);
-            }
+    /**
+     * Adds a player to the ignored list of another player in the database.
+     *
+     * @param playerId        The UUID of the player who is ignoring another player.
+     * @param ignoredPlayerId The UUID of the player being ignored.
+     */
+    @Override
+    public void addIgnoredPlayer(UUID playerId, UUID ignoredPlayerId) {
+        try {
+            _ignoreIndex.add(playerId, ignoredPlayerId, () -> {
+                try (Connection connection = _dataSource.getConnection()) {
+                    String sql = String.format("INSERT INTO %s_ignores (PlayerId, IgnoredId) " +
+                                    "VALUES (?, ?);",
+                            _config.storageTablePrefix);
+                    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                        statement.setBytes(1, UuidUtils.toBytes(playerId));
+                        statement.setBytes(2, UuidUtils.toBytes(ignoredPlayerId));
+                        statement.executeUpdate();
+                    }
+                }
+            });
+        } catch (Exception ex) {
+            _logger.Error(String.format("Unknown error happened while adding ignore data...\n%s", ex.getMessage()));
+        }
+    }
+
+    /**
+     * Removes a player from the ignored list of another player in the database.
+     *
+     * @param playerId        The UUID of the player who is removing another player from their ignored list.
+     * @param ignoredPlayerId The UUID of the player being removed from the ignored list.
+     */
+    @Override
+    public void removeIgnoredPlayer(UUID playerId, UUID ignoredPlayerId) {
+        try {
+            _ignoreIndex.remove(playerId, ignoredPlayerId, () -> {
+                try (Connection connection = _dataSource.getConnection()) {
+                    String sql = String.format("DELETE FROM %s_ignores WHERE PlayerId=? AND IgnoredId=? LIMIT 1;",
+                            _config.storageTablePrefix);
+                    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                        statement.setBytes(1, UuidUtils.toBytes(playerId));
+                        statement.setBytes(2, UuidUtils.toBytes(ignoredPlayerId));
+                        statement.executeUpdate();
+                    }
+                }
+            });
         } catch (Exception ex) {
             _logger.Error(String.format("Unknown error happened during the deletion of ignore tables...\n%s", ex.getMessage()));
         }
     }
 
     /**
-     * Checks if a player is ignored by another player.
+     * Retrieves the cached ignored players of a player, without touching the database.
      *
-     * @param playerId        The UUID of the player who may be ignoring another player.
-     * @param ignoredPlayerId The UUID of the player who may be ignored.
-     * @return True if the ignoredPlayerId is in the ignored list of playerId, false otherwise.
+     * @param playerId The UUID of the player who is ignoring.
+     * @return The UUIDs of the ignored players, or null if they have to be loaded from the database.
      */
     @Override
-    public boolean isPlayerIgnored(UUID playerId, UUID ignoredPlayerId) {
-        var data = _ignoredPlayerCache.getIfPresent(playerId);
-        if (data != null) {
-            return data.contains(ignoredPlayerId);
+    public Set<UUID> getCachedIgnoredPlayers(UUID playerId) {
+        return _ignoreIndex.getIfPresent(playerId);
+    }
+
+    /**
+     * Retrieves every player ignored by a specific player, loading them all in one query on a cache miss.
+     *
+     * @param playerId The UUID of the player who is ignoring.
+     * @return The UUIDs of the ignored players.
+     */
+    @Override
+    public Set<UUID> getIgnoredPlayers(UUID playerId) {
+        try {
+            return _ignoreIndex.get(playerId, this::loadIgnoredPlayers);
+        } catch (Exception ex) {
+            _logger.Error(String.format("Unknown error happened while finding ignore data...\n%s", ex.getMessage()));
+            return Set.of();
         }
+    }
 
-        data = new HashSet<>();
+    /**
+     * Streams every ignored player of a specific player from the database in one query.
+     *
+     * @param playerId The UUID of the player who is ignoring.
+     * @return The UUIDs of the ignored players.
+     * @throws SQLException If the query fails.
+     */
+    private List<UUID> loadIgnoredPlayers(UUID playerId) throws SQLException {
+        List<UUID> data = new ArrayList<>();
         try (Connection connection = _dataSource.getConnection()) {
-            String sql = String.format("SELECT * FROM %s_ignores WHERE PlayerId=?;",
+            String sql = String.format("SELECT IgnoredId FROM %s_ignores WHERE PlayerId=?;",
                     _config.storageTablePrefix);
             try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, playerId.toString());
+                statement.setBytes(1, UuidUtils.toBytes(playerId));
                 try (ResultSet result = statement.executeQuery()) {
-                    if (result.next()) {
-                        data.add(UUID.fromString(result.getString("IgnoredId")));
+                    while (result.next()) {
+                        data.add(UuidUtils.fromBytes(result.getBytes("IgnoredId")));
                     }
                 }
             }
-        } catch (Exception ex) {
-            _logger.Error(String.format("Unknown error happened while finding ignore data...\n%s", ex.getMessage()));
-            return false;
         }
+        return data;
+    }
 
-        _ignoredPlayerCache.put(playerId, data);
-        return data.contains(ignoredPlayerId);
+    /**
+     * Retrieves the online players who ignore a specific player from the reverse ignore index.
+     *
+     * @param playerId The UUID of the player who may be ignored.
+     * @return The UUIDs of the online players ignoring the player.
+     */
+    @Override
+    public Set<UUID> getIgnoredBy(UUID playerId) {
+        return _ignoreIndex.getIgnoredBy(playerId);
+    }
+
+    /**
+     * Checks if a player is ignored by another player.
+     *
+     * @param playerId        The UUID of the player who may be ignoring another player.
+     * @param ignoredPlayerId The UUID of the player who may be ignored.
+     * @return True if the ignoredPlayerId is in the ignored list of playerId, false otherwise.
+     */
+    @Override
+    public boolean isPlayerIgnored(UUID playerId, UUID ignoredPlayerId) {
+        return getIgnoredPlayers(playerId).contains(ignoredPlayerId);
     }
-}
\ No newline at end of file
+}
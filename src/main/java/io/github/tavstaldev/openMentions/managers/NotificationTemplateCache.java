@@ -0,0 +1,111 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import io.github.tavstaldev.minecorelib.core.PluginLogger;
+import io.github.tavstaldev.minecorelib.utils.ChatUtils;
+import io.github.tavstaldev.openMentions.OpenMentions;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextReplacementConfig;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the mention notification messages as parsed components, one set per locale.
+ * The translations are localized and their color codes parsed once, so a notification
+ * only has to insert the names of the mentioners.
+ * The cache must be cleared whenever the localizations or the configuration are reloaded.
+ */
+public class NotificationTemplateCache {
+    /** Logger instance for logging messages related to NotificationTemplateCache. */
+    private static final PluginLogger _logger = OpenMentions.Logger().WithModule(NotificationTemplateCache.class);
+
+    /** The placeholder replaced with the names of the mentioners. */
+    private static final String PLAYER_PLACEHOLDER = "%player%";
+
+    /** Cache key used when the player's locale is ignored or cannot be determined. */
+    private static final String DEFAULT_LOCALE = "";
+
+    private static final Map<String, Template> _templates = new ConcurrentHashMap<>();
+
+    /**
+     * The parsed notification messages of a locale.
+     *
+     * @param chatMessage The chat message, with the prefix already applied.
+     * @param actionBarMessage The action bar message.
+     */
+    private record Template(Component chatMessage, Component actionBarMessage) {}
+
+    /**
+     * Retrieves the chat message of a mention notification.
+     *
+     * @param player The player being notified, whose locale is used.
+     * @param mentioners The names of the players who mentioned them.
+     * @return The chat message with the names inserted.
+     */
+    public static Component getChatMessage(Player player, String mentioners) {
+        return insertMentioners(getTemplate(player).chatMessage(), mentioners);
+    }
+
+    /**
+     * Retrieves the action bar message of a mention notification.
+     *
+     * @param player The player being notified, whose locale is used.
+     * @param mentioners The names of the players who mentioned them.
+     * @return The action bar message with the names inserted.
+     */
+    public static Component getActionBarMessage(Player player, String mentioners) {
+        return insertMentioners(getTemplate(player).actionBarMessage(), mentioners);
+    }
+
+    /**
+     * Drops every cached template. They are parsed again on the next notification.
+     */
+    public static void clear() {
+        _templates.clear();
+    }
+
+    /**
+     * Retrieves the templates of the player's locale, parsing them on first use.
+     */
+    private static Template getTemplate(Player player) {
+        // The locale of the first player is enough to localize, every player of the locale gets the same text.
+        return _templates.computeIfAbsent(getLocaleKey(player), locale -> parse(player));
+    }
+
+    /**
+     * Retrieves the key of the locale the translator uses for a player.
+     */
+    private static String getLocaleKey(Player player) {
+        if (!OpenMentions.Config().getBoolean("usePlayerLocale"))
+            return DEFAULT_LOCALE;
+
+        try {
+            return player.locale().getISO3Language();
+        } catch (Exception ex) {
+            return DEFAULT_LOCALE;
+        }
+    }
+
+    /**
+     * Localizes and parses the notification messages for the locale of a player.
+     */
+    private static Template parse(Player player) {
+        var translator = OpenMentions.Translator();
+        String prefix = OpenMentions.Config().getString("prefix", "");
+        String chatMessage = translator.Localize(player, "General.ChatMessage").replace("%prefix%", prefix);
+        String actionBarMessage = translator.Localize(player, "General.ActionBarMessage");
+        _logger.Debug(String.format("Parsed the notification templates of the '%s' locale.", getLocaleKey(player)));
+        return new Template(ChatUtils.translateColors(chatMessage, true), ChatUtils.translateColors(actionBarMessage, true));
+    }
+
+    /**
+     * Replaces the player placeholder of a template with the names of the mentioners.
+     */
+    private static Component insertMentioners(Component template, String mentioners) {
+        return template.replaceText(TextReplacementConfig.builder()
+                .matchLiteral(PLAYER_PLACEHOLDER)
+                .replacement(mentioners)
+                .build());
+    }
+}
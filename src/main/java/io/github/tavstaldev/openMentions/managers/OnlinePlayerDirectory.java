@@ -0,0 +1,155 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import io.github.tavstaldev.openMentions.OpenMentions;
+import io.github.tavstaldev.openMentions.utils.PlayerNameTrie;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe directory of the players that are currently online.
+ * Kept up to date by the PlayerListener on join and quit, so async chat threads can resolve
+ * mentions with a lock-free lookup instead of calling into Bukkit.
+ */
+public class OnlinePlayerDirectory {
+    private static final Map<String, Player> _byName = new ConcurrentHashMap<>();
+    private static final Map<String, Player> _byDisplayName = new ConcurrentHashMap<>();
+    private static final Map<UUID, String> _displayNameKeys = new ConcurrentHashMap<>();
+    private static final PlayerNameTrie _nameTrie = new PlayerNameTrie();
+
+    /**
+     * Adds a player to the directory.
+     *
+     * @param player The player who joined the server.
+     */
+    public static void add(Player player) {
+        _byName.put(player.getName().toLowerCase(Locale.ROOT), player);
+        _nameTrie.add(player.getName());
+        refreshDisplayName(player);
+    }
+
+    /**
+     * Removes a player from the directory.
+     *
+     * @param player The player who left the server.
+     */
+    public static void remove(Player player) {
+        if (_byName.remove(player.getName().toLowerCase(Locale.ROOT), player))
+            _nameTrie.remove(player.getName());
+        String displayKey = _displayNameKeys.remove(player.getUniqueId());
+        if (displayKey != null)
+            _byDisplayName.remove(displayKey, player);
+    }
+
+    /**
+     * Re-indexes the display name of a player, removing the key of their previous display name.
+     * Players who already left are ignored, so a late refresh cannot add them back.
+     *
+     * @param player The player whose display name should be refreshed.
+     */
+    public static void refreshDisplayName(Player player) {
+        if (_byName.get(player.getName().toLowerCase(Locale.ROOT)) != player)
+            return;
+
+        String displayKey = PlainTextComponentSerializer.plainText().serialize(player.displayName()).toLowerCase(Locale.ROOT);
+        String oldKey = _displayNameKeys.put(player.getUniqueId(), displayKey);
+        if (displayKey.equals(oldKey) && _byDisplayName.get(displayKey) == player)
+            return;
+
+        if (oldKey != null && !oldKey.equals(displayKey))
+            _byDisplayName.remove(oldKey, player);
+        if (!displayKey.isEmpty())
+            _byDisplayName.put(displayKey, player);
+    }
+
+    /**
+     * Re-indexes the display names of every online player.
+     * Nickname and prefix plugins change display names without an event, so this runs periodically.
+     * Every player is refreshed on the thread owning them, like on join.
+     */
+    public static void refreshDisplayNames() {
+        for (Player player : _byName.values()) {
+            OpenMentions.Scheduler.runForEntity(player, () -> refreshDisplayName(player));
+        }
+    }
+
+    /**
+     * Rebuilds the directory from the players that are currently online.
+     * Used when the plugin is enabled while players are already connected.
+     */
+    public static void reload() {
+        clear();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            add(player);
+        }
+    }
+
+    /**
+     * Removes every player from the directory.
+     */
+    public static void clear() {
+        _byName.clear();
+        _nameTrie.clear();
+        _byDisplayName.clear();
+        _displayNameKeys.clear();
+    }
+
+    /**
+     * Finds an online player by their exact name, ignoring case.
+     *
+     * @param name The name of the player.
+     * @return The player, or null if no player with the given name is online.
+     */
+    public static @Nullable Player getByName(String name) {
+        return _byName.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Finds an online player by their name, falling back to their display name.
+     *
+     * @param name The name or display name of the player.
+     * @return The player, or null if no matching player is online.
+     */
+    public static @Nullable Player find(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        Player player = _byName.get(key);
+        if (player != null)
+            return player;
+        return _byDisplayName.get(key);
+    }
+
+    /**
+     * Retrieves the trie of online player names, used to find bare-name mentions.
+     *
+     * @return The name trie of the online players.
+     */
+    public static PlayerNameTrie getNameTrie() {
+        return _nameTrie;
+    }
+
+    /**
+     * Retrieves a read-only view of the online players.
+     *
+     * @return A collection of the online players.
+     */
+    public static Collection<Player> getPlayers() {
+        return Collections.unmodifiableCollection(_byName.values());
+    }
+
+    /**
+     * Retrieves the number of players in the directory.
+     *
+     * @return The number of online players.
+     */
+    public static int size() {
+        return _byName.size();
+    }
+}
@@ -0,0 +1,366 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrent, size-bounded table of packed player profiles keyed by player UUID.
+ * Every entry is two longs of key and two ints, the packed profile and the time of the last access,
+ * kept in primitive open-addressing arrays split into segments guarded by StampedLocks, the same
+ * layout as the CooldownTable. Lookups use optimistic reads and never allocate, and record the
+ * access only when they get the write lock of the segment without waiting.
+ * When a segment is full, the least recently used entry of a small sample is evicted, and entries
+ * not accessed for longer than the configured time are treated as missing.
+ */
+public class PackedProfileTable {
+    /** Value returned by get when the key is not in the table. Stored values are never negative. */
+    public static final int MISSING = -1;
+
+    /** Number of segments. Must be a power of two. */
+    private static final int SEGMENTS = 16;
+
+    /** Initial number of slots of a segment. Must be a power of two. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Number of entries compared when looking for an entry to evict. */
+    private static final int EVICTION_SAMPLES = 8;
+
+    private final Segment[] _segments = new Segment[SEGMENTS];
+    private final int _segmentLimit;
+    private final int _expireAfterAccess;
+    private final LongSupplier _clock;
+    private final long _origin;
+
+    /**
+     * The arrays of a segment. A resize swaps the whole holder, so an optimistic reader
+     * always sees arrays of matching length.
+     */
+    private static final class Slots {
+        final long[] keys;
+        final int[] values;
+        final int[] accessed;
+        final boolean[] used;
+        final int mask;
+
+        Slots(int capacity) {
+            keys = new long[capacity * 2];
+            values = new int[capacity];
+            accessed = new int[capacity];
+            used = new boolean[capacity];
+            mask = capacity - 1;
+        }
+    }
+
+    private static final class Segment {
+        final StampedLock lock = new StampedLock();
+        Slots slots = new Slots(INITIAL_CAPACITY);
+        int size;
+        int hand;
+        long evictions;
+    }
+
+    /**
+     * Creates a new, empty profile table.
+     *
+     * @param maxSize The maximum number of entries, rounded up to a multiple of the segment count. 0 disables the table.
+     * @param expireAfterAccess The number of minutes after which unused entries expire, 0 to never expire.
+     */
+    public PackedProfileTable(int maxSize, int expireAfterAccess) {
+        this(maxSize, expireAfterAccess, System::nanoTime);
+    }
+
+    /**
+     * Creates a new, empty profile table reading the time from the given clock.
+     *
+     * @param maxSize The maximum number of entries, rounded up to a multiple of the segment count. 0 disables the table.
+     * @param expireAfterAccess The number of minutes after which unused entries expire, 0 to never expire.
+     * @param clock The source of the current time, in nanoseconds.
+     */
+    PackedProfileTable(int maxSize, int expireAfterAccess, LongSupplier clock) {
+        _clock = clock;
+        _origin = clock.getAsLong();
+        _segmentLimit = maxSize <= 0 ? 0 : Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+        _expireAfterAccess = expireAfterAccess <= 0 ? Integer.MAX_VALUE : (int) TimeUnit.MINUTES.toSeconds(expireAfterAccess);
+        for (int i = 0; i < SEGMENTS; i++) {
+            _segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Mixes the bits of a UUID into a well distributed hash.
+     * The top four bits select the segment and the low bits the home slot, which the tests
+     * use to build keys that collide.
+     */
+    static int hash(long msb, long lsb) {
+        long h = (msb ^ Long.rotateLeft(lsb, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private Segment segmentOf(int hash) {
+        return _segments[(hash >>> 28) & (SEGMENTS - 1)];
+    }
+
+    /**
+     * Retrieves the current time of the table, in seconds since it was created.
+     */
+    private int now() {
+        return (int) TimeUnit.NANOSECONDS.toSeconds(_clock.getAsLong() - _origin);
+    }
+
+    /**
+     * Finds the slot of a key.
+     *
+     * @return The slot index, or -1 if the key is not in the table.
+     */
+    private static int find(Slots slots, int hash, long msb, long lsb) {
+        int index = hash & slots.mask;
+        // Bounded by the capacity, so an inconsistent optimistic read can never loop forever.
+        for (int probes = 0; probes <= slots.mask; probes++) {
+            if (!slots.used[index])
+                return -1;
+            if (slots.keys[index * 2] == msb && slots.keys[index * 2 + 1] == lsb)
+                return index;
+            index = (index + 1) & slots.mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves the packed profile of a player and marks it as used.
+     *
+     * @param msb The most significant bits of the player's UUID.
+     * @param lsb The least significant bits of the player's UUID.
+     * @return The packed profile, or MISSING if it is not in the table or has expired.
+     */
+    public int get(long msb, long lsb) {
+        int hash = hash(msb, lsb);
+        Segment segment = segmentOf(hash);
+        int now = now();
+        long stamp = segment.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            Slots slots = segment.slots;
+            int index = find(slots, hash, msb, lsb);
+            int value = index < 0 ? MISSING : slots.values[index];
+            int accessed = index < 0 ? 0 : slots.accessed[index];
+            if (segment.lock.validate(stamp)) {
+                if (value == MISSING || now - accessed > _expireAfterAccess)
+                    return MISSING;
+                if (accessed != now)
+                    touch(segment, hash, msb, lsb, now);
+                return value;
+            }
+        }
+
+        int value;
+        int accessed;
+        stamp = segment.lock.readLock();
+        try {
+            Slots slots = segment.slots;
+            int index = find(slots, hash, msb, lsb);
+            if (index < 0 || now - slots.accessed[index] > _expireAfterAccess)
+                return MISSING;
+            value = slots.values[index];
+            accessed = slots.accessed[index];
+        } finally {
+            segment.lock.unlockRead(stamp);
+        }
+        if (accessed != now)
+            touch(segment, hash, msb, lsb, now);
+        return value;
+    }
+
+    /**
+     * Records an access of a key if the write lock of its segment is free.
+     * The slot is looked up again under the lock, since a deletion may have shifted the entry
+     * since it was read. A skipped update only makes the entry look older to the eviction,
+     * and the next read of the entry tries again.
+     */
+    private static void touch(Segment segment, int hash, long msb, long lsb, int now) {
+        long stamp = segment.lock.tryWriteLock();
+        if (stamp == 0)
+            return;
+        try {
+            Slots slots = segment.slots;
+            int index = find(slots, hash, msb, lsb);
+            if (index >= 0 && now - slots.accessed[index] > 0)
+                slots.accessed[index] = now;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Stores the packed profile of a player, evicting another entry if the segment is full.
+     *
+     * @param msb The most significant bits of the player's UUID.
+     * @param lsb The least significant bits of the player's UUID.
+     * @param value The packed profile, must not be negative.
+     */
+    public void put(long msb, long lsb, int value) {
+        if (value < 0)
+            throw new IllegalArgumentException("Packed profiles must not be negative.");
+        if (_segmentLimit == 0)
+            return;
+
+        int hash = hash(msb, lsb);
+        Segment segment = segmentOf(hash);
+        int now = now();
+        long stamp = segment.lock.writeLock();
+        try {
+            Slots slots = segment.slots;
+            int index = find(slots, hash, msb, lsb);
+            if (index >= 0) {
+                slots.values[index] = value;
+                slots.accessed[index] = now;
+                return;
+            }
+
+            if (segment.size >= _segmentLimit) {
+                delete(slots, selectVictim(segment, slots));
+                segment.size--;
+                segment.evictions++;
+            } else if ((segment.size + 1) * 4 > (slots.mask + 1) * 3) {
+                slots = resize(slots);
+                segment.slots = slots;
+            }
+            insert(slots, hash, msb, lsb, value, now);
+            segment.size++;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the packed profile of a player.
+     *
+     * @param msb The most significant bits of the player's UUID.
+     * @param lsb The least significant bits of the player's UUID.
+     * @return The removed packed profile, or MISSING if it was not in the table or had expired.
+     */
+    public int remove(long msb, long lsb) {
+        int hash = hash(msb, lsb);
+        Segment segment = segmentOf(hash);
+        int now = now();
+        long stamp = segment.lock.writeLock();
+        try {
+            Slots slots = segment.slots;
+            int index = find(slots, hash, msb, lsb);
+            if (index < 0)
+                return MISSING;
+
+            int value = now - slots.accessed[index] > _expireAfterAccess ? MISSING : slots.values[index];
+            delete(slots, index);
+            segment.size--;
+            return value;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Retrieves the number of entries in the table, including expired ones not removed yet.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : _segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                size += segment.size;
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Retrieves the number of entries evicted to keep the table within its size.
+     *
+     * @return The number of evictions.
+     */
+    public long evictions() {
+        long evictions = 0;
+        for (Segment segment : _segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                evictions += segment.evictions;
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return evictions;
+    }
+
+    /**
+     * Picks the least recently used entry among a few entries following the segment's clock hand.
+     * The segment must hold at least one entry.
+     */
+    private static int selectVictim(Segment segment, Slots slots) {
+        int victim = -1;
+        int sampled = 0;
+        int index = segment.hand & slots.mask;
+        for (int probes = 0; probes <= slots.mask && sampled < EVICTION_SAMPLES; probes++) {
+            if (slots.used[index]) {
+                if (victim < 0 || slots.accessed[index] - slots.accessed[victim] < 0)
+                    victim = index;
+                sampled++;
+            }
+            index = (index + 1) & slots.mask;
+        }
+        segment.hand = index;
+        return victim;
+    }
+
+    private static void insert(Slots slots, int hash, long msb, long lsb, int value, int accessed) {
+        int index = hash & slots.mask;
+        while (slots.used[index]) {
+            index = (index + 1) & slots.mask;
+        }
+        slots.keys[index * 2] = msb;
+        slots.keys[index * 2 + 1] = lsb;
+        slots.values[index] = value;
+        slots.accessed[index] = accessed;
+        slots.used[index] = true;
+    }
+
+    /**
+     * Removes a slot using backward shift deletion, so no tombstones are left behind.
+     */
+    private static void delete(Slots slots, int index) {
+        int mask = slots.mask;
+        int hole = index;
+        int next = index;
+        while (true) {
+            next = (next + 1) & mask;
+            if (!slots.used[next])
+                break;
+
+            int home = hash(slots.keys[next * 2], slots.keys[next * 2 + 1]) & mask;
+            // Move the entry into the hole unless its home slot lies cyclically in (hole, next].
+            boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (movable) {
+                slots.keys[hole * 2] = slots.keys[next * 2];
+                slots.keys[hole * 2 + 1] = slots.keys[next * 2 + 1];
+                slots.values[hole] = slots.values[next];
+                slots.accessed[hole] = slots.accessed[next];
+                hole = next;
+            }
+        }
+        slots.used[hole] = false;
+    }
+
+    private static Slots resize(Slots slots) {
+        Slots resized = new Slots((slots.mask + 1) * 2);
+        for (int i = 0; i <= slots.mask; i++) {
+            if (!slots.used[i])
+                continue;
+            long msb = slots.keys[i * 2];
+            long lsb = slots.keys[i * 2 + 1];
+            insert(resized, hash(msb, lsb), msb, lsb, slots.values[i], slots.accessed[i]);
+        }
+        return resized;
+    }
+}
@@ -1,27 +1,56 @@
 package io.github.tavstaldev.openMentions.managers;
 
-import java.time.LocalDateTime;
-import java.util.*;
+import io.github.tavstaldev.openMentions.OpenMentions;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manages the caching of player data.
  * This class provides methods to add, remove, and retrieve player data
  * stored in a cache for efficient access.
+ * Cooldowns and pending cache releases expire through the plugin's timing wheel.
  */
 public class PlayerCacheManager {
-    private static final Map<UUID, LocalDateTime> _cooldown = new HashMap<>();
-    private static final Set<UUID> _markedForRemoval = new HashSet<>();
+    /** Time the cached data of a player who left stays pinned, so quick reconnects keep it, in seconds. */
+    private static final long RELEASE_DELAY = 60;
+
+    private static final CooldownTable _cooldown = new CooldownTable();
+    private static final Map<UUID, TimingWheel.Timeout> _markedForRemoval = new ConcurrentHashMap<>();
+
+    /**
+     * Sets a cooldown for a specific player, starting now.
+     * The entry is removed by the timing wheel once the cooldown has expired.
+     *
+     * @param playerId The unique identifier of the player.
+     * @param duration The length of the cooldown.
+     * @param unit The unit of the duration.
+     */
+    public static void setCooldown(UUID playerId, long duration, TimeUnit unit) {
+        long nanos = unit.toNanos(duration);
+        // A refreshed entry already has an expiry scheduled, which reschedules itself if needed.
+        if (_cooldown.put(playerId, System.nanoTime() + nanos))
+            OpenMentions.Timers.schedule(nanos, TimeUnit.NANOSECONDS, () -> expireCooldown(playerId));
+    }
 
     /**
-     * Sets a cooldown time for a specific player.
+     * Removes the cooldown of a player if it has expired, or waits for the rest of it otherwise.
      *
      * @param playerId The unique identifier of the player.
-     * @param time The time until which the cooldown is active.
      */
-    public static void setCooldown(UUID playerId, LocalDateTime time) {
-        _cooldown.put(playerId, time);
+    private static void expireCooldown(UUID playerId) {
+        long remaining = _cooldown.expire(playerId, System.nanoTime());
+        if (remaining > 0)
+            OpenMentions.Timers.schedule(remaining, TimeUnit.NANOSECONDS, () -> expireCooldown(playerId));
     }
 
+    /**
+     * Removes the cooldown of a specific player.
+     *
+     * @param playerId The unique identifier of the player.
+     */
     public static void removeCooldown(UUID playerId) {
         _cooldown.remove(playerId);
     }
@@ -33,56 +62,53 @@ public class PlayerCacheManager {
      * @return True if the player is on cooldown, false otherwise.
      */
     public static boolean isOnCooldown(UUID playerId) {
-        LocalDateTime cooldownTime = _cooldown.get(playerId);
-        if (cooldownTime == null) {
-            return false; // No cooldown set for this player
-        }
-        return LocalDateTime.now().isBefore(cooldownTime); // Check if current time is before the cooldown time
+        return _cooldown.isActive(playerId);
     }
 
     /**
-     * Marks a player for removal by adding their UUID to the removal set.
+     * Marks a player for removal. Their cached data is released after a short delay,
+     * unless they join again before that.
      *
      * @param playerId The UUID of the player to mark for removal.
      */
     public static void markForRemoval(UUID playerId) {
-        _markedForRemoval.add(playerId);
+        _markedForRemoval.compute(playerId, (id, previous) -> {
+            if (previous != null)
+                previous.cancel();
+            return OpenMentions.Timers.schedule(RELEASE_DELAY, TimeUnit.SECONDS, () -> release(id));
+        });
     }
 
     /**
-     * Unmarks a player for removal by removing their UUID from the removal set.
+     * Releases the cached data of a player who is still marked for removal.
      *
-     * @param playerId The UUID of the player to unmark for removal.
+     * @param playerId The UUID of the player.
      */
-    public static void unmarkForRemoval(UUID playerId) {
-        _markedForRemoval.remove(playerId);
-    }
+    private static void release(UUID playerId) {
+        if (_markedForRemoval.remove(playerId) == null)
+            return;
 
-    /**
-     * Checks if a player is marked for removal.
-     *
-     * @param playerId The UUID of the player to check.
-     * @return true if the player is marked for removal, false otherwise.
-     */
-    public static boolean isMarkedForRemoval(UUID playerId) {
-        return _markedForRemoval.contains(playerId);
+        OpenMentions.Database.releasePlayer(playerId);
     }
 
     /**
-     * Checks if the set of players marked for removal is empty.
+     * Unmarks a player for removal and cancels the pending release of their data.
      *
-     * @return true if no players are marked for removal, false otherwise.
+     * @param playerId The UUID of the player to unmark for removal.
      */
-    public static boolean isMarkedForRemovalEmpty() {
-        return _markedForRemoval.isEmpty();
+    public static void unmarkForRemoval(UUID playerId) {
+        TimingWheel.Timeout timeout = _markedForRemoval.remove(playerId);
+        if (timeout != null)
+            timeout.cancel();
     }
 
     /**
-     * Retrieves the set of UUIDs representing players marked for removal.
+     * Checks if a player is marked for removal.
      *
-     * @return A Set of UUIDs of players marked for removal.
+     * @param playerId The UUID of the player to check.
+     * @return true if the player is marked for removal, false otherwise.
      */
-    public static Set<UUID> getMarkedForRemovalSet() {
-        return new HashSet<>(_markedForRemoval); // Return a copy to prevent external modification
+    public static boolean isMarkedForRemoval(UUID playerId) {
+        return _markedForRemoval.containsKey(playerId);
     }
-}
\ No newline at end of file
+}
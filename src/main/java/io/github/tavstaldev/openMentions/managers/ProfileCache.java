@@ -0,0 +1,160 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import com.cryptomorin.xseries.XSound;
+import io.github.tavstaldev.openMentions.models.EMentionDisplay;
+import io.github.tavstaldev.openMentions.models.EMentionPreference;
+import io.github.tavstaldev.openMentions.models.IOfflineStore;
+import io.github.tavstaldev.openMentions.models.PlayerDatabaseData;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Two-tier cache for the mention settings of players.
+ * Entries of online players are pinned as PlayerDatabaseData objects, so they can be changed in place.
+ * Entries of offline players are packed into a single int each, holding the display, the preference
+ * and the index of the interned sound, and stored in a size-bounded PackedProfileTable.
+ * An offline entry is turned back into a PlayerDatabaseData object when it is read, so changes to
+ * the data of an offline player must be put again.
+ */
+public class ProfileCache extends TieredCache<PlayerDatabaseData> {
+    /** Number of bits of the display in a packed profile. */
+    private static final int DISPLAY_BITS = 4;
+
+    /** Number of bits of the preference in a packed profile. */
+    private static final int PREFERENCE_BITS = 4;
+
+    /** Position of the sound index in a packed profile. */
+    private static final int SOUND_SHIFT = DISPLAY_BITS + PREFERENCE_BITS;
+
+    /** The largest sound index that keeps a packed profile positive. */
+    private static final int MAX_SOUND_INDEX = Integer.MAX_VALUE >>> SOUND_SHIFT;
+
+    private static final EMentionDisplay[] DISPLAYS = EMentionDisplay.values();
+    private static final EMentionPreference[] PREFERENCES = EMentionPreference.values();
+
+    /**
+     * Creates a new profile cache.
+     *
+     * @param name The name of the cache, used in statistics.
+     * @param offlineSize The maximum number of entries in the offline tier.
+     * @param expireAfterAccess The number of minutes after which unused offline entries expire.
+     */
+    public ProfileCache(String name, int offlineSize, int expireAfterAccess) {
+        super(name, new PackedStore(offlineSize, expireAfterAccess));
+    }
+
+    /**
+     * Offline store packing the settings of players into a PackedProfileTable.
+     */
+    private static final class PackedStore implements IOfflineStore<PlayerDatabaseData> {
+        private final PackedProfileTable _table;
+
+        /** Indexes of the interned sound names. */
+        private final Map<String, Integer> _soundIndexes = new ConcurrentHashMap<>();
+
+        /** The interned sounds by index. Replaced as a whole when a sound is added, so readers need no lock. */
+        private volatile InternedSound[] _sounds = new InternedSound[0];
+
+        /**
+         * A sound name shared by the packed profiles, with the sound resolved from it.
+         *
+         * @param name The name of the sound.
+         * @param sound The resolved sound.
+         */
+        private record InternedSound(String name, XSound sound) {}
+
+        PackedStore(int maxSize, int expireAfterAccess) {
+            _table = new PackedProfileTable(maxSize, expireAfterAccess);
+        }
+
+        @Override
+        public PlayerDatabaseData getIfPresent(UUID key) {
+            int packed = _table.get(key.getMostSignificantBits(), key.getLeastSignificantBits());
+            return packed == PackedProfileTable.MISSING ? null : unpack(key, packed);
+        }
+
+        @Override
+        public void put(UUID key, PlayerDatabaseData value) {
+            int packed = pack(value);
+            if (packed == PackedProfileTable.MISSING) {
+                // Cannot be packed, dropping the entry is better than serving an old one.
+                _table.remove(key.getMostSignificantBits(), key.getLeastSignificantBits());
+                return;
+            }
+            _table.put(key.getMostSignificantBits(), key.getLeastSignificantBits(), packed);
+        }
+
+        @Override
+        public PlayerDatabaseData remove(UUID key) {
+            int packed = _table.remove(key.getMostSignificantBits(), key.getLeastSignificantBits());
+            return packed == PackedProfileTable.MISSING ? null : unpack(key, packed);
+        }
+
+        @Override
+        public long size() {
+            return _table.size();
+        }
+
+        @Override
+        public long evictions() {
+            return _table.evictions();
+        }
+
+        /**
+         * Packs the settings of a player into a single int.
+         *
+         * @return The packed profile, or MISSING if the data cannot be packed.
+         */
+        private int pack(PlayerDatabaseData value) {
+            if (value.soundName == null || value.display == null || value.preference == null)
+                return PackedProfileTable.MISSING;
+
+            int soundIndex = internSound(value);
+            if (soundIndex < 0)
+                return PackedProfileTable.MISSING;
+
+            return (soundIndex << SOUND_SHIFT) | (value.preference.ordinal() << DISPLAY_BITS) | value.display.ordinal();
+        }
+
+        /**
+         * Turns a packed profile back into the data of a player.
+         */
+        private PlayerDatabaseData unpack(UUID key, int packed) {
+            InternedSound sound = _sounds[packed >>> SOUND_SHIFT];
+            EMentionPreference preference = PREFERENCES[(packed >>> DISPLAY_BITS) & ((1 << PREFERENCE_BITS) - 1)];
+            EMentionDisplay display = DISPLAYS[packed & ((1 << DISPLAY_BITS) - 1)];
+            return new PlayerDatabaseData(key, sound.name(), sound.sound(), display, preference);
+        }
+
+        /**
+         * Retrieves the index of the sound of a player, adding it to the interned sounds if needed.
+         *
+         * @return The index of the sound, or -1 if there are too many different sounds.
+         */
+        private int internSound(PlayerDatabaseData value) {
+            Integer index = _soundIndexes.get(value.soundName);
+            if (index != null)
+                return index;
+
+            synchronized (_soundIndexes) {
+                index = _soundIndexes.get(value.soundName);
+                if (index != null)
+                    return index;
+
+                int next = _sounds.length;
+                if (next > MAX_SOUND_INDEX)
+                    return -1;
+
+                InternedSound[] sounds = Arrays.copyOf(_sounds, next + 1);
+                sounds[next] = new InternedSound(value.soundName, value.sound);
+                // Publish the array before the index, so a packed profile never points past its end.
+                _sounds = sounds;
+                _soundIndexes.put(value.soundName, next);
+                return next;
+            }
+        }
+    }
+}
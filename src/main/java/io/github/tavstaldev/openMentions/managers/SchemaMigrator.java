@@ -0,0 +1,263 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import io.github.tavstaldev.minecorelib.core.PluginLogger;
+import io.github.tavstaldev.openMentions.OpenMentions;
+import io.github.tavstaldev.openMentions.utils.UuidUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Applies the ordered schema migrations of a database and records them in a version table.
+ * Every migration runs at most once; the highest applied version is read from the
+ * {@code <prefix>_schema} table on every start.
+ */
+public class SchemaMigrator {
+    /** Logger instance for logging messages related to SchemaMigrator. */
+    private static final PluginLogger _logger = OpenMentions.Logger().WithModule(SchemaMigrator.class);
+
+    /** Number of rows copied per batch when a migration moves data between tables. */
+    public static final int BATCH_SIZE = 500;
+
+    private final String _tablePrefix;
+    private final List<Migration> _migrations;
+
+    /**
+     * A single step of the schema history.
+     *
+     * @param version The version the schema has after the migration, starting from 1.
+     * @param description A short description of the migration.
+     * @param step The changes of the migration.
+     */
+    public record Migration(int version, String description, Step step) {}
+
+    /**
+     * Changes applied by a migration.
+     */
+    @FunctionalInterface
+    public interface Step {
+        /**
+         * Applies the changes.
+         *
+         * @param connection The connection to apply the changes with.
+         * @throws SQLException If a database error occurs.
+         */
+        void apply(Connection connection) throws SQLException;
+    }
+
+    /**
+     * Creates a new migrator.
+     *
+     * @param tablePrefix The prefix of the plugin's tables.
+     * @param migrations The migrations of the database, in any order.
+     */
+    public SchemaMigrator(String tablePrefix, List<Migration> migrations) {
+        _tablePrefix = tablePrefix;
+        _migrations = migrations.stream()
+                .sorted(Comparator.comparingInt(Migration::version))
+                .toList();
+    }
+
+    /**
+     * Applies every migration newer than the current schema version.
+     *
+     * @param connection The connection to migrate with.
+     * @param transactionalDdl Whether the database can roll back schema changes, so each migration
+     *                         can run in a single transaction together with its version record.
+     * @throws SQLException If a migration fails. Migrations applied before the failing one are kept.
+     */
+    public void migrate(Connection connection, boolean transactionalDdl) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(String.format("CREATE TABLE IF NOT EXISTS %s_schema (" +
+                            "Version INT NOT NULL PRIMARY KEY, " +
+                            "Description VARCHAR(200) NOT NULL, " +
+                            "AppliedAt BIGINT NOT NULL);",
+                    _tablePrefix));
+        }
+
+        int current = getVersion(connection);
+        for (Migration migration : _migrations) {
+            if (migration.version() <= current)
+                continue;
+
+            boolean autoCommit = connection.getAutoCommit();
+            if (transactionalDdl)
+                connection.setAutoCommit(false);
+            try {
+                migration.step().apply(connection);
+                try (PreparedStatement statement = connection.prepareStatement(String.format(
+                        "INSERT INTO %s_schema (Version, Description, AppliedAt) VALUES (?, ?, ?);", _tablePrefix))) {
+                    statement.setInt(1, migration.version());
+                    statement.setString(2, migration.description());
+                    statement.setLong(3, System.currentTimeMillis());
+                    statement.executeUpdate();
+                }
+                if (transactionalDdl)
+                    connection.commit();
+            } catch (SQLException ex) {
+                if (transactionalDdl)
+                    connection.rollback();
+                throw new SQLException(String.format("Schema migration %d (%s) failed: %s",
+                        migration.version(), migration.description(), ex.getMessage()), ex);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+
+            current = migration.version();
+            _logger.Info(String.format("Applied schema migration %d: %s", migration.version(), migration.description()));
+        }
+    }
+
+    /**
+     * Retrieves the current schema version.
+     *
+     * @param connection The connection to query with.
+     * @return The highest applied version, or 0 if no migration was applied yet.
+     * @throws SQLException If a database error occurs.
+     */
+    private int getVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(String.format("SELECT MAX(Version) FROM %s_schema;", _tablePrefix))) {
+            return result.next() ? result.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Copies the players table with text UUIDs into a table with binary UUIDs, in batches
+     * ordered by the primary key. Rows with malformed UUIDs are skipped.
+     *
+     * @param connection The connection to copy with.
+     * @param source The name of the table to copy from.
+     * @param target The name of the table to copy to.
+     * @return The number of copied rows.
+     * @throws SQLException If a database error occurs.
+     */
+    public static int copyPlayers(Connection connection, String source, String target) throws SQLException {
+        String selectSql = String.format("SELECT PlayerId, Sound, Display, Preference FROM %s " +
+                "WHERE PlayerId > ? ORDER BY PlayerId LIMIT %d;", source, BATCH_SIZE);
+        String insertSql = String.format("INSERT INTO %s (PlayerId, Sound, Display, Preference) VALUES (?, ?, ?, ?);", target);
+
+        int copied = 0;
+        String last = "";
+        try (PreparedStatement select = connection.prepareStatement(selectSql);
+             PreparedStatement insert = connection.prepareStatement(insertSql)) {
+            while (true) {
+                int rows = 0;
+                select.setString(1, last);
+                try (ResultSet result = select.executeQuery()) {
+                    while (result.next()) {
+                        rows++;
+                        last = result.getString("PlayerId");
+                        UUID playerId = parse(last);
+                        if (playerId == null)
+                            continue;
+
+                        insert.setBytes(1, UuidUtils.toBytes(playerId));
+                        insert.setString(2, result.getString("Sound"));
+                        insert.setString(3, result.getString("Display"));
+                        insert.setString(4, result.getString("Preference"));
+                        insert.addBatch();
+                    }
+                }
+                if (rows == 0)
+                    break;
+
+                copied += executeBatch(connection, insert);
+            }
+        }
+        return copied;
+    }
+
+    /**
+     * Copies the ignores table with text UUIDs into a table with binary UUIDs, in batches
+     * ordered by the primary key. Rows with malformed UUIDs are skipped.
+     *
+     * @param connection The connection to copy with.
+     * @param source The name of the table to copy from.
+     * @param target The name of the table to copy to.
+     * @return The number of copied rows.
+     * @throws SQLException If a database error occurs.
+     */
+    public static int copyIgnores(Connection connection, String source, String target) throws SQLException {
+        String selectSql = String.format("SELECT PlayerId, IgnoredId FROM %s " +
+                "WHERE PlayerId > ? OR (PlayerId = ? AND IgnoredId > ?) " +
+                "ORDER BY PlayerId, IgnoredId LIMIT %d;", source, BATCH_SIZE);
+        String insertSql = String.format("INSERT INTO %s (PlayerId, IgnoredId) VALUES (?, ?);", target);
+
+        int copied = 0;
+        String lastPlayer = "";
+        String lastIgnored = "";
+        try (PreparedStatement select = connection.prepareStatement(selectSql);
+             PreparedStatement insert = connection.prepareStatement(insertSql)) {
+            while (true) {
+                int rows = 0;
+                select.setString(1, lastPlayer);
+                select.setString(2, lastPlayer);
+                select.setString(3, lastIgnored);
+                try (ResultSet result = select.executeQuery()) {
+                    while (result.next()) {
+                        rows++;
+                        lastPlayer = result.getString("PlayerId");
+                        lastIgnored = result.getString("IgnoredId");
+                        UUID playerId = parse(lastPlayer);
+                        UUID ignoredId = parse(lastIgnored);
+                        if (playerId == null || ignoredId == null)
+                            continue;
+
+                        insert.setBytes(1, UuidUtils.toBytes(playerId));
+                        insert.setBytes(2, UuidUtils.toBytes(ignoredId));
+                        insert.addBatch();
+                    }
+                }
+                if (rows == 0)
+                    break;
+
+                copied += executeBatch(connection, insert);
+            }
+        }
+        return copied;
+    }
+
+    /**
+     * Executes a batch of inserts. Outside a transaction each batch is committed on its own,
+     * instead of committing every row separately.
+     */
+    private static int executeBatch(Connection connection, PreparedStatement insert) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        if (autoCommit)
+            connection.setAutoCommit(false);
+        try {
+            int count = insert.executeBatch().length;
+            if (autoCommit)
+                connection.commit();
+            return count;
+        } catch (SQLException ex) {
+            if (autoCommit)
+                connection.rollback();
+            throw ex;
+        } finally {
+            if (autoCommit)
+                connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Parses a text UUID of a legacy row.
+     *
+     * @return The UUID, or null if the value is malformed.
+     */
+    private static UUID parse(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException ex) {
+            _logger.Warn(String.format("Skipping row with malformed UUID '%s' during schema migration.", value));
+            return null;
+        }
+    }
+}
@@ -1,21 +1,25 @@
 package io.github.tavstaldev.openMentions.managers;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import io.github.tavstaldev.minecorelib.core.PluginLogger;
 import io.github.tavstaldev.openMentions.OMConfig;
 import io.github.tavstaldev.openMentions.OpenMentions;
+import io.github.tavstaldev.openMentions.models.CacheStatistics;
 import io.github.tavstaldev.openMentions.models.EMentionDisplay;
 import io.github.tavstaldev.openMentions.models.EMentionPreference;
 import io.github.tavstaldev.openMentions.models.IDatabase;
+import io.github.tavstaldev.openMentions.models.InboxMention;
 import io.github.tavstaldev.openMentions.models.PlayerDatabaseData;
-import org.jetbrains.annotations.NotNull;
+import io.github.tavstaldev.openMentions.utils.UuidUtils;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.util.HashSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -24,17 +28,22 @@ import java.util.concurrent.TimeUnit;
 /**
  * Manages SQLite database operations for the OpenMentions plugin.
  * Implements the IDatabase interface to handle player data storage and retrieval.
+ * Uses a persistent pool of tuned connections: one writer and a few readers in WAL mode.
  */
 public class SqlLiteManager implements IDatabase {
     private OMConfig _config;
-    private final Cache<@NotNull UUID, PlayerDatabaseData> _playerCache = Caffeine.newBuilder()
-            .maximumSize(1000)
-            .expireAfterWrite(15, TimeUnit.MINUTES)
-            .build();
-    private final Cache<@NotNull UUID, Set<UUID>> _ignoredPlayerCache = Caffeine.newBuilder()
-            .maximumSize(1000)
-            .expireAfterWrite(5, TimeUnit.MINUTES)
-            .build();
+    private WriteBehindBuffer _writeBehind;
+    private InboxBuffer _inbox;
+    private SqliteConnectionPool _pool;
+
+    // SQL strings are built once, so they can be used as prepared statement cache keys.
+    private String _insertPlayerSql, _updatePlayerSql, _deletePlayerSql, _selectPlayerSql;
+    private String _insertIgnoreSql, _deleteIgnoreSql, _selectIgnoresSql;
+    private String _deleteNamesSql, _replaceNameSql, _selectNameSql;
+    private String _trimInboxSql, _selectInboxSql, _clearInboxSql;
+
+    private ProfileCache _playerCache;
+    private IgnoreIndex _ignoreIndex;
 
     /**
      * Logger instance for logging messages related to SqlLiteManager.
@@ -42,64 +51,215 @@ public class SqlLiteManager implements IDatabase {
     private static final PluginLogger _logger = OpenMentions.Logger().WithModule(SqlLiteManager.class);
 
     /**
-     * Loads the database manager. No operation is performed for SQLite.
+     * Loads the database manager and opens the connection pool.
      */
     @Override
     public void load() {
         _config = OpenMentions.Config();
+        _writeBehind = new WriteBehindBuffer(this::writeBatch, _config.storageMaxBatchSize);
+        _inbox = new InboxBuffer(this::writeInbox, _config.inboxMaxPerPlayer, _config.storageMaxBatchSize);
+        _playerCache = new ProfileCache("players", _config.cacheOfflinePlayers, _config.cacheExpireAfterAccess);
+        _ignoreIndex = new IgnoreIndex(_config.cacheOfflineIgnores, _config.cacheExpireAfterAccess);
+
+        String prefix = _config.storageTablePrefix;
+        _insertPlayerSql = String.format("INSERT INTO %s_players (PlayerId, Sound, Display, Preference) VALUES (?, ?, ?, ?);", prefix);
+        _updatePlayerSql = String.format("UPDATE %s_players SET Sound=?, Display=?, Preference=? WHERE PlayerId=?;", prefix);
+        _deletePlayerSql = String.format("DELETE FROM %s_players WHERE PlayerId=?;", prefix);
+        _selectPlayerSql = String.format("SELECT * FROM %s_players WHERE PlayerId=?;", prefix);
+        _insertIgnoreSql = String.format("INSERT INTO %s_ignores (PlayerId, IgnoredId) VALUES (?, ?);", prefix);
+        _deleteIgnoreSql = String.format("DELETE FROM %s_ignores WHERE PlayerId=? AND IgnoredId=?;", prefix);
+        _selectIgnoresSql = String.format("SELECT IgnoredId FROM %s_ignores WHERE PlayerId=?;", prefix);
+        _deleteNamesSql = String.format("DELETE FROM %s_names WHERE PlayerId=? AND Name<>?;", prefix);
+        _replaceNameSql = String.format("INSERT OR REPLACE INTO %s_names (Name, PlayerId) VALUES (?, ?);", prefix);
+        _selectNameSql = String.format("SELECT PlayerId FROM %s_names WHERE Name=?;", prefix);
+        _trimInboxSql = String.format("DELETE FROM %s_inbox WHERE PlayerId=? AND Id<=" +
+                "(SELECT Id FROM %s_inbox WHERE PlayerId=? ORDER BY Id DESC LIMIT 1 OFFSET ?);", prefix, prefix);
+        _selectInboxSql = String.format("SELECT Id, SenderId, SenderName, CreatedAt FROM %s_inbox " +
+                "WHERE PlayerId=? AND CreatedAt>=? ORDER BY Id LIMIT ?;", prefix);
+        _clearInboxSql = String.format("DELETE FROM %s_inbox WHERE PlayerId=? AND Id<=?;", prefix);
+
+        try {
+            _pool = new SqliteConnectionPool(String.format("plugins/OpenMentions/%s.db", _config.storageFilename), _config.storageSqliteReaders);
+        } catch (Exception ex) {
+            _logger.Error(String.format("Unknown error happened while creating db connection...\n%s", ex.getMessage()));
+        }
     }
 
     /**
-     * Unloads the database manager. No operation is performed for SQLite.
+     * Unloads the database manager, writing every pending change and closing the connections.
      */
     @Override
     public void unload() {
+        flush();
+        if (_pool != null)
+            _pool.close();
     }
 
     /**
-     * Creates a connection to the SQLite database.
+     * Retrieves the maximum number of operations that can use the database at the same time.
      *
-     * @return A Connection object to the SQLite database, or null if an error occurs.
+     * @return The number of pooled connections.
      */
-    public Connection CreateConnection() {
-        try {
-            if (_config == null)
-                _config = OpenMentions.Config();
-            Class.forName("org.sqlite.JDBC");
-            return DriverManager.getConnection(String.format("jdbc:sqlite:plugins/OpenMentions/%s.db", _config.storageFilename));
-        } catch (Exception ex) {
-            _logger.Error(String.format("Unknown error happened while creating db connection...\n%s", ex.getMessage()));
-            return null;
-        }
+    @Override
+    public int getMaxConcurrency() {
+        return _pool == null ? 1 : _pool.size();
     }
 
     /**
-     * Ensures the database schema is created. Creates the players table if it does not exist.
+     * Brings the database schema up to date by applying the pending migrations.
+     * Expired inbox mentions are removed afterwards, a failure to do so does not fail the check.
+     *
+     * @return True if every migration was applied, false otherwise.
      */
     @Override
-    public void checkSchema() {
-        try (Connection connection = CreateConnection()) {
-            String sql = String.format("CREATE TABLE IF NOT EXISTS %s_players (" +
-                            "PlayerId VARCHAR(36) PRIMARY KEY, " +
-                            "Sound VARCHAR(200) NOT NULL, " +
-                            "Display VARCHAR(32) NOT NULL, " +
-                            "Preference VARCHAR(32) NOT NULL);",
-                    _config.storageTablePrefix
-            );
-            PreparedStatement statement = connection.prepareStatement(sql);
-            statement.executeUpdate();
-
-            sql = String.format("CREATE TABLE IF NOT EXISTS %s_ignores (" +
-                            "PlayerId VARCHAR(36) NOT NULL, " +
-                            "IgnoredId VARCHAR(36) NOT NULL, " +
-                            "PRIMARY KEY (PlayerId, IgnoredId));",
-                    _config.storageTablePrefix
-            );
-            statement = connection.prepareStatement(sql);
-            statement.executeUpdate();
+    public boolean checkSchema() {
+        try {
+            _pool.write(pooled -> {
+                new SchemaMigrator(_config.storageTablePrefix, getMigrations()).migrate(pooled.getConnection(), true);
+                return null;
+            });
         } catch (Exception ex) {
             _logger.Error(String.format("Unknown error happened while creating tables...\n%s", ex.getMessage()));
+            return false;
+        }
+
+        if (_config.inboxRetentionDays <= 0)
+            return true;
+        try {
+            int purged = _pool.write(pooled -> {
+                PreparedStatement statement = pooled.prepare(String.format("DELETE FROM %s_inbox WHERE CreatedAt<?;", _config.storageTablePrefix));
+                statement.setLong(1, getInboxCutoff());
+                return statement.executeUpdate();
+            });
+            if (purged > 0)
+                _logger.Debug(String.format("Removed %s expired inbox mentions.", purged));
+        } catch (Exception ex) {
+            _logger.Error(String.format("Unknown error happened while removing expired inbox mentions...\n%s", ex.getMessage()));
         }
+        return true;
+    }
+
+    /**
+     * Retrieves the time before which inbox mentions are expired.
+     *
+     * @return The cutoff in milliseconds since the epoch, 0 if mentions never expire.
+     */
+    private long getInboxCutoff() {
+        if (_config.inboxRetentionDays <= 0)
+            return 0;
+        return System.currentTimeMillis() - TimeUnit.DAYS.toMillis(_config.inboxRetentionDays);
+    }
+
+    /**
+     * Retrieves the schema migrations of the SQLite database.
+     * SQLite can roll back schema changes, so every migration runs in a single transaction.
+     *
+     * @return The migrations, in order.
+     */
+    private List<SchemaMigrator.Migration> getMigrations() {
+        String prefix = _config.storageTablePrefix;
+        return List.of(
+                new SchemaMigrator.Migration(1, "Create players and ignores tables", connection -> {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.executeUpdate(String.format("CREATE TABLE IF NOT EXISTS %s_players (" +
+                                        "PlayerId VARCHAR(36) PRIMARY KEY, " +
+                                        "Sound VARCHAR(200) NOT NULL, " +
+                                        "Display VARCHAR(32) NOT NULL, " +
+                                        "Preference VARCHAR(32) NOT NULL);",
+                                prefix
+                        ));
+
+                        statement.executeUpdate(String.format("CREATE TABLE IF NOT EXISTS %s_ignores (" +
+                                        "PlayerId VARCHAR(36) NOT NULL, " +
+                                        "IgnoredId VARCHAR(36) NOT NULL, " +
+                                        "PRIMARY KEY (PlayerId, IgnoredId));",
+                                prefix
+                        ));
+                    }
+                }),
+                new SchemaMigrator.Migration(2, "Store UUIDs as 16-byte binary and index IgnoredId", connection -> {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.executeUpdate(String.format("CREATE TABLE %s_players_new (" +
+                                        "PlayerId BLOB NOT NULL PRIMARY KEY, " +
+                                        "Sound VARCHAR(200) NOT NULL, " +
+                                        "Display VARCHAR(32) NOT NULL, " +
+                                        "Preference VARCHAR(32) NOT NULL) WITHOUT ROWID;",
+                                prefix
+                        ));
+                        statement.executeUpdate(String.format("CREATE TABLE %s_ignores_new (" +
+                                        "PlayerId BLOB NOT NULL, " +
+                                        "IgnoredId BLOB NOT NULL, " +
+                                        "PRIMARY KEY (PlayerId, IgnoredId)) WITHOUT ROWID;",
+                                prefix
+                        ));
+
+                        SchemaMigrator.copyPlayers(connection, prefix + "_players", prefix + "_players_new");
+                        SchemaMigrator.copyIgnores(connection, prefix + "_ignores", prefix + "_ignores_new");
+
+                        statement.executeUpdate(String.format("DROP TABLE %s_players;", prefix));
+                        statement.executeUpdate(String.format("DROP TABLE %s_ignores;", prefix));
+                        statement.executeUpdate(String.format("ALTER TABLE %s_players_new RENAME TO %s_players;", prefix, prefix));
+                        statement.executeUpdate(String.format("ALTER TABLE %s_ignores_new RENAME TO %s_ignores;", prefix, prefix));
+                        statement.executeUpdate(String.format("CREATE INDEX IF NOT EXISTS %s_ignores_ignored ON %s_ignores (IgnoredId);", prefix, prefix));
+                    }
+                }),
+                new SchemaMigrator.Migration(3, "Create the name directory", connection -> {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.executeUpdate(String.format("CREATE TABLE IF NOT EXISTS %s_names (" +
+                                        "Name VARCHAR(16) NOT NULL PRIMARY KEY, " +
+                                        "PlayerId BLOB NOT NULL) WITHOUT ROWID;",
+                                prefix
+                        ));
+                        statement.executeUpdate(String.format("CREATE INDEX IF NOT EXISTS %s_names_player ON %s_names (PlayerId);", prefix, prefix));
+                    }
+                }),
+                new SchemaMigrator.Migration(4, "Create the inbox of offline mentions", connection -> {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.executeUpdate(String.format("CREATE TABLE IF NOT EXISTS %s_inbox (" +
+                                        "Id INTEGER PRIMARY KEY, " +
+                                        "PlayerId BLOB NOT NULL, " +
+                                        "SenderId BLOB NOT NULL, " +
+                                        "SenderName VARCHAR(16) NOT NULL, " +
+                                        "CreatedAt BIGINT NOT NULL);",
+                                prefix
+                        ));
+                        statement.executeUpdate(String.format("CREATE INDEX IF NOT EXISTS %s_inbox_player ON %s_inbox (PlayerId);", prefix, prefix));
+                        statement.executeUpdate(String.format("CREATE INDEX IF NOT EXISTS %s_inbox_created ON %s_inbox (CreatedAt);", prefix, prefix));
+                    }
+                })
+        );
+    }
+
+    /**
+     * Pins the cached data of a player who is online, so it is not evicted while they play.
+     *
+     * @param playerId The UUID of the player.
+     */
+    @Override
+    public void pinPlayer(UUID playerId) {
+        _playerCache.pin(playerId);
+        _ignoreIndex.pin(playerId);
+    }
+
+    /**
+     * Releases the cached data of a player who left into the size-bounded offline tier.
+     *
+     * @param playerId The UUID of the player.
+     */
+    @Override
+    public void releasePlayer(UUID playerId) {
+        _playerCache.release(playerId);
+        _ignoreIndex.release(playerId);
+    }
+
+    /**
+     * Retrieves the statistics of the player data caches.
+     *
+     * @return The statistics of every cache.
+     */
+    @Override
+    public List<CacheStatistics> getCacheStatistics() {
+        return List.of(_playerCache.getStatistics(), _ignoreIndex.getStatistics());
     }
 
     /**
@@ -112,17 +272,15 @@ public class SqlLiteManager implements IDatabase {
      */
     @Override
     public void addData(UUID playerId, String soundKey, EMentionDisplay display, EMentionPreference preference) {
-        try (Connection connection = CreateConnection()) {
-            String sql = String.format("INSERT INTO %s_players (PlayerId, Sound, Display, Preference) " +
-                            "VALUES (?, ?, ?, ?);",
-                    _config.storageTablePrefix);
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, playerId.toString());
+        try {
+            _pool.write(pooled -> {
+                PreparedStatement statement = pooled.prepare(_insertPlayerSql);
+                statement.setBytes(1, UuidUtils.toBytes(playerId));
                 statement.setString(2, soundKey);
                 statement.setString(3, display.name());
                 statement.setString(4, preference.name());
-                statement.executeUpdate();
-            }
+                return statement.executeUpdate();
+            });
 
             PlayerDatabaseData data = new PlayerDatabaseData(playerId, soundKey, display, preference);
             _playerCache.put(playerId, data);
@@ -132,94 +290,65 @@ public class SqlLiteManager implements IDatabase {
     }
 
     /**
-     * Updates the sound key for a specific player in the database.
+     * Updates the sound key for a specific player.
+     * The cached data is updated right away, the database is updated by the next write-behind flush.
      *
      * @param playerId The UUID of the player.
      * @param soundKey The new sound key to associate with the player.
      */
     @Override
     public void updateSound(UUID playerId, String soundKey) {
-        try (Connection connection = CreateConnection()) {
-            String sql = String.format("UPDATE %s_players SET Sound=? WHERE PlayerId=?;",
-                    _config.storageTablePrefix);
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, soundKey);
-                statement.setString(2, playerId.toString());
-                statement.executeUpdate();
-            }
+        var dataOpt = getData(playerId);
+        if (dataOpt.isEmpty())
+            return;
 
-            if (_playerCache.getIfPresent(playerId) != null) {
-                PlayerDatabaseData data = _playerCache.getIfPresent(playerId);
-                if (data == null)
-                    return;
-                data.soundName = soundKey;
-                _playerCache.put(playerId, data);
-            }
-        } catch (Exception ex) {
-            _logger.Error(String.format("Unknown error happened while updating player data...\n%s", ex.getMessage()));
-        }
+        PlayerDatabaseData data = dataOpt.get();
+        data.setSound(soundKey);
+        _playerCache.put(playerId, data);
+        _writeBehind.enqueue(data);
     }
 
     /**
-     * Updates the display preference for a specific player in the database.
+     * Updates the display preference for a specific player.
+     * The cached data is updated right away, the database is updated by the next write-behind flush.
      *
      * @param playerId The UUID of the player.
      * @param display  The new display preference to associate with the player.
      */
     @Override
     public void updateDisplay(UUID playerId, EMentionDisplay display) {
-        try (Connection connection = CreateConnection()) {
-            String sql = String.format("UPDATE %s_players SET Display=? WHERE PlayerId=?;",
-                    _config.storageTablePrefix);
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, display.name());
-                statement.setString(2, playerId.toString());
-                statement.executeUpdate();
-            }
+        var dataOpt = getData(playerId);
+        if (dataOpt.isEmpty())
+            return;
 
-            if (_playerCache.getIfPresent(playerId) != null) {
-                PlayerDatabaseData data = _playerCache.getIfPresent(playerId);
-                if (data == null)
-                    return;
-                data.display = display;
-                _playerCache.put(playerId, data);
-            }
-        } catch (Exception ex) {
-            _logger.Error(String.format("Unknown error happened while updating player data...\n%s", ex.getMessage()));
-        }
+        PlayerDatabaseData data = dataOpt.get();
+        data.setDisplay(display);
+        _playerCache.put(playerId, data);
+        _writeBehind.enqueue(data);
     }
 
     /**
-     * Updates the mention preference for a specific player in the database.
+     * Updates the mention preference for a specific player.
+     * The cached data is updated right away, the database is updated by the next write-behind flush.
      *
      * @param playerId   The UUID of the player.
      * @param preference The new mention preference to associate with the player.
      */
     @Override
     public void updatePreference(UUID playerId, EMentionPreference preference) {
-        try (Connection connection = CreateConnection()) {
-            String sql = String.format("UPDATE %s_players SET Preference=? WHERE PlayerId=?;",
-                    _config.storageTablePrefix);
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, preference.name());
-                statement.setString(2, playerId.toString());
-                statement.executeUpdate();
-            }
+        var dataOpt = getData(playerId);
+        if (dataOpt.isEmpty())
+            return;
 
-            if (_playerCache.getIfPresent(playerId) != null) {
-                PlayerDatabaseData data = _playerCache.getIfPresent(playerId);
-                if (data == null)
-                    return;
-                data.preference = preference;
-                _playerCache.put(playerId, data);
-            }
-        } catch (Exception ex) {
-            _logger.Error(String.format("Unknown error happened while updating player data...\n%s", ex.getMessage()));
-        }
+        PlayerDatabaseData data = dataOpt.get();
+        data.setPreference(preference);
+        _playerCache.put(playerId, data);
+        _writeBehind.enqueue(data);
     }
 
     /**
-     * Updates all data for a specific player in the database.
+     * Updates all data for a specific player.
+     * The cached data is updated right away, the database is updated by the next write-behind flush.
      *
      * @param playerId   The UUID of the player.
      * @param soundKey   The new sound key to associate with the player.
@@ -228,29 +357,89 @@ public class SqlLiteManager implements IDatabase {
      */
     @Override
     public void updateData(UUID playerId, String soundKey, EMentionDisplay display, EMentionPreference preference) {
-        try (Connection connection = CreateConnection()) {
-            String sql = String.format("UPDATE %s_players SET Sound=?, Display=?, Preference=? WHERE PlayerId=?;",
-                    _config.storageTablePrefix);
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, soundKey);
-                statement.setString(2, display.name());
-                statement.setString(3, preference.name());
-                statement.setString(4, playerId.toString());
-                statement.executeUpdate();
+        var dataOpt = getData(playerId);
+        if (dataOpt.isEmpty())
+            return;
+
+        PlayerDatabaseData data = dataOpt.get();
+        data.update(soundKey, display, preference);
+        _playerCache.put(playerId, data);
+        _writeBehind.enqueue(data);
+    }
+
+    /**
+     * Writes every pending player data change to the database.
+     */
+    @Override
+    public void flush() {
+        if (_writeBehind != null)
+            _writeBehind.flush();
+        if (_inbox != null)
+            _inbox.flush();
+    }
+
+    /**
+     * Writes a batch of player data changes to the database in a single transaction.
+     *
+     * @param batch The changed player data to write.
+     * @throws SQLException If the batch could not be written.
+     */
+    private void writeBatch(List<PlayerDatabaseData> batch) throws SQLException {
+        _pool.write(pooled -> {
+            Connection connection = pooled.getConnection();
+            connection.setAutoCommit(false);
+            try {
+                PreparedStatement statement = pooled.prepare(_updatePlayerSql);
+                for (PlayerDatabaseData data : batch) {
+                    statement.setString(1, data.soundName);
+                    statement.setString(2, data.display.name());
+                    statement.setString(3, data.preference.name());
+                    statement.setBytes(4, UuidUtils.toBytes(data.playerId));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(true);
             }
+            return null;
+        });
+    }
 
-            if (_playerCache.getIfPresent(playerId) != null) {
-                PlayerDatabaseData data = _playerCache.getIfPresent(playerId);
-                if (data == null)
-                    return;
-                data.preference = preference;
-                data.display = display;
-                data.soundName = soundKey;
-                _playerCache.put(playerId, data);
+    /**
+     * Writes a batch of inbox mentions in a single transaction, then trims the inbox of every
+     * mentioned player to the configured cap, dropping their oldest mentions.
+     *
+     * @param batch The mentions to write, keyed by the player they were sent to.
+     * @throws SQLException If the batch could not be written.
+     */
+    private void writeInbox(Map<UUID, List<InboxMention>> batch) throws SQLException {
+        _pool.write(pooled -> {
+            Connection connection = pooled.getConnection();
+            connection.setAutoCommit(false);
+            try {
+                InboxBuffer.insertRows(connection, _config.storageTablePrefix + "_inbox", batch);
+                PreparedStatement statement = pooled.prepare(_trimInboxSql);
+                for (UUID playerId : batch.keySet()) {
+                    byte[] id = UuidUtils.toBytes(playerId);
+                    statement.setBytes(1, id);
+                    statement.setBytes(2, id);
+                    statement.setInt(3, _config.inboxMaxPerPlayer);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(true);
             }
-        } catch (Exception ex) {
-            _logger.Error(String.format("Unknown error happened while updating player data...\n%s", ex.getMessage()));
-        }
+            return null;
+        });
     }
 
     /**
@@ -260,14 +449,14 @@ public class SqlLiteManager implements IDatabase {
      */
     @Override
     public void removeData(UUID playerId) {
-        try (Connection connection = CreateConnection()) {
-            String sql = String.format("DELETE FROM %s_players WHERE PlayerId=?;",
-                    _config.storageTablePrefix);
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, playerId.toString());
-                statement.executeUpdate();
-            }
+        try {
+            _pool.write(pooled -> {
+                PreparedStatement statement = pooled.prepare(_deletePlayerSql);
+                statement.setBytes(1, UuidUtils.toBytes(playerId));
+                return statement.executeUpdate();
+            });
 
+            _writeBehind.discard(playerId);
             if (_playerCache.getIfPresent(playerId) != null) {
                 _playerCache.invalidate(playerId);
             }
@@ -276,6 +465,17 @@ public class SqlLiteManager implements IDatabase {
         }
     }
 
+    /**
+     * Retrieves the cached data of a player, without touching the database.
+     *
+     * @param playerId The UUID of the player.
+     * @return The cached data, or null if it has to be loaded from the database.
+     */
+    @Override
+    public PlayerDatabaseData getCachedData(UUID playerId) {
+        return _playerCache.getIfPresent(playerId);
+    }
+
     /**
      * Retrieves a specific player's data from the database.
      *
@@ -289,22 +489,29 @@ public class SqlLiteManager implements IDatabase {
             return Optional.of(data);
         }
 
-        try (Connection connection = CreateConnection()) {
-            String sql = String.format("SELECT * FROM %s_players WHERE PlayerId=?;",
-                    _config.storageTablePrefix);
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, playerId.toString());
+        // Changes waiting for the next flush are newer than the stored row.
+        data = _writeBehind.getPending(playerId);
+        if (data != null) {
+            _playerCache.put(playerId, data);
+            return Optional.of(data);
+        }
+
+        try {
+            data = _pool.read(pooled -> {
+                PreparedStatement statement = pooled.prepare(_selectPlayerSql);
+                statement.setBytes(1, UuidUtils.toBytes(playerId));
                 try (ResultSet result = statement.executeQuery()) {
-                    if (result.next()) {
-                        data = new PlayerDatabaseData(
-                                UUID.fromString(result.getString("PlayerId")),
-                                result.getString("Sound"),
-                                EMentionDisplay.valueOf(result.getString("Display")),
-                                EMentionPreference.valueOf(result.getString("Preference"))
-                        );
-                    }
+                    if (!result.next())
+                        return null;
+
+                    return new PlayerDatabaseData(
+                            UuidUtils.fromBytes(result.getBytes("PlayerId")),
+                            result.getString("Sound"),
+                            EMentionDisplay.valueOf(result.getString("Display")),
+                            EMentionPreference.valueOf(result.getString("Preference"))
+                    );
                 }
-            }
+            });
         } catch (Exception ex) {
             _logger.Error(String.format("Unknown error happened while finding player data...\n%s", ex.getMessage()));
             return Optional.empty();
@@ -316,6 +523,134 @@ public class SqlLiteManager implements IDatabase {
         return Optional.ofNullable(data);
     }
 
+    /**
+     * Records the current name of a player in the name directory.
+     * Names the player used before are removed in the same transaction, and so is the
+     * entry of another player who had this name before.
+     *
+     * @param playerId The UUID of the player.
+     * @param name The current name of the player.
+     */
+    @Override
+    public void updatePlayerName(UUID playerId, String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        try {
+            _pool.write(pooled -> {
+                Connection connection = pooled.getConnection();
+                connection.setAutoCommit(false);
+                try {
+                    PreparedStatement delete = pooled.prepare(_deleteNamesSql);
+                    delete.setBytes(1, UuidUtils.toBytes(playerId));
+                    delete.setString(2, key);
+                    delete.executeUpdate();
+
+                    PreparedStatement replace = pooled.prepare(_replaceNameSql);
+                    replace.setString(1, key);
+                    replace.setBytes(2, UuidUtils.toBytes(playerId));
+                    replace.executeUpdate();
+                    connection.commit();
+                } catch (SQLException ex) {
+                    connection.rollback();
+                    throw ex;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+                return null;
+            });
+        } catch (Exception ex) {
+            _logger.Error(String.format("Unknown error happened while updating the name directory...\n%s", ex.getMessage()));
+        }
+    }
+
+    /**
+     * Finds the UUID of a player by their last known name in the name directory.
+     *
+     * @param name The name of the player, in any case.
+     * @return The UUID of the player, or an empty Optional if the name is not known.
+     * @throws IllegalStateException If the name directory could not be read.
+     */
+    @Override
+    public Optional<UUID> findPlayerId(String name) {
+        try {
+            return Optional.ofNullable(_pool.read(pooled -> {
+                PreparedStatement statement = pooled.prepare(_selectNameSql);
+                statement.setString(1, name.toLowerCase(Locale.ROOT));
+                try (ResultSet result = statement.executeQuery()) {
+                    return result.next() ? UuidUtils.fromBytes(result.getBytes("PlayerId")) : null;
+                }
+            }));
+        } catch (Exception ex) {
+            // An unknown name and a failed lookup must not look the same to the caller.
+            throw new IllegalStateException("Failed to find a player by name: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Queues a mention of an offline player, it is written with the next flush.
+     *
+     * @param playerId The UUID of the mentioned player.
+     * @param mention The mention to store.
+     */
+    @Override
+    public void addInboxMention(UUID playerId, InboxMention mention) {
+        _inbox.add(playerId, mention);
+    }
+
+    /**
+     * Retrieves the unexpired inbox mentions of a player, oldest first.
+     * The pending mentions are written first, so none of them is missed.
+     *
+     * @param playerId The UUID of the player.
+     * @return The mentions in the inbox of the player.
+     */
+    @Override
+    public List<InboxMention> getInbox(UUID playerId) {
+        _inbox.flush();
+        try {
+            return _pool.read(pooled -> {
+                PreparedStatement statement = pooled.prepare(_selectInboxSql);
+                statement.setBytes(1, UuidUtils.toBytes(playerId));
+                statement.setLong(2, getInboxCutoff());
+                statement.setInt(3, _config.inboxMaxPerPlayer);
+                List<InboxMention> mentions = new ArrayList<>();
+                try (ResultSet result = statement.executeQuery()) {
+                    while (result.next()) {
+                        mentions.add(new InboxMention(
+                                result.getLong("Id"),
+                                UuidUtils.fromBytes(result.getBytes("SenderId")),
+                                result.getString("SenderName"),
+                                result.getLong("CreatedAt")
+                        ));
+                    }
+                }
+                return mentions;
+            });
+        } catch (Exception ex) {
+            _logger.Error(String.format("Unknown error happened while loading the inbox...\n%s", ex.getMessage()));
+            return List.of();
+        }
+    }
+
+    /**
+     * Removes the delivered mentions from the inbox of a player.
+     *
+     * @param playerId The UUID of the player.
+     * @param lastId The identifier of the newest delivered mention.
+     */
+    @Override
+    public void clearInbox(UUID playerId, long lastId) {
+        try {
+            _pool.write(pooled -> {
+                PreparedStatement statement = pooled.prepare(_clearInboxSql);
+                statement.setBytes(1, UuidUtils.toBytes(playerId));
+                statement.setLong(2, lastId);
+                return statement.executeUpdate();
+            });
+        } catch (Exception ex) {
+            _logger.Error(String.format("Unknown error happened while clearing the inbox...\n%s", ex.getMessage()));
+        }
+    }
+
     /**
      * Adds a player to the ignored list of another player in the database.
      *
@@ -324,22 +659,13 @@ public class SqlLiteManager implements IDatabase {
      */
     @Override
     public void addIgnoredPlayer(UUID playerId, UUID ignoredPlayerId) {
-        try (Connection connection = CreateConnection()) {
-            String sql = String.format("INSERT INTO %s_ignores (PlayerId, IgnoredId) " +
-                            "VALUES (?, ?);",
-                    _config.storageTablePrefix);
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, playerId.toString());
-                statement.setString(2, ignoredPlayerId.toString());
-                statement.executeUpdate();
-            }
-
-            Set<UUID> ignoredSet = _ignoredPlayerCache.getIfPresent(playerId);
-            if (ignoredSet != null) {
-                ignoredSet.add(ignoredPlayerId);
-            } else {
-                _ignoredPlayerCache.put(playerId, Set.of(ignoredPlayerId));
-            }
+        try {
+            _ignoreIndex.add(playerId, ignoredPlayerId, () -> _pool.write(pooled -> {
+                PreparedStatement statement = pooled.prepare(_insertIgnoreSql);
+                statement.setBytes(1, UuidUtils.toBytes(playerId));
+                statement.setBytes(2, UuidUtils.toBytes(ignoredPlayerId));
+                return statement.executeUpdate();
+            }));
         } catch (Exception ex) {
             _logger.Error(String.format("Unknown error happened while adding ignore data...\n%s", ex.getMessage()));
         }
@@ -353,56 +679,86 @@ public class SqlLiteManager implements IDatabase {
      */
     @Override
     public void removeIgnoredPlayer(UUID playerId, UUID ignoredPlayerId) {
-        try (Connection connection = CreateConnection()) {
-            String sql = String.format("DELETE FROM %s_ignores WHERE PlayerId=? AND IgnoredId=?;",
-                    _config.storageTablePrefix);
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, playerId.toString());
-                statement.setString(2, ignoredPlayerId.toString());
-                statement.executeUpdate();
-            }
-
-            Set<UUID> ignoredSet = _ignoredPlayerCache.getIfPresent(playerId);
-            if (ignoredSet != null) {
-                ignoredSet.remove(ignoredPlayerId);
-            }
+        try {
+            _ignoreIndex.remove(playerId, ignoredPlayerId, () -> _pool.write(pooled -> {
+                PreparedStatement statement = pooled.prepare(_deleteIgnoreSql);
+                statement.setBytes(1, UuidUtils.toBytes(playerId));
+                statement.setBytes(2, UuidUtils.toBytes(ignoredPlayerId));
+                return statement.executeUpdate();
+            }));
         } catch (Exception ex) {
             _logger.Error(String.format("Unknown error happened during the deletion of ignore tables...\n%s", ex.getMessage()));
         }
     }
 
     /**
-     * Checks if a player is ignored by another player.
+     * Retrieves the cached ignored players of a player, without touching the database.
      *
-     * @param playerId        The UUID of the player who may be ignoring another player.
-     * @param ignoredPlayerId The UUID of the player who may be ignored.
-     * @return True if the ignoredPlayerId is in the ignored list of playerId, false otherwise.
+     * @param playerId The UUID of the player who is ignoring.
+     * @return The UUIDs of the ignored players, or null if they have to be loaded from the database.
      */
     @Override
-    public boolean isPlayerIgnored(UUID playerId, UUID ignoredPlayerId) {
-        var data = _ignoredPlayerCache.getIfPresent(playerId);
-        if (data != null) {
-            return data.contains(ignoredPlayerId);
-        }
+    public Set<UUID> getCachedIgnoredPlayers(UUID playerId) {
+        return _ignoreIndex.getIfPresent(playerId);
+    }
 
-        data = new HashSet<>();
-        try (Connection connection = CreateConnection()) {
-            String sql = String.format("SELECT * FROM %s_ignores WHERE PlayerId=?;",
-                    _config.storageTablePrefix);
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, playerId.toString());
-                try (ResultSet result = statement.executeQuery()) {
-                    if (result.next()) {
-                        data.add(UUID.fromString(result.getString("IgnoredId")));
-                    }
-                }
-            }
+    /**
+     * Retrieves every player ignored by a specific player, loading them all in one query on a cache miss.
+     *
+     * @param playerId The UUID of the player who is ignoring.
+     * @return The UUIDs of the ignored players.
+     */
+    @Override
+    public Set<UUID> getIgnoredPlayers(UUID playerId) {
+        try {
+            return _ignoreIndex.get(playerId, this::loadIgnoredPlayers);
         } catch (Exception ex) {
             _logger.Error(String.format("Unknown error happened while finding ignore data...\n%s", ex.getMessage()));
-            return false;
+            return Set.of();
         }
+    }
+
+    /**
+     * Streams every ignored player of a specific player from the database in one query.
+     *
+     * @param playerId The UUID of the player who is ignoring.
+     * @return The UUIDs of the ignored players.
+     * @throws SQLException If the query fails.
+     */
+    private List<UUID> loadIgnoredPlayers(UUID playerId) throws SQLException {
+        return _pool.read(pooled -> {
+            PreparedStatement statement = pooled.prepare(_selectIgnoresSql);
+            statement.setBytes(1, UuidUtils.toBytes(playerId));
+            List<UUID> data = new ArrayList<>();
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    data.add(UuidUtils.fromBytes(result.getBytes("IgnoredId")));
+                }
+            }
+            return data;
+        });
+    }
 
-        _ignoredPlayerCache.put(playerId, data);
-        return data.contains(ignoredPlayerId);
+    /**
+     * Retrieves the online players who ignore a specific player from the reverse ignore index.
+     *
+     * @param playerId The UUID of the player who may be ignored.
+     * @return The UUIDs of the online players ignoring the player.
+     */
+    @Override
+    public Set<UUID> getIgnoredBy(UUID playerId) {
+        return _ignoreIndex.getIgnoredBy(playerId);
+    }
+
+    /**
+     * Checks if a player is ignored by another player.
+     *
+     * @param playerId        The UUID of the player who may be ignoring another player.
+     * @param ignoredPlayerId The UUID of the player who may be ignored.
+     * @return True if the ignoredPlayerId is in the ignored list of playerId, false otherwise.
+     */
+    @Override
+    public boolean isPlayerIgnored(UUID playerId, UUID ignoredPlayerId) {
+        return getIgnoredPlayers(playerId).contains(ignoredPlayerId);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,230 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import io.github.tavstaldev.minecorelib.core.PluginLogger;
+import io.github.tavstaldev.openMentions.OpenMentions;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Small pool of long-lived SQLite connections: a single writer and a fixed number of readers.
+ * Connections run in WAL mode so readers never block the writer, and every connection keeps
+ * its prepared statements cached per SQL string.
+ */
+public class SqliteConnectionPool {
+    /** Logger instance for logging messages related to SqliteConnectionPool. */
+    private static final PluginLogger _logger = OpenMentions.Logger().WithModule(SqliteConnectionPool.class);
+
+    /** Size of the memory-mapped I/O region, in bytes. */
+    private static final long MMAP_SIZE = 256L * 1024 * 1024;
+
+    /** Size of the page cache, in KiB. Negative values are interpreted by SQLite as KiB. */
+    private static final int CACHE_SIZE_KIB = 16 * 1024;
+
+    /** Time to wait for a lock held by another process, in milliseconds. */
+    private static final int BUSY_TIMEOUT = 5000;
+
+    private final PooledConnection _writer;
+    private final ReentrantLock _writerLock = new ReentrantLock();
+    private final BlockingQueue<PooledConnection> _readers;
+    private final List<PooledConnection> _allReaders = new ArrayList<>();
+
+    /**
+     * Operation executed with a pooled connection.
+     *
+     * @param <T> The type of the result.
+     */
+    @FunctionalInterface
+    public interface SqlFunction<T> {
+        /**
+         * Executes the operation.
+         *
+         * @param connection The pooled connection to use.
+         * @return The result of the operation.
+         * @throws SQLException If a database error occurs.
+         */
+        T apply(PooledConnection connection) throws SQLException;
+    }
+
+    /**
+     * A long-lived connection with its own prepared statement cache.
+     * Only one thread uses a pooled connection at a time.
+     */
+    public static class PooledConnection {
+        private final Connection _connection;
+        private final Map<String, PreparedStatement> _statements = new HashMap<>();
+
+        private PooledConnection(Connection connection) {
+            _connection = connection;
+        }
+
+        /**
+         * Retrieves the underlying JDBC connection.
+         *
+         * @return The JDBC connection.
+         */
+        public Connection getConnection() {
+            return _connection;
+        }
+
+        /**
+         * Retrieves the cached prepared statement of the given SQL, preparing it on first use.
+         * The returned statement must not be closed by the caller.
+         *
+         * @param sql The SQL of the statement.
+         * @return The prepared statement with its parameters cleared.
+         * @throws SQLException If the statement cannot be prepared.
+         */
+        public PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement statement = _statements.get(sql);
+            if (statement == null || statement.isClosed()) {
+                statement = _connection.prepareStatement(sql);
+                _statements.put(sql, statement);
+            } else {
+                statement.clearParameters();
+                statement.clearBatch();
+            }
+            return statement;
+        }
+
+        private void close() {
+            for (PreparedStatement statement : _statements.values()) {
+                try {
+                    statement.close();
+                } catch (SQLException ignored) {
+                    // The connection is closed next anyway.
+                }
+            }
+            _statements.clear();
+            try {
+                _connection.close();
+            } catch (SQLException ex) {
+                _logger.Warn("Failed to close SQLite connection: " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Opens the connections of the pool.
+     *
+     * @param path The path of the database file.
+     * @param readerCount The number of read-only connections to open.
+     * @throws SQLException If a connection cannot be opened.
+     */
+    public SqliteConnectionPool(String path, int readerCount) throws SQLException {
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException ex) {
+            throw new SQLException("SQLite JDBC driver not found.", ex);
+        }
+
+        String url = "jdbc:sqlite:" + path;
+        _writer = new PooledConnection(open(url, false));
+        int readers = Math.max(1, readerCount);
+        _readers = new ArrayBlockingQueue<>(readers);
+        for (int i = 0; i < readers; i++) {
+            PooledConnection reader = new PooledConnection(open(url, true));
+            _allReaders.add(reader);
+            _readers.add(reader);
+        }
+    }
+
+    /**
+     * Opens and tunes a single connection.
+     *
+     * @param url The JDBC url of the database.
+     * @param readOnly Whether the connection is only used for reading.
+     * @return The opened connection.
+     * @throws SQLException If the connection cannot be opened.
+     */
+    private static Connection open(String url, boolean readOnly) throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA busy_timeout=" + BUSY_TIMEOUT + ";");
+            if (!readOnly)
+                statement.execute("PRAGMA journal_mode=WAL;");
+            statement.execute("PRAGMA synchronous=NORMAL;");
+            statement.execute("PRAGMA mmap_size=" + MMAP_SIZE + ";");
+            statement.execute("PRAGMA cache_size=-" + CACHE_SIZE_KIB + ";");
+            statement.execute("PRAGMA temp_store=MEMORY;");
+            if (readOnly)
+                statement.execute("PRAGMA query_only=ON;");
+        }
+        return connection;
+    }
+
+    /**
+     * Retrieves the number of connections that can be used at the same time.
+     *
+     * @return The number of readers plus the writer.
+     */
+    public int size() {
+        return _allReaders.size() + 1;
+    }
+
+    /**
+     * Executes a read-only operation on one of the reader connections.
+     *
+     * @param function The operation to execute.
+     * @return The result of the operation.
+     * @throws SQLException If a database error occurs.
+     */
+    public <T> T read(SqlFunction<T> function) throws SQLException {
+        PooledConnection connection;
+        try {
+            connection = _readers.take();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a SQLite reader connection.", ex);
+        }
+
+        try {
+            return function.apply(connection);
+        } finally {
+            _readers.add(connection);
+        }
+    }
+
+    /**
+     * Executes an operation on the writer connection.
+     *
+     * @param function The operation to execute.
+     * @return The result of the operation.
+     * @throws SQLException If a database error occurs.
+     */
+    public <T> T write(SqlFunction<T> function) throws SQLException {
+        _writerLock.lock();
+        try {
+            return function.apply(_writer);
+        } finally {
+            _writerLock.unlock();
+        }
+    }
+
+    /**
+     * Closes every connection of the pool.
+     */
+    public void close() {
+        _writerLock.lock();
+        try {
+            _writer.close();
+        } finally {
+            _writerLock.unlock();
+        }
+        for (PooledConnection reader : _allReaders) {
+            reader.close();
+        }
+        _allReaders.clear();
+        _readers.clear();
+    }
+}
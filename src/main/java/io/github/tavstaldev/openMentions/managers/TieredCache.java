@@ -0,0 +1,198 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.tavstaldev.openMentions.models.CacheStatistics;
+import io.github.tavstaldev.openMentions.models.IOfflineStore;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two-tier cache for player data.
+ * Entries of online players are pinned and never evicted, while entries of offline players
+ * live in a size-bounded offline store, by default a Caffeine cache with W-TinyLFU eviction.
+ *
+ * @param <V> The type of the cached values.
+ */
+public class TieredCache<V> {
+    private final String _name;
+    private final Set<UUID> _pinnedKeys = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, V> _pinned = new ConcurrentHashMap<>();
+
+    /** Guards moving entries between the tiers, so a put cannot land in the tier a player just left. */
+    private final Object _tierLock = new Object();
+    private final IOfflineStore<V> _offline;
+    private final LongAdder _hits = new LongAdder();
+    private final LongAdder _misses = new LongAdder();
+
+    /**
+     * Offline store backed by a Caffeine cache.
+     *
+     * @param <V> The type of the stored values.
+     */
+    private static final class CaffeineStore<V> implements IOfflineStore<V> {
+        private final Cache<@NotNull UUID, V> _cache;
+
+        CaffeineStore(int maxSize, int expireAfterAccess) {
+            var builder = Caffeine.newBuilder()
+                    .maximumSize(Math.max(0, maxSize))
+                    .recordStats();
+            if (expireAfterAccess > 0)
+                builder.expireAfterAccess(expireAfterAccess, TimeUnit.MINUTES);
+            _cache = builder.build();
+        }
+
+        @Override
+        public V getIfPresent(UUID key) {
+            return _cache.getIfPresent(key);
+        }
+
+        @Override
+        public void put(UUID key, V value) {
+            _cache.put(key, value);
+        }
+
+        @Override
+        public V remove(UUID key) {
+            return _cache.asMap().remove(key);
+        }
+
+        @Override
+        public long size() {
+            return _cache.estimatedSize();
+        }
+
+        @Override
+        public long evictions() {
+            return _cache.stats().evictionCount();
+        }
+    }
+
+    /**
+     * Creates a new tiered cache keeping offline entries in a Caffeine cache.
+     *
+     * @param name The name of the cache, used in statistics.
+     * @param offlineSize The maximum number of entries in the offline tier.
+     * @param expireAfterAccess The number of minutes after which unused offline entries expire.
+     */
+    public TieredCache(String name, int offlineSize, int expireAfterAccess) {
+        this(name, new CaffeineStore<>(offlineSize, expireAfterAccess));
+    }
+
+    /**
+     * Creates a new tiered cache keeping offline entries in the given store.
+     *
+     * @param name The name of the cache, used in statistics.
+     * @param offline The store of the offline tier.
+     */
+    protected TieredCache(String name, IOfflineStore<V> offline) {
+        _name = name;
+        _offline = offline;
+    }
+
+    /**
+     * Retrieves a cached value.
+     *
+     * @param key The UUID of the player.
+     * @return The cached value, or null if it is not cached.
+     */
+    public V getIfPresent(UUID key) {
+        V value = _pinned.get(key);
+        if (value == null)
+            value = _offline.getIfPresent(key);
+
+        if (value == null)
+            _misses.increment();
+        else
+            _hits.increment();
+        return value;
+    }
+
+    /**
+     * Caches a value in the tier matching the online state of the player.
+     *
+     * @param key The UUID of the player.
+     * @param value The value to cache.
+     */
+    public void put(UUID key, V value) {
+        synchronized (_tierLock) {
+            if (_pinnedKeys.contains(key)) {
+                _pinned.put(key, value);
+            } else {
+                _offline.put(key, value);
+            }
+        }
+    }
+
+    /**
+     * Removes a value from both tiers.
+     *
+     * @param key The UUID of the player.
+     */
+    public void invalidate(UUID key) {
+        synchronized (_tierLock) {
+            _pinned.remove(key);
+            _offline.remove(key);
+        }
+    }
+
+    /**
+     * Checks if the entry of a player is pinned.
+     *
+     * @param key The UUID of the player.
+     * @return True if the player is pinned, false otherwise.
+     */
+    public boolean isPinned(UUID key) {
+        return _pinnedKeys.contains(key);
+    }
+
+    /**
+     * Pins the entry of a player who is online, moving it out of the offline tier.
+     *
+     * @param key The UUID of the player.
+     */
+    public void pin(UUID key) {
+        synchronized (_tierLock) {
+            if (!_pinnedKeys.add(key))
+                return;
+
+            V value = _offline.remove(key);
+            if (value != null)
+                _pinned.putIfAbsent(key, value);
+        }
+    }
+
+    /**
+     * Releases the entry of a player who left, moving it to the offline tier.
+     *
+     * @param key The UUID of the player.
+     */
+    public void release(UUID key) {
+        synchronized (_tierLock) {
+            if (!_pinnedKeys.remove(key))
+                return;
+
+            V value = _pinned.remove(key);
+            if (value != null)
+                _offline.put(key, value);
+        }
+    }
+
+    /**
+     * Takes a snapshot of the statistics of the cache.
+     *
+     * @return The statistics of the cache.
+     */
+    public CacheStatistics getStatistics() {
+        long hits = _hits.sum();
+        long requests = hits + _misses.sum();
+        double hitRate = requests == 0 ? 1.0 : (double) hits / requests;
+        return new CacheStatistics(_name, _pinned.size(), _offline.size(), hitRate, _offline.evictions());
+    }
+}
@@ -0,0 +1,226 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import io.github.tavstaldev.openMentions.OpenMentions;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hierarchical timing wheel for short-lived deadlines, advanced once per server tick.
+ * Timeouts can be scheduled and cancelled from any thread; the requests are queued and applied
+ * by the ticking thread, which also runs the expired tasks. Scheduling, cancelling and expiring
+ * a timeout are O(1), and the wheel only holds the timeouts that are still pending.
+ */
+public class TimingWheel {
+    /** Length of a server tick, in nanoseconds. */
+    public static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    /** Number of bits of the slot index of a level. */
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    /** Number of levels. Four levels of 64 slots cover about ten days of ticks. */
+    private static final int LEVELS = 4;
+
+    private final Timeout[][] _wheel = new Timeout[LEVELS][SLOTS];
+    private final Queue<Timeout> _registrations = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> _cancellations = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger _pending = new AtomicInteger();
+    private long _currentTick;
+
+    /**
+     * A scheduled task. The handle can be used to cancel the task before it runs.
+     */
+    public final class Timeout {
+        private final long _delayTicks;
+        private final Runnable _task;
+        private volatile boolean _cancelled;
+        private long _deadline;
+        private Timeout _prev, _next;
+        private int _level = -1, _slot;
+
+        private Timeout(long delayTicks, Runnable task) {
+            _delayTicks = delayTicks;
+            _task = task;
+        }
+
+        /**
+         * Cancels the task. Has no effect if the task has already run.
+         */
+        public void cancel() {
+            if (_cancelled)
+                return;
+            _cancelled = true;
+            _cancellations.add(this);
+        }
+
+        /**
+         * Checks if the task was cancelled.
+         *
+         * @return True if the task was cancelled.
+         */
+        public boolean isCancelled() {
+            return _cancelled;
+        }
+    }
+
+    /**
+     * Schedules a task to run on the ticking thread once the delay has passed.
+     * The delay is rounded up to whole ticks, with a minimum of one tick. Can be called from any thread.
+     *
+     * @param delay The delay before the task runs.
+     * @param unit The unit of the delay.
+     * @param task The task to run.
+     * @return The handle of the scheduled task.
+     */
+    public Timeout schedule(long delay, TimeUnit unit, Runnable task) {
+        long nanos = unit.toNanos(Math.max(0, delay));
+        long ticks = Math.max(1, (nanos + TICK_NANOS - 1) / TICK_NANOS);
+        Timeout timeout = new Timeout(ticks, task);
+        _pending.incrementAndGet();
+        _registrations.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Retrieves the number of timeouts waiting to run.
+     *
+     * @return The number of pending timeouts.
+     */
+    public int size() {
+        return _pending.get();
+    }
+
+    /**
+     * Advances the wheel by one tick and runs the tasks that expired.
+     * Must always be called from the same thread.
+     */
+    public void tick() {
+        drainQueues();
+        _currentTick++;
+
+        // Entries of the higher levels move down once the lower level wrapped around to their slot.
+        // The highest level goes first, so its entries can still land in the lower slots cascaded now.
+        int wrapped = 0;
+        while (wrapped < LEVELS - 1 && (_currentTick & ((1L << ((wrapped + 1) * SLOT_BITS)) - 1)) == 0) {
+            wrapped++;
+        }
+        for (int level = wrapped; level >= 1; level--) {
+            cascade(level, (int) ((_currentTick >>> (level * SLOT_BITS)) & SLOT_MASK));
+        }
+
+        int slot = (int) (_currentTick & SLOT_MASK);
+        Timeout timeout = _wheel[0][slot];
+        _wheel[0][slot] = null;
+        while (timeout != null) {
+            Timeout next = timeout._next;
+            timeout._prev = timeout._next = null;
+            timeout._level = -1;
+            if (timeout._deadline > _currentTick) {
+                // Deadlines beyond the span of the wheel wait in the top level until they come in range.
+                place(timeout);
+            } else {
+                expire(timeout);
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * Removes every pending timeout without running it.
+     */
+    public void clear() {
+        _registrations.clear();
+        _cancellations.clear();
+        for (Timeout[] level : _wheel) {
+            Arrays.fill(level, null);
+        }
+        _pending.set(0);
+    }
+
+    /**
+     * Applies the schedule and cancel requests made since the last tick.
+     */
+    private void drainQueues() {
+        Timeout timeout;
+        while ((timeout = _registrations.poll()) != null) {
+            timeout._deadline = _currentTick + timeout._delayTicks;
+            if (timeout._cancelled) {
+                _pending.decrementAndGet();
+                continue;
+            }
+            place(timeout);
+        }
+
+        while ((timeout = _cancellations.poll()) != null) {
+            if (timeout._level < 0)
+                continue; // Not placed yet, or already expired.
+            unlink(timeout);
+            _pending.decrementAndGet();
+        }
+    }
+
+    private void cascade(int level, int slot) {
+        Timeout timeout = _wheel[level][slot];
+        _wheel[level][slot] = null;
+        while (timeout != null) {
+            Timeout next = timeout._next;
+            timeout._prev = timeout._next = null;
+            timeout._level = -1;
+            place(timeout);
+            timeout = next;
+        }
+    }
+
+    /**
+     * Inserts a timeout into the lowest level whose span covers its deadline.
+     */
+    private void place(Timeout timeout) {
+        long deadline = timeout._deadline;
+        int level = 0;
+        while (level < LEVELS - 1 && (deadline >>> (level * SLOT_BITS)) - (_currentTick >>> (level * SLOT_BITS)) >= SLOTS) {
+            level++;
+        }
+
+        long slotTick = deadline >>> (level * SLOT_BITS);
+        long maxTick = (_currentTick >>> (level * SLOT_BITS)) + SLOT_MASK;
+        int slot = (int) (Math.min(slotTick, maxTick) & SLOT_MASK);
+
+        Timeout head = _wheel[level][slot];
+        timeout._next = head;
+        if (head != null)
+            head._prev = timeout;
+        _wheel[level][slot] = timeout;
+        timeout._level = level;
+        timeout._slot = slot;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout._prev != null) {
+            timeout._prev._next = timeout._next;
+        } else {
+            _wheel[timeout._level][timeout._slot] = timeout._next;
+        }
+        if (timeout._next != null)
+            timeout._next._prev = timeout._prev;
+        timeout._prev = timeout._next = null;
+        timeout._level = -1;
+    }
+
+    private void expire(Timeout timeout) {
+        _pending.decrementAndGet();
+        if (timeout._cancelled)
+            return;
+
+        try {
+            timeout._task.run();
+        } catch (Exception ex) {
+            // The logger is only looked up on failure, so the wheel works without a plugin instance.
+            OpenMentions.Logger().WithModule(TimingWheel.class).Error(String.format("Unknown error happened while running a scheduled task...\n%s", ex.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import io.github.tavstaldev.minecorelib.core.PluginLogger;
+import io.github.tavstaldev.openMentions.OpenMentions;
+import io.github.tavstaldev.openMentions.utils.VanishUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps track of the vanished players, so mention checks are a couple of set lookups.
+ * The state reported by the events of the supported vanish plugins (SuperVanish, PremiumVanish
+ * and EssentialsX) is kept apart from the "vanished" metadata, and a player counts as vanished
+ * if either of them says so. The metadata is read on join and after every vanish event, and is
+ * only reconciled periodically when no vanish plugin could be hooked.
+ * The vanish plugins are not compile-time dependencies, so their events are registered by name.
+ */
+public class VanishRegistry {
+    /** Logger instance for logging messages related to VanishRegistry. */
+    private static final PluginLogger _logger = OpenMentions.Logger().WithModule(VanishRegistry.class);
+
+    /** The UUIDs of the players vanished according to the events of the vanish plugins. */
+    private static final Set<UUID> _eventVanished = ConcurrentHashMap.newKeySet();
+
+    /** The UUIDs of the players vanished according to their metadata. */
+    private static final Set<UUID> _metadataVanished = ConcurrentHashMap.newKeySet();
+
+    /** Whether the events of a vanish plugin were registered, making the reconciliation unnecessary. */
+    private static volatile boolean _hooked;
+
+    /** Listener owning the events registered by name. */
+    private static final Listener _hookListener = new Listener() {};
+
+    /**
+     * Registers the events of the installed vanish plugins and loads the players who are online.
+     */
+    public static void start() {
+        for (String name : new String[]{"SuperVanish", "PremiumVanish"}) {
+            Plugin plugin = Bukkit.getPluginManager().getPlugin(name);
+            if (plugin == null || !plugin.isEnabled())
+                continue;
+
+            boolean hooked = registerHook(plugin, "de.myzelyam.api.vanish.PlayerHideEvent",
+                    event -> onVanishEvent((Player) invoke(event, "getPlayer"), true));
+            hooked &= registerHook(plugin, "de.myzelyam.api.vanish.PlayerShowEvent",
+                    event -> onVanishEvent((Player) invoke(event, "getPlayer"), false));
+            if (hooked) {
+                _hooked = true;
+                _logger.Info(String.format("Successfully hooked into %s!", name));
+            }
+        }
+
+        Plugin essentials = Bukkit.getPluginManager().getPlugin("Essentials");
+        if (essentials != null && essentials.isEnabled()) {
+            boolean hooked = registerHook(essentials, "net.ess3.api.events.VanishStatusChangeEvent",
+                    event -> onVanishEvent((Player) invoke(invoke(event, "getAffected"), "getBase"), (Boolean) invoke(event, "getValue")));
+            if (hooked) {
+                _hooked = true;
+                _logger.Info("Successfully hooked into Essentials!");
+            }
+        }
+
+        OpenMentions.Scheduler.runGlobal(VanishRegistry::reconcile);
+        if (!_hooked)
+            scheduleReconcile();
+    }
+
+    /**
+     * Schedules the next reconciliation with the metadata on the plugin's timing wheel.
+     */
+    private static void scheduleReconcile() {
+        long interval = Math.max(1, OpenMentions.Config().vanishReconcileInterval);
+        OpenMentions.Timers.schedule(interval, TimeUnit.SECONDS, () -> {
+            reconcile();
+            scheduleReconcile();
+        });
+    }
+
+    /**
+     * Re-reads the vanish state of every online player from their metadata in a single pass.
+     * The metadata store is synchronized, so this runs as one global task instead of a task per player.
+     */
+    private static void reconcile() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            update(player);
+        }
+    }
+
+    /**
+     * Updates the metadata vanish state of a player.
+     * Should be called on join.
+     *
+     * @param player The player to update.
+     */
+    public static void update(Player player) {
+        setVanished(_metadataVanished, player, VanishUtil.hasVanishedMetadata(player));
+    }
+
+    /**
+     * Records the state reported by a vanish event, then re-reads the metadata of the player once
+     * the vanish plugin had the chance to update it, so a stale metadata state does not linger.
+     */
+    private static void onVanishEvent(Player player, boolean vanished) {
+        if (player == null)
+            return;
+
+        setVanished(_eventVanished, player, vanished);
+        OpenMentions.Scheduler.runForEntity(player, () -> update(player));
+    }
+
+    /**
+     * Removes a player from the registry.
+     *
+     * @param playerId The UUID of the player who left the server.
+     */
+    public static void remove(UUID playerId) {
+        _eventVanished.remove(playerId);
+        _metadataVanished.remove(playerId);
+    }
+
+    /**
+     * Checks if a player is vanished, either according to a vanish event or to their metadata.
+     *
+     * @param player The player to check.
+     * @return True if the player is vanished, false otherwise.
+     */
+    public static boolean isVanished(Player player) {
+        UUID playerId = player.getUniqueId();
+        return _eventVanished.contains(playerId) || _metadataVanished.contains(playerId);
+    }
+
+    /**
+     * Forgets every vanished player.
+     */
+    public static void clear() {
+        _eventVanished.clear();
+        _metadataVanished.clear();
+        _hooked = false;
+    }
+
+    private static void setVanished(Set<UUID> states, Player player, boolean vanished) {
+        if (player == null)
+            return;
+
+        if (vanished) {
+            states.add(player.getUniqueId());
+        } else {
+            states.remove(player.getUniqueId());
+        }
+    }
+
+    /**
+     * Handles an event of a vanish plugin.
+     */
+    private interface Hook {
+        void handle(Event event) throws Exception;
+    }
+
+    /**
+     * Registers a handler for an event of another plugin, loaded by the class name.
+     *
+     * @param plugin The plugin declaring the event.
+     * @param eventClassName The fully qualified name of the event class.
+     * @param hook The handler of the event.
+     * @return True if the event was registered, false if it does not exist in the installed version.
+     */
+    private static boolean registerHook(Plugin plugin, String eventClassName, Hook hook) {
+        try {
+            Class<?> loaded = Class.forName(eventClassName, true, plugin.getClass().getClassLoader());
+            Class<? extends Event> eventClass = loaded.asSubclass(Event.class);
+            EventExecutor executor = (listener, event) -> {
+                // Subclasses of the event may share its handler list.
+                if (!eventClass.isInstance(event))
+                    return;
+                try {
+                    hook.handle(event);
+                } catch (Exception ex) {
+                    _logger.Error(String.format("Unknown error happened while handling %s...\n%s", eventClass.getSimpleName(), ex.getMessage()));
+                }
+            };
+            // Cancelled events did not change the vanish state.
+            Bukkit.getPluginManager().registerEvent(eventClass, _hookListener, EventPriority.MONITOR, executor, OpenMentions.Instance, true);
+            return true;
+        } catch (Exception ex) {
+            _logger.Warn(String.format("Failed to register the %s event of %s: %s", eventClassName, plugin.getName(), ex.getMessage()));
+            return false;
+        }
+    }
+
+    /**
+     * Calls a public method without parameters through reflection.
+     */
+    private static Object invoke(Object target, String method) throws ReflectiveOperationException {
+        return target.getClass().getMethod(method).invoke(target);
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import io.github.tavstaldev.minecorelib.core.PluginLogger;
+import io.github.tavstaldev.openMentions.OpenMentions;
+import io.github.tavstaldev.openMentions.models.PlayerDatabaseData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects pending player data changes and writes them to the database in batches.
+ * Changes of the same player are merged, so only the latest state is written once per flush.
+ */
+public class WriteBehindBuffer {
+    /** Logger instance for logging messages related to WriteBehindBuffer. */
+    private static final PluginLogger _logger = OpenMentions.Logger().WithModule(WriteBehindBuffer.class);
+
+    /** Pending changes, keyed by the player they belong to. */
+    private final Map<UUID, PlayerDatabaseData> _pending = new ConcurrentHashMap<>();
+
+    /** Writes a batch of changes to the database. */
+    private final BatchWriter _writer;
+
+    /** Number of pending changes that triggers an early flush. */
+    private final int _maxBatchSize;
+
+    /**
+     * Serializes flushes, so a batch is never written twice at the same time.
+     * Not a monitor, so a virtual thread waiting on JDBC does not pin its carrier thread.
+     */
+    private final ReentrantLock _flushLock = new ReentrantLock();
+
+    /** Whether an early flush has already been requested. */
+    private final AtomicBoolean _flushRequested = new AtomicBoolean(false);
+
+    /**
+     * Callback writing a batch of changes to the database.
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+        /**
+         * Writes a batch of changes to the database.
+         *
+         * @param batch The changed player data to write.
+         * @throws Exception If the batch could not be written.
+         */
+        void write(List<PlayerDatabaseData> batch) throws Exception;
+    }
+
+    /**
+     * Creates a new write-behind buffer.
+     *
+     * @param writer The callback writing a batch of changes to the database.
+     * @param maxBatchSize The number of pending changes that triggers an early flush.
+     */
+    public WriteBehindBuffer(BatchWriter writer, int maxBatchSize) {
+        _writer = writer;
+        _maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    /**
+     * Queues the current state of a player's data to be written.
+     * A snapshot is queued, so later changes of the cached instance cannot tear the written row.
+     * Requests an asynchronous flush once the batch size threshold is reached.
+     *
+     * @param data The changed data of the player.
+     */
+    public void enqueue(PlayerDatabaseData data) {
+        _pending.put(data.playerId, data.snapshot());
+        if (_pending.size() >= _maxBatchSize && OpenMentions.AsyncDatabase != null && _flushRequested.compareAndSet(false, true))
+            OpenMentions.AsyncDatabase.flush();
+    }
+
+    /**
+     * Retrieves the pending data of a player, which is newer than what is stored in the database.
+     *
+     * @param playerId The UUID of the player.
+     * @return A copy of the pending data, or null if there are no pending changes for the player.
+     */
+    public PlayerDatabaseData getPending(UUID playerId) {
+        PlayerDatabaseData data = _pending.get(playerId);
+        return data == null ? null : data.snapshot();
+    }
+
+    /**
+     * Drops the pending changes of a player.
+     *
+     * @param playerId The UUID of the player.
+     */
+    public void discard(UUID playerId) {
+        _pending.remove(playerId);
+    }
+
+    /**
+     * Writes every pending change to the database.
+     * Changes that fail to be written are queued again unless a newer change has replaced them.
+     */
+    public void flush() {
+        _flushLock.lock();
+        try {
+            _flushRequested.set(false);
+            if (_pending.isEmpty())
+                return;
+
+            List<PlayerDatabaseData> batch = new ArrayList<>(_pending.size());
+            for (UUID playerId : _pending.keySet()) {
+                PlayerDatabaseData data = _pending.remove(playerId);
+                if (data != null)
+                    batch.add(data);
+            }
+
+            try {
+                _writer.write(batch);
+            } catch (Exception ex) {
+                _logger.Error(String.format("Failed to write %s pending player updates, they will be retried...\n%s", batch.size(), ex.getMessage()));
+                for (PlayerDatabaseData data : batch) {
+                    _pending.putIfAbsent(data.playerId, data);
+                }
+            }
+        } finally {
+            _flushLock.unlock();
+        }
+    }
+}
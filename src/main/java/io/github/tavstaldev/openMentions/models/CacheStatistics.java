@@ -0,0 +1,13 @@
+package io.github.tavstaldev.openMentions.models;
+
+/**
+ * Snapshot of the statistics of a player data cache.
+ *
+ * @param name The name of the cache.
+ * @param pinnedSize The number of entries pinned for online players.
+ * @param offlineSize The estimated number of entries in the offline tier.
+ * @param hitRate The ratio of lookups served from the cache, between 0 and 1.
+ * @param evictions The number of entries evicted from the offline tier.
+ */
+public record CacheStatistics(String name, long pinnedSize, long offlineSize, double hitRate, long evictions) {
+}
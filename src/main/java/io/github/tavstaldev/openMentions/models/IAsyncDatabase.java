@@ -0,0 +1,162 @@
+package io.github.tavstaldev.openMentions.models;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous variant of the IDatabase interface.
+ * Every operation runs on a dedicated I/O executor and completes the returned future
+ * once the underlying database call has finished, so callers never block the server thread.
+ */
+public interface IAsyncDatabase {
+
+    /**
+     * Stops accepting new operations and waits for the pending ones to finish.
+     */
+    void shutdown();
+
+    /**
+     * Writes every pending player data change to the database.
+     *
+     * @return A future completed once the pending changes have been written.
+     */
+    CompletableFuture<Void> flush();
+
+    /**
+     * Adds a new player's data to the database.
+     *
+     * @param playerId The unique identifier of the player.
+     * @param soundKey The sound key associated with the player.
+     * @param display The display option for the player's mention notifications.
+     * @param preference The preference for receiving mention notifications.
+     * @return A future completed once the data has been added.
+     */
+    CompletableFuture<Void> addData(UUID playerId, String soundKey, EMentionDisplay display, EMentionPreference preference);
+
+    /**
+     * Updates the sound key for a specific player in the database.
+     *
+     * @param playerId The unique identifier of the player.
+     * @param soundKey The new sound key to be associated with the player.
+     * @return A future completed once the data has been updated.
+     */
+    CompletableFuture<Void> updateSound(UUID playerId, String soundKey);
+
+    /**
+     * Updates the display option for a specific player in the database.
+     *
+     * @param playerId The unique identifier of the player.
+     * @param display The new display option for the player's mention notifications.
+     * @return A future completed once the data has been updated.
+     */
+    CompletableFuture<Void> updateDisplay(UUID playerId, EMentionDisplay display);
+
+    /**
+     * Updates the mention preference for a specific player in the database.
+     *
+     * @param playerId The unique identifier of the player.
+     * @param preference The new preference for receiving mention notifications.
+     * @return A future completed once the data has been updated.
+     */
+    CompletableFuture<Void> updatePreference(UUID playerId, EMentionPreference preference);
+
+    /**
+     * Updates all data for a specific player in the database.
+     *
+     * @param playerId The unique identifier of the player.
+     * @param soundKey The new sound key to be associated with the player.
+     * @param display The new display option for the player's mention notifications.
+     * @param preference The new preference for receiving mention notifications.
+     * @return A future completed once the data has been updated.
+     */
+    CompletableFuture<Void> updateData(UUID playerId, String soundKey, EMentionDisplay display, EMentionPreference preference);
+
+    /**
+     * Removes a player's data from the database.
+     *
+     * @param playerId The unique identifier of the player.
+     * @return A future completed once the data has been removed.
+     */
+    CompletableFuture<Void> removeData(UUID playerId);
+
+    /**
+     * Retrieves the data for a specific player from the database.
+     *
+     * @param playerId The unique identifier of the player.
+     * @return A future completed with the player's data, or an empty Optional if no data is found.
+     */
+    CompletableFuture<Optional<PlayerDatabaseData>> getData(UUID playerId);
+
+    /**
+     * Retrieves every player ignored by a specific player and caches them.
+     *
+     * @param playerId The unique identifier of the player who is ignoring.
+     * @return A future completed with the unique identifiers of the ignored players.
+     */
+    CompletableFuture<Set<UUID>> getIgnoredPlayers(UUID playerId);
+
+    /**
+     * Records the current name of a player in the name directory, replacing their previous names.
+     *
+     * @param playerId The unique identifier of the player.
+     * @param name The current name of the player.
+     * @return A future completed once the name has been recorded.
+     */
+    CompletableFuture<Void> updatePlayerName(UUID playerId, String name);
+
+    /**
+     * Finds a player by their last known name in the name directory.
+     *
+     * @param name The name of the player, in any case.
+     * @return A future completed with the unique identifier of the player, or an empty Optional if the name is not known.
+     *         The future completes exceptionally if the name directory could not be read.
+     */
+    CompletableFuture<Optional<UUID>> findPlayerId(String name);
+
+    /**
+     * Retrieves the unexpired mentions in the inbox of a player, oldest first.
+     *
+     * @param playerId The unique identifier of the player.
+     * @return A future completed with the mentions in the inbox of the player.
+     */
+    CompletableFuture<List<InboxMention>> getInbox(UUID playerId);
+
+    /**
+     * Removes the delivered mentions from the inbox of a player.
+     *
+     * @param playerId The unique identifier of the player.
+     * @param lastId The identifier of the newest delivered mention.
+     * @return A future completed once the mentions have been removed.
+     */
+    CompletableFuture<Void> clearInbox(UUID playerId, long lastId);
+
+    /**
+     * Adds a player to the ignored list of another player.
+     *
+     * @param playerId The unique identifier of the player who is ignoring.
+     * @param ignoredPlayerId The unique identifier of the player being ignored.
+     * @return A future completed once the player has been added.
+     */
+    CompletableFuture<Void> addIgnoredPlayer(UUID playerId, UUID ignoredPlayerId);
+
+    /**
+     * Removes a player from the ignored list of another player.
+     *
+     * @param playerId The unique identifier of the player who is ignoring.
+     * @param ignoredPlayerId The unique identifier of the player being unignored.
+     * @return A future completed once the player has been removed.
+     */
+    CompletableFuture<Void> removeIgnoredPlayer(UUID playerId, UUID ignoredPlayerId);
+
+    /**
+     * Checks if a player is ignored by another player.
+     *
+     * @param playerId The unique identifier of the player who may be ignoring.
+     * @param ignoredPlayerId The unique identifier of the player who may be ignored.
+     * @return A future completed with true if the player is ignored, false otherwise.
+     */
+    CompletableFuture<Boolean> isPlayerIgnored(UUID playerId, UUID ignoredPlayerId);
+}
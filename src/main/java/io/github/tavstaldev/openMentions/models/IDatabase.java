@@ -1,6 +1,8 @@
 package io.github.tavstaldev.openMentions.models;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -21,8 +23,45 @@ public interface IDatabase {
 
     /**
      * Checks and ensures the database schema is up-to-date.
+     *
+     * @return True if the schema is up-to-date, false if a migration failed and the tables cannot be used.
+     */
+    boolean checkSchema();
+
+    /**
+     * Writes every pending player data change to the database.
+     */
+    void flush();
+
+    /**
+     * Retrieves the maximum number of operations that can use the database at the same time.
+     *
+     * @return The number of concurrent operations the backend can serve.
      */
-    void checkSchema();
+    default int getMaxConcurrency() {
+        return 1;
+    }
+
+    /**
+     * Pins the cached data of an online player, so it is kept until the player leaves.
+     *
+     * @param playerId The unique identifier of the player.
+     */
+    void pinPlayer(UUID playerId);
+
+    /**
+     * Releases the cached data of a player who left the server into the offline cache tier.
+     *
+     * @param playerId The unique identifier of the player.
+     */
+    void releasePlayer(UUID playerId);
+
+    /**
+     * Retrieves the statistics of the player data caches.
+     *
+     * @return The statistics of every cache.
+     */
+    List<CacheStatistics> getCacheStatistics();
 
     /**
      * Adds a new player's data to the database.
@@ -83,6 +122,79 @@ public interface IDatabase {
      */
     Optional<PlayerDatabaseData> getData(UUID playerId);
 
+    /**
+     * Retrieves the cached data of a player, without touching the database.
+     *
+     * @param playerId The unique identifier of the player.
+     * @return The player's cached data, or null if it has to be loaded from the database.
+     */
+    PlayerDatabaseData getCachedData(UUID playerId);
+
+    /**
+     * Retrieves every player ignored by a specific player and caches them.
+     *
+     * @param playerId The unique identifier of the player who is ignoring.
+     * @return The unique identifiers of the ignored players.
+     */
+    Set<UUID> getIgnoredPlayers(UUID playerId);
+
+    /**
+     * Retrieves the cached ignored players of a player, without touching the database.
+     *
+     * @param playerId The unique identifier of the player who is ignoring.
+     * @return The unique identifiers of the ignored players, or null if they have to be loaded from the database.
+     */
+    Set<UUID> getCachedIgnoredPlayers(UUID playerId);
+
+    /**
+     * Retrieves the online players who ignore a specific player, without touching the database.
+     *
+     * @param playerId The unique identifier of the player who may be ignored.
+     * @return The unique identifiers of the online players ignoring the player.
+     */
+    Set<UUID> getIgnoredBy(UUID playerId);
+
+    /**
+     * Records the current name of a player in the name directory, replacing their previous names.
+     *
+     * @param playerId The unique identifier of the player.
+     * @param name The current name of the player.
+     */
+    void updatePlayerName(UUID playerId, String name);
+
+    /**
+     * Finds a player by their last known name in the name directory.
+     *
+     * @param name The name of the player, in any case.
+     * @return The unique identifier of the player, or an empty Optional if the name is not known.
+     * @throws IllegalStateException If the name directory could not be read.
+     */
+    Optional<UUID> findPlayerId(String name);
+
+    /**
+     * Queues a mention of an offline player to be stored in their inbox.
+     *
+     * @param playerId The unique identifier of the mentioned player.
+     * @param mention The mention to store.
+     */
+    void addInboxMention(UUID playerId, InboxMention mention);
+
+    /**
+     * Retrieves the unexpired mentions in the inbox of a player, oldest first.
+     *
+     * @param playerId The unique identifier of the player.
+     * @return The mentions in the inbox of the player.
+     */
+    List<InboxMention> getInbox(UUID playerId);
+
+    /**
+     * Removes the delivered mentions from the inbox of a player.
+     *
+     * @param playerId The unique identifier of the player.
+     * @param lastId The identifier of the newest delivered mention.
+     */
+    void clearInbox(UUID playerId, long lastId);
+
     void addIgnoredPlayer(UUID playerId, UUID ignoredPlayerId);
 
     void removeIgnoredPlayer(UUID playerId, UUID ignoredPlayerId);
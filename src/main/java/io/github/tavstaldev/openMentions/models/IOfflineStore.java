@@ -0,0 +1,50 @@
+package io.github.tavstaldev.openMentions.models;
+
+import java.util.UUID;
+
+/**
+ * Interface for the size-bounded store holding the cached entries of offline players.
+ * The tiered caches keep the entries of online players themselves, and move entries
+ * in and out of their offline store as players join and leave.
+ *
+ * @param <V> The type of the stored values.
+ */
+public interface IOfflineStore<V> {
+    /**
+     * Retrieves a stored value.
+     *
+     * @param key The UUID of the player.
+     * @return The stored value, or null if it is not stored or has expired.
+     */
+    V getIfPresent(UUID key);
+
+    /**
+     * Stores a value, evicting other entries if the store is full.
+     *
+     * @param key The UUID of the player.
+     * @param value The value to store.
+     */
+    void put(UUID key, V value);
+
+    /**
+     * Removes a stored value.
+     *
+     * @param key The UUID of the player.
+     * @return The removed value, or null if it was not stored or had expired.
+     */
+    V remove(UUID key);
+
+    /**
+     * Retrieves the number of stored entries.
+     *
+     * @return The number of entries.
+     */
+    long size();
+
+    /**
+     * Retrieves the number of entries evicted to keep the store within its size.
+     *
+     * @return The number of evictions.
+     */
+    long evictions();
+}
@@ -0,0 +1,18 @@
+package io.github.tavstaldev.openMentions.models;
+
+/**
+ * Handle of a task scheduled through an {@link ITaskScheduler}.
+ */
+public interface IScheduledTask {
+    /**
+     * Cancels the task, preventing its future runs.
+     */
+    void cancel();
+
+    /**
+     * Checks if the task was cancelled.
+     *
+     * @return True if the task was cancelled, false otherwise.
+     */
+    boolean isCancelled();
+}
@@ -0,0 +1,35 @@
+package io.github.tavstaldev.openMentions.models;
+
+import org.bukkit.entity.Entity;
+
+/**
+ * Interface for scheduling the tasks of the OpenMentions plugin.
+ * Hides the difference between the single server thread of Bukkit and the region threads of Folia.
+ */
+public interface ITaskScheduler {
+    /**
+     * Runs a task repeatedly on the global thread, which is the server thread outside Folia.
+     *
+     * @param task The task to run.
+     * @param delay The delay before the first run, in ticks.
+     * @param period The time between two runs, in ticks.
+     * @return The handle of the scheduled task.
+     */
+    IScheduledTask runTimer(Runnable task, long delay, long period);
+
+    /**
+     * Runs a task on the thread owning an entity, as soon as possible.
+     * The task is skipped if the entity is removed before it could run, such as a player who left.
+     *
+     * @param entity The entity the task works with.
+     * @param task The task to run.
+     */
+    void runForEntity(Entity entity, Runnable task);
+
+    /**
+     * Runs a task once on the global thread, as soon as possible.
+     *
+     * @param task The task to run.
+     */
+    void runGlobal(Runnable task);
+}
@@ -0,0 +1,14 @@
+package io.github.tavstaldev.openMentions.models;
+
+import java.util.UUID;
+
+/**
+ * A mention of a player who was offline, kept in their inbox until they join.
+ *
+ * @param id The identifier of the stored row, 0 while the mention is only buffered.
+ * @param senderId The UUID of the player who sent the mention.
+ * @param senderName The name of the player who sent the mention.
+ * @param createdAt The time of the mention, in milliseconds since the epoch.
+ */
+public record InboxMention(long id, UUID senderId, String senderName, long createdAt) {
+}
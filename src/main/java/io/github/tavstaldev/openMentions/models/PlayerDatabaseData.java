@@ -1,5 +1,8 @@
 package io.github.tavstaldev.openMentions.models;
 
+import com.cryptomorin.xseries.XSound;
+import io.github.tavstaldev.openMentions.utils.SoundUtils;
+
 import java.util.UUID;
 
 /**
@@ -14,6 +17,9 @@ public class PlayerDatabaseData {
     /** The name of the sound associated with the player's mention notifications. */
     public String soundName;
 
+    /** The sound resolved from the sound name, so notifications do not have to look it up. */
+    public XSound sound;
+
     /** The display option for the player's mention notifications. */
     public EMentionDisplay display;
 
@@ -30,8 +36,77 @@ public class PlayerDatabaseData {
      */
     public PlayerDatabaseData(UUID playerId, String soundName, EMentionDisplay display, EMentionPreference preference) {
         this.playerId = playerId;
+        setSound(soundName);
+        this.display = display;
+        this.preference = preference;
+    }
+
+    /**
+     * Constructs a new PlayerDatabaseData instance with a sound that is already resolved.
+     *
+     * @param playerId The unique identifier of the player.
+     * @param soundName The name of the sound associated with the player's mention notifications.
+     * @param sound The sound resolved from the sound name.
+     * @param display The display option for the player's mention notifications.
+     * @param preference The preference for receiving mention notifications.
+     */
+    public PlayerDatabaseData(UUID playerId, String soundName, XSound sound, EMentionDisplay display, EMentionPreference preference) {
+        this.playerId = playerId;
+        this.soundName = soundName;
+        this.sound = sound;
+        this.display = display;
+        this.preference = preference;
+    }
+
+    /**
+     * Sets the sound of the player's mention notifications and resolves it.
+     * Unknown sound names fall back to the level up sound.
+     *
+     * @param soundName The name of the sound.
+     */
+    public synchronized void setSound(String soundName) {
         this.soundName = soundName;
+        this.sound = SoundUtils.getSound(soundName).orElse(XSound.ENTITY_PLAYER_LEVELUP);
+    }
+
+    /**
+     * Sets the display option for the player's mention notifications.
+     *
+     * @param display The new display option.
+     */
+    public synchronized void setDisplay(EMentionDisplay display) {
+        this.display = display;
+    }
+
+    /**
+     * Sets the preference for receiving mention notifications.
+     *
+     * @param preference The new preference.
+     */
+    public synchronized void setPreference(EMentionPreference preference) {
+        this.preference = preference;
+    }
+
+    /**
+     * Sets every setting of the player at once.
+     *
+     * @param soundName The name of the sound.
+     * @param display The new display option.
+     * @param preference The new preference.
+     */
+    public synchronized void update(String soundName, EMentionDisplay display, EMentionPreference preference) {
+        setSound(soundName);
         this.display = display;
         this.preference = preference;
     }
+
+    /**
+     * Copies the current settings of the player.
+     * The setters lock the same monitor, so the copy never mixes an old and a new value.
+     *
+     * @return A new instance holding the current settings.
+     */
+    public synchronized PlayerDatabaseData snapshot() {
+        return new PlayerDatabaseData(playerId, soundName, sound, display, preference);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package io.github.tavstaldev.openMentions.tasks;
+
+import io.github.tavstaldev.openMentions.managers.OnlinePlayerDirectory;
+
+/**
+ * Periodically re-indexes the display names of the online players,
+ * so nicknames set by other plugins after the join can be mentioned.
+ */
+public class DisplayNameRefreshTask implements Runnable {
+    @Override
+    public void run() {
+        OnlinePlayerDirectory.refreshDisplayNames();
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.tavstaldev.openMentions.tasks;
+
+import io.github.tavstaldev.openMentions.managers.GroupMentionManager;
+
+/**
+ * Delivers the queued group mentions every tick, up to the configured number of recipients.
+ */
+public class GroupMentionTask implements Runnable {
+    @Override
+    public void run() {
+        GroupMentionManager.tick();
+    }
+}
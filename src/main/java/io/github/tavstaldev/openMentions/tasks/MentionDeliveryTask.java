@@ -0,0 +1,13 @@
+package io.github.tavstaldev.openMentions.tasks;
+
+import io.github.tavstaldev.openMentions.managers.MentionDeliveryQueue;
+
+/**
+ * Sends the queued mention notifications every tick, merged per recipient.
+ */
+public class MentionDeliveryTask implements Runnable {
+    @Override
+    public void run() {
+        MentionDeliveryQueue.drain();
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.tavstaldev.openMentions.tasks;
+
+import io.github.tavstaldev.openMentions.OpenMentions;
+
+/**
+ * Advances the plugin's timing wheel once per server tick, running the timeouts that expired.
+ */
+public class TimingWheelTask implements Runnable {
+    @Override
+    public void run() {
+        if (OpenMentions.Timers == null)
+            return;
+
+        OpenMentions.Timers.tick();
+    }
+}
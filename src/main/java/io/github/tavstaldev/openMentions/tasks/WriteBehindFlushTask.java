@@ -0,0 +1,17 @@
+package io.github.tavstaldev.openMentions.tasks;
+
+import io.github.tavstaldev.openMentions.OpenMentions;
+
+/**
+ * Periodically writes the pending player data changes to the database.
+ * The write itself runs on the database executor, this task only requests it.
+ */
+public class WriteBehindFlushTask implements Runnable {
+    @Override
+    public void run() {
+        if (OpenMentions.AsyncDatabase == null)
+            return;
+
+        OpenMentions.AsyncDatabase.flush();
+    }
+}
@@ -0,0 +1,256 @@
+package io.github.tavstaldev.openMentions.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Single-pass tokenizer for mentions in chat messages.
+ * Scans the message once, resolves every distinct {@code @name} candidate once and writes the
+ * highlighted output into a single builder instead of rewriting the whole message per mention.
+ */
+public class MentionTokenizer {
+    /** Minimum length of a Minecraft username. */
+    private static final int MIN_NAME_LENGTH = 3;
+
+    /** Maximum length of a Minecraft username. */
+    private static final int MAX_NAME_LENGTH = 16;
+
+    /** Prefix written in front of a highlighted mention. */
+    private static final String HIGHLIGHT_PREFIX = "§e";
+
+    /** Suffix written after a highlighted mention. */
+    private static final String HIGHLIGHT_SUFFIX = "§r";
+
+    /**
+     * Callback used to decide whether a mention candidate should be highlighted.
+     */
+    @FunctionalInterface
+    public interface MentionResolver {
+        /**
+         * Resolves a mention candidate.
+         *
+         * @param name The candidate name. For '@' mentions it is the name as typed by the sender,
+         *             for bare-name mentions it is the lowercase name of an online player, or the
+         *             lowercase word after an '@' if it is not a player name, such as a group.
+         * @param hasSymbol Whether the candidate was written with an '@' in front of it.
+         *                  Only such candidates should be taken as groups, so plain words never are.
+         * @return True if the mention was accepted and should be highlighted, false otherwise.
+         */
+        boolean resolve(String name, boolean hasSymbol);
+    }
+
+    /**
+     * The candidates already resolved in one message, so a repeated name is resolved only once
+     * and every occurrence of it is highlighted alike. Names are compared case-insensitively.
+     */
+    private static final class ResolvedNames {
+        private final List<String> _names = new ArrayList<>(4);
+        private final List<Boolean> _accepted = new ArrayList<>(4);
+
+        /**
+         * Retrieves the result of an earlier resolution of a name.
+         *
+         * @param name The candidate name.
+         * @return True or false if the name was resolved already, null otherwise.
+         */
+        Boolean get(String name) {
+            for (int i = 0; i < _names.size(); i++) {
+                if (_names.get(i).equalsIgnoreCase(name))
+                    return _accepted.get(i);
+            }
+            return null;
+        }
+
+        /**
+         * Records the result of a resolution.
+         *
+         * @param name The candidate name.
+         * @param accepted Whether the resolver accepted the candidate.
+         */
+        void put(String name, boolean accepted) {
+            _names.add(name);
+            _accepted.add(accepted);
+        }
+    }
+
+    /**
+     * Checks if the given character can be part of a Minecraft username.
+     *
+     * @param c The character to check.
+     * @return True if the character is a letter, digit or underscore in the ASCII range.
+     */
+    public static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    /**
+     * Finds the mentions in a message and highlights the accepted ones.
+     * Messages without an '@' symbol are returned as-is without any allocation.
+     * A name mentioned several times is resolved once, and all of its occurrences are highlighted.
+     *
+     * @param message The raw chat message.
+     * @param maxMentions The maximum number of distinct mentions to accept.
+     * @param resolver The callback deciding whether a candidate is accepted.
+     * @return The highlighted message, or the original instance if nothing was highlighted.
+     */
+    public static String highlight(String message, int maxMentions, MentionResolver resolver) {
+        int at = message.indexOf('@');
+        if (at < 0 || maxMentions < 1)
+            return message;
+
+        final int length = message.length();
+        StringBuilder builder = null;
+        ResolvedNames resolved = null;
+        int copied = 0;
+        int mentionCount = 0;
+        while (at >= 0 && mentionCount < maxMentions) {
+            int start = at + 1;
+            int end = start;
+            while (end < length && isNameChar(message.charAt(end)))
+                end++;
+
+            int nameLength = end - start;
+            if (nameLength >= MIN_NAME_LENGTH && nameLength <= MAX_NAME_LENGTH) {
+                String name = message.substring(start, end);
+                if (resolved == null)
+                    resolved = new ResolvedNames();
+                Boolean accepted = resolved.get(name);
+                if (accepted == null) {
+                    accepted = resolver.resolve(name, true);
+                    resolved.put(name, accepted);
+                    if (accepted)
+                        mentionCount++;
+                }
+                if (accepted) {
+                    if (builder == null)
+                        builder = new StringBuilder(length + 16);
+                    builder.append(message, copied, at)
+                            .append(HIGHLIGHT_PREFIX)
+                            .append('@')
+                            .append(name)
+                            .append(HIGHLIGHT_SUFFIX);
+                    copied = end;
+                }
+            }
+            at = message.indexOf('@', end);
+        }
+
+        if (builder == null)
+            return message;
+        return builder.append(message, copied, length).toString();
+    }
+
+    /**
+     * Collects the names of the '@' mentions of a message without resolving them.
+     * Names are returned as typed by the sender, in the order they appear, without duplicates.
+     *
+     * @param message The raw chat message.
+     * @param maxMentions The maximum number of names to collect.
+     * @return The mentioned names, empty if the message has no '@' mention.
+     */
+    public static List<String> findNames(String message, int maxMentions) {
+        int at = message.indexOf('@');
+        if (at < 0 || maxMentions < 1)
+            return List.of();
+
+        final int length = message.length();
+        List<String> names = new ArrayList<>(Math.min(maxMentions, 4));
+        while (at >= 0 && names.size() < maxMentions) {
+            int start = at + 1;
+            int end = start;
+            while (end < length && isNameChar(message.charAt(end)))
+                end++;
+
+            int nameLength = end - start;
+            if (nameLength >= MIN_NAME_LENGTH && nameLength <= MAX_NAME_LENGTH) {
+                String name = message.substring(start, end);
+                boolean duplicate = false;
+                for (String other : names) {
+                    if (other.equalsIgnoreCase(name)) {
+                        duplicate = true;
+                        break;
+                    }
+                }
+                if (!duplicate)
+                    names.add(name);
+            }
+            at = message.indexOf('@', end);
+        }
+        return names;
+    }
+
+    /**
+     * Finds both '@' mentions and bare player names in a message and highlights the accepted ones.
+     * Player names only consist of word characters, so a name bounded by non-word characters is
+     * always a whole word; every word is walked through the name trie exactly once.
+     * A name is resolved once as a bare word and once as an '@' mention, however often it appears,
+     * and all of its occurrences are highlighted alike.
+     *
+     * @param message The raw chat message.
+     * @param maxMentions The maximum number of distinct mentions to accept.
+     * @param names The trie of the names that can be mentioned.
+     * @param resolver The callback deciding whether a candidate is accepted.
+     * @return The highlighted message, or the original instance if nothing was highlighted.
+     */
+    public static String highlightNames(String message, int maxMentions, PlayerNameTrie names, MentionResolver resolver) {
+        if (maxMentions < 1)
+            return message;
+
+        final int length = message.length();
+        StringBuilder builder = null;
+        ResolvedNames resolved = null;
+        int copied = 0;
+        int mentionCount = 0;
+        int index = 0;
+        while (index < length && mentionCount < maxMentions) {
+            if (!isNameChar(message.charAt(index))) {
+                index++;
+                continue;
+            }
+
+            int start = index;
+            while (index < length && isNameChar(message.charAt(index)))
+                index++;
+
+            int nameLength = index - start;
+            if (nameLength < MIN_NAME_LENGTH || nameLength > MAX_NAME_LENGTH)
+                continue;
+
+            boolean hasSymbol = start > 0 && message.charAt(start - 1) == '@';
+            String key = names.match(message, start, index);
+            if (key == null && hasSymbol)
+                key = message.substring(start, index).toLowerCase(Locale.ROOT);
+            if (key == null)
+                continue;
+
+            if (resolved == null)
+                resolved = new ResolvedNames();
+            // A bare word and an '@' mention of the same name are separate candidates, since only the latter can be a group.
+            String resolvedKey = hasSymbol ? "@" + key : key;
+            Boolean accepted = resolved.get(resolvedKey);
+            if (accepted == null) {
+                accepted = resolver.resolve(key, hasSymbol);
+                resolved.put(resolvedKey, accepted);
+                if (accepted)
+                    mentionCount++;
+            }
+            if (!accepted)
+                continue;
+
+            if (builder == null)
+                builder = new StringBuilder(length + 16);
+            builder.append(message, copied, hasSymbol ? start - 1 : start)
+                    .append(HIGHLIGHT_PREFIX);
+            if (hasSymbol)
+                builder.append('@');
+            builder.append(message, start, index)
+                    .append(HIGHLIGHT_SUFFIX);
+            copied = index;
+        }
+
+        if (builder == null)
+            return message;
+        return builder.append(message, copied, length).toString();
+    }
+}
@@ -2,17 +2,15 @@ package io.github.tavstaldev.openMentions.utils;
 
 import com.cryptomorin.xseries.XSound;
 import io.github.tavstaldev.minecorelib.core.PluginLogger;
-import io.github.tavstaldev.minecorelib.utils.ChatUtils;
 import io.github.tavstaldev.openMentions.OpenMentions;
-import io.github.tavstaldev.openMentions.managers.PlayerCacheManager;
+import io.github.tavstaldev.openMentions.managers.MentionDeliveryQueue;
+import io.github.tavstaldev.openMentions.managers.MentionRateLimiter;
+import io.github.tavstaldev.openMentions.managers.NotificationTemplateCache;
 import io.github.tavstaldev.openMentions.models.EMentionDisplay;
+import io.github.tavstaldev.openMentions.models.PlayerDatabaseData;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
-import java.time.LocalDateTime;
-import java.util.Map;
-import java.util.Optional;
-
 /**
  * Utility class for handling player mentions in the OpenMentions plugin.
  * Provides methods for formatting mentions and notifying players.
@@ -23,41 +21,86 @@ public class MentionUtils {
 
     /**
      * Handles the mention of a player by another player.
-     * Determines the player's mention preferences and sends the appropriate notification.
+     * Checks the rate limits of the mention right away, then loads the player's mention preferences
+     * and ignore list on the database executor and queues the notification for the next tick.
      *
      * @param player The player being mentioned.
      * @param mentioner The player who mentioned the target player.
+     * @return True if the mention was accepted and should be highlighted, false otherwise.
      */
     public static boolean mentionPlayer(@NotNull Player player, Player mentioner) {
         var playerId = player.getUniqueId();
-        var dataOpt = OpenMentions.Database.getData(playerId);
-        if (dataOpt.isEmpty()) {
-            _logger.Error("Player data not found for " + player.getName());
-            return false;
-        }
-
         var mentionerId = mentioner.getUniqueId();
-        if (OpenMentions.Database.isPlayerIgnored(playerId, mentionerId))
-            return true; // Player has ignored the mentioner, return true so the mentioner will not know that they are ignored
-
-        if (PlayerCacheManager.isOnCooldown(mentionerId))
+        if (!MentionRateLimiter.tryAcquire(mentionerId, playerId))
             return false; // Do not notify
 
-        var data = dataOpt.get();
+        var database = OpenMentions.AsyncDatabase;
+        database.getData(playerId)
+                .thenAcceptBoth(database.isPlayerIgnored(playerId, mentionerId), (dataOpt, isIgnored) -> {
+                    if (dataOpt.isEmpty()) {
+                        _logger.Error("Player data not found for " + player.getName());
+                        return;
+                    }
+
+                    // Player has ignored the mentioner, the mention is still highlighted so the mentioner will not know that they are ignored
+                    if (isIgnored)
+                        return;
+
+                    MentionDeliveryQueue.enqueue(player, dataOpt.get(), mentioner.getName());
+                })
+                .exceptionally(e -> {
+                    _logger.Error("Failed to notify " + player.getName() + " about a mention: " + e.getMessage());
+                    return null;
+                });
+        return true;
+    }
+
+    /**
+     * Delivers a mention whose ignore and limit checks were already done by the caller,
+     * such as a recipient of a group mention. Loads the player's mention preferences on the
+     * database executor and queues the notification for the next tick.
+     *
+     * @param player The player being mentioned.
+     * @param mentioner The player who mentioned the target player.
+     */
+    public static void deliverMention(@NotNull Player player, Player mentioner) {
+        OpenMentions.AsyncDatabase.getData(player.getUniqueId())
+                .thenAccept(dataOpt -> {
+                    if (dataOpt.isEmpty()) {
+                        _logger.Error("Player data not found for " + player.getName());
+                        return;
+                    }
+                    MentionDeliveryQueue.enqueue(player, dataOpt.get(), mentioner.getName());
+                })
+                .exceptionally(e -> {
+                    _logger.Error("Failed to notify " + player.getName() + " about a mention: " + e.getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * Notifies a player about their mentions according to their mention preference.
+     * Must be called from the thread owning the player.
+     *
+     * @param player The player being mentioned.
+     * @param data The mention settings of the player.
+     * @param mentioners The names of the players who mentioned the target player.
+     */
+    public static void notifyPlayer(Player player, PlayerDatabaseData data, String mentioners) {
         switch (data.preference)
         {
             case ALWAYS: {
-                sendMention(player, data.soundName, data.display, false, mentioner);
+                sendMention(player, data.sound, data.display, false, mentioners);
                 break;
             }
             case SILENT_IN_COMBAT: {
-                sendMention(player, data.soundName, data.display, OpenMentions.CombatManager.isPlayerInCombat(player), mentioner);
+                sendMention(player, data.sound, data.display, OpenMentions.CombatManager.isPlayerInCombat(player), mentioners);
                 break;
             }
             case NEVER_IN_COMBAT: {
                 if (OpenMentions.CombatManager.isPlayerInCombat(player))
                     break; // Player is in combat, do not mention
-                sendMention(player, data.soundName, data.display, false, mentioner);
+                sendMention(player, data.sound, data.display, false, mentioners);
                 break;
             }
             case NEVER: {
@@ -65,13 +108,6 @@ public class MentionUtils {
                 break;
             }
         }
-
-        var cooldownTime = OpenMentions.Config().mentionCooldown;
-        if (cooldownTime < 1)
-            return true;
-
-        PlayerCacheManager.setCooldown(mentionerId, LocalDateTime.now().plusSeconds(cooldownTime));
-        return true;
     }
 
     /**
@@ -79,30 +115,25 @@ public class MentionUtils {
      * The notification can include chat messages, action bar messages, and sounds based on the player's preferences.
      *
      * @param player The player to notify.
-     * @param soundKey The key of the sound to play.
+     * @param sound The sound to play.
      * @param display The display type for the mention notification.
      * @param isSilent Whether the notification should be silent (no sound).
-     * @param mentioner The player who mentioned the target player.
+     * @param mentioners The names of the players who mentioned the target player.
      */
-    private static void sendMention(Player player, String soundKey, EMentionDisplay display, boolean isSilent, Player mentioner) {
-        String actionBarMessage = OpenMentions.Instance.getTranslator().Localize(player, "General.ActionBarMessage", Map.of("player", mentioner.getName()));
+    private static void sendMention(Player player, XSound sound, EMentionDisplay display, boolean isSilent, String mentioners) {
         float volume = (float)OpenMentions.Config().volume;
         float pitch = (float)OpenMentions.Config().pitch;
-        XSound sound;
-        Optional<XSound> soundResult = SoundUtils.getSound(soundKey);
-        // Fallback sound if not found
-        sound = soundResult.orElse(XSound.ENTITY_PLAYER_LEVELUP);
 
         switch (display) {
             case ALL: {
-                OpenMentions.Instance.sendLocalizedMsg(player, "General.ChatMessage", Map.of("player", mentioner.getName()));
-                player.sendActionBar(ChatUtils.translateColors(actionBarMessage, true));
+                player.sendMessage(NotificationTemplateCache.getChatMessage(player, mentioners));
+                player.sendActionBar(NotificationTemplateCache.getActionBarMessage(player, mentioners));
                 if (!isSilent)
                     sound.play(player, volume, pitch);
                 break;
             }
             case ONLY_CHAT: {
-                OpenMentions.Instance.sendLocalizedMsg(player, "General.ChatMessage", Map.of("player", mentioner.getName()));
+                player.sendMessage(NotificationTemplateCache.getChatMessage(player, mentioners));
                 break;
             }
             case ONLY_SOUND: {
@@ -111,22 +142,22 @@ public class MentionUtils {
                 break;
             }
             case ONLY_ACTIONBAR: {
-                player.sendActionBar(ChatUtils.translateColors(actionBarMessage, true));
+                player.sendActionBar(NotificationTemplateCache.getActionBarMessage(player, mentioners));
                 break;
             }
             case CHAT_AND_SOUND: {
-                OpenMentions.Instance.sendLocalizedMsg(player, "General.ChatMessage", Map.of("player", mentioner.getName()));
+                player.sendMessage(NotificationTemplateCache.getChatMessage(player, mentioners));
                 if (!isSilent)
                     sound.play(player, volume, pitch);
                 break;
             }
             case CHAT_AND_ACTIONBAR: {
-                OpenMentions.Instance.sendLocalizedMsg(player, "General.ChatMessage", Map.of("player", mentioner.getName()));
-                player.sendActionBar(ChatUtils.translateColors(actionBarMessage, true));
+                player.sendMessage(NotificationTemplateCache.getChatMessage(player, mentioners));
+                player.sendActionBar(NotificationTemplateCache.getActionBarMessage(player, mentioners));
                 break;
             }
             case ACTIONBAR_AND_SOUND: {
-                player.sendActionBar(ChatUtils.translateColors(actionBarMessage, true));
+                player.sendActionBar(NotificationTemplateCache.getActionBarMessage(player, mentioners));
                 if (!isSilent)
                     sound.play(player, volume, pitch);
                 break;
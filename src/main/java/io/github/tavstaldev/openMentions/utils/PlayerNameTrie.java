@@ -0,0 +1,156 @@
+package io.github.tavstaldev.openMentions.utils;
+
+import java.util.Locale;
+
+/**
+ * Case-insensitive trie over player names, used to find bare-name mentions in chat messages.
+ * Updates copy only the path of the changed name and publish a new root, so readers on
+ * async chat threads always walk an immutable snapshot without locking.
+ */
+public class PlayerNameTrie {
+    /** Number of characters a Minecraft username can contain: a-z, 0-9 and '_'. */
+    private static final int ALPHABET_SIZE = 37;
+
+    /** Root node of an empty trie. */
+    private static final Node EMPTY = new Node(null, null);
+
+    /** Current root of the trie, replaced on every update. */
+    private volatile Node _root = EMPTY;
+
+    /**
+     * Immutable trie node.
+     *
+     * @param children The child nodes indexed by character, or null if the node is a leaf.
+     * @param key The lowercase name ending at this node, or null if no name ends here.
+     */
+    private record Node(Node[] children, String key) {
+        Node child(int index) {
+            return children == null ? null : children[index];
+        }
+
+        Node withChild(int index, Node child) {
+            Node[] copy = children == null ? new Node[ALPHABET_SIZE] : children.clone();
+            copy[index] = child;
+            return new Node(copy, key);
+        }
+
+        Node withKey(String newKey) {
+            return new Node(children, newKey);
+        }
+
+        boolean isEmpty() {
+            if (key != null)
+                return false;
+            if (children == null)
+                return true;
+            for (Node child : children) {
+                if (child != null)
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Maps a character to its index in the trie alphabet.
+     *
+     * @param c The character to map.
+     * @return The index of the character, or -1 if it cannot be part of a player name.
+     */
+    private static int indexOf(char c) {
+        if (c >= 'a' && c <= 'z')
+            return c - 'a';
+        if (c >= 'A' && c <= 'Z')
+            return c - 'A';
+        if (c >= '0' && c <= '9')
+            return 26 + (c - '0');
+        if (c == '_')
+            return 36;
+        return -1;
+    }
+
+    /**
+     * Adds a player name to the trie.
+     *
+     * @param name The name of the player.
+     */
+    public synchronized void add(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < key.length(); i++) {
+            if (indexOf(key.charAt(i)) < 0)
+                return; // Not a valid username, it can never be matched.
+        }
+        _root = insert(_root, key, 0);
+    }
+
+    /**
+     * Removes a player name from the trie.
+     *
+     * @param name The name of the player.
+     */
+    public synchronized void remove(String name) {
+        Node root = delete(_root, name.toLowerCase(Locale.ROOT), 0);
+        _root = root == null ? EMPTY : root;
+    }
+
+    /**
+     * Removes every name from the trie.
+     */
+    public synchronized void clear() {
+        _root = EMPTY;
+    }
+
+    /**
+     * Checks if the given range of text is exactly a player name, ignoring case.
+     * Does not allocate.
+     *
+     * @param text The text to check.
+     * @param start The start index of the range, inclusive.
+     * @param end The end index of the range, exclusive.
+     * @return The lowercase name if the range matches a name, null otherwise.
+     */
+    public String match(CharSequence text, int start, int end) {
+        Node node = _root;
+        for (int i = start; i < end; i++) {
+            int index = indexOf(text.charAt(i));
+            if (index < 0)
+                return null;
+            node = node.child(index);
+            if (node == null)
+                return null;
+        }
+        return node.key;
+    }
+
+    private static Node insert(Node node, String key, int depth) {
+        if (depth == key.length())
+            return node.withKey(key);
+        int index = indexOf(key.charAt(depth));
+        Node child = node.child(index);
+        return node.withChild(index, insert(child == null ? EMPTY : child, key, depth + 1));
+    }
+
+    private static Node delete(Node node, String key, int depth) {
+        if (node == null)
+            return null;
+        Node updated;
+        if (depth == key.length()) {
+            if (node.key == null)
+                return node;
+            updated = node.withKey(null);
+        } else {
+            int index = indexOf(key.charAt(depth));
+            if (index < 0)
+                return node;
+            Node child = node.child(index);
+            if (child == null)
+                return node;
+            Node newChild = delete(child, key, depth + 1);
+            if (newChild == child)
+                return node;
+            updated = node.withChild(index, newChild);
+        }
+        // Prune branches that no longer lead to any name.
+        return updated.isEmpty() ? null : updated;
+    }
+}
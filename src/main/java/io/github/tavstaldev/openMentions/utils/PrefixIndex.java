@@ -0,0 +1,90 @@
+package io.github.tavstaldev.openMentions.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Immutable, sorted index of names for prefix lookups, used by tab completion.
+ * Names are lowercased and sorted once when the index is built, so a lookup is a binary search
+ * for the first match followed by a scan over the matching range, without lowercasing or
+ * sorting anything per keystroke.
+ */
+public class PrefixIndex {
+    /** The lowercase names, sorted. */
+    private final String[] _keys;
+
+    /** The names in their original form, in the order of the keys. */
+    private final String[] _names;
+
+    /**
+     * Builds an index of names. Names equal apart from their case are only kept once.
+     *
+     * @param names The names to index.
+     */
+    public PrefixIndex(Collection<String> names) {
+        String[] sorted = names.stream()
+                .distinct()
+                .sorted((a, b) -> a.toLowerCase(Locale.ROOT).compareTo(b.toLowerCase(Locale.ROOT)))
+                .toArray(String[]::new);
+        List<String> keys = new ArrayList<>(sorted.length);
+        List<String> kept = new ArrayList<>(sorted.length);
+        for (String name : sorted) {
+            String key = name.toLowerCase(Locale.ROOT);
+            if (!keys.isEmpty() && keys.get(keys.size() - 1).equals(key))
+                continue;
+            keys.add(key);
+            kept.add(name);
+        }
+        _keys = keys.toArray(new String[0]);
+        _names = kept.toArray(new String[0]);
+    }
+
+    /**
+     * Retrieves the names starting with a prefix, ignoring case, in alphabetical order.
+     *
+     * @param prefix The prefix typed so far.
+     * @param limit The maximum number of names to return.
+     * @return The matching names.
+     */
+    public List<String> complete(String prefix, int limit) {
+        return complete(prefix, limit, name -> true);
+    }
+
+    /**
+     * Retrieves the names starting with a prefix, ignoring case, in alphabetical order.
+     *
+     * @param prefix The prefix typed so far.
+     * @param limit The maximum number of names to return.
+     * @param filter Additional condition a name must meet, such as a permission check.
+     * @return The matching names.
+     */
+    public List<String> complete(String prefix, int limit, Predicate<String> filter) {
+        String key = prefix.toLowerCase(Locale.ROOT);
+        int index = Arrays.binarySearch(_keys, key);
+        // Not found returns -(insertion point) - 1, the insertion point is the first key after the prefix.
+        if (index < 0)
+            index = -index - 1;
+
+        List<String> result = new ArrayList<>(Math.min(limit, _keys.length - index));
+        for (; index < _keys.length && result.size() < limit; index++) {
+            if (!_keys[index].startsWith(key))
+                break;
+            if (filter.test(_names[index]))
+                result.add(_names[index]);
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the number of names in the index.
+     *
+     * @return The number of names.
+     */
+    public int size() {
+        return _keys.length;
+    }
+}
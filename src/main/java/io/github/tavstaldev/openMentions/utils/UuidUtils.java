@@ -0,0 +1,52 @@
+package io.github.tavstaldev.openMentions.utils;
+
+import java.util.UUID;
+
+/**
+ * Utility class for storing UUIDs as 16-byte binary keys in the database.
+ */
+public class UuidUtils {
+    /** Number of bytes of a binary UUID. */
+    public static final int BYTES = 16;
+
+    /**
+     * Converts a UUID to its 16-byte big-endian representation.
+     *
+     * @param id The UUID to convert.
+     * @return The binary representation of the UUID.
+     */
+    public static byte[] toBytes(UUID id) {
+        byte[] bytes = new byte[BYTES];
+        writeLong(bytes, 0, id.getMostSignificantBits());
+        writeLong(bytes, 8, id.getLeastSignificantBits());
+        return bytes;
+    }
+
+    /**
+     * Converts a 16-byte big-endian representation back to a UUID.
+     *
+     * @param bytes The binary representation of the UUID.
+     * @return The UUID.
+     * @throws IllegalArgumentException If the array is not 16 bytes long.
+     */
+    public static UUID fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != BYTES)
+            throw new IllegalArgumentException("A binary UUID must be exactly " + BYTES + " bytes long.");
+        return new UUID(readLong(bytes, 0), readLong(bytes, 8));
+    }
+
+    private static void writeLong(byte[] bytes, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -3,24 +3,25 @@ package io.github.tavstaldev.openMentions.utils;
 import org.bukkit.entity.Player;
 import org.bukkit.metadata.MetadataValue;
 
-import java.util.Optional;
-
 /**
  * Utility class for handling player vanish status.
- * Provides methods to check if a player is vanished.
+ * Provides methods to read the vanish state set by vanish plugins.
  */
 public class VanishUtil {
 
     /**
-     * Checks if a player is vanished.
+     * Checks if a player has the "vanished" metadata set by most vanish plugins.
+     * The metadata store of the server is synchronized, so this may be called from any thread.
+     * Mention checks use the VanishRegistry instead.
      *
      * @param player The player to check.
      * @return True if the player is vanished, false otherwise.
      */
-    public static boolean isVanished(Player player) {
-        Optional<MetadataValue> vanishedMeta = player.getMetadata("vanished").stream()
-                .filter(MetadataValue::asBoolean)
-                .findFirst();
-        return vanishedMeta.isPresent();
+    public static boolean hasVanishedMetadata(Player player) {
+        for (MetadataValue value : player.getMetadata("vanished")) {
+            if (value.asBoolean())
+                return true;
+        }
+        return false;
     }
 }
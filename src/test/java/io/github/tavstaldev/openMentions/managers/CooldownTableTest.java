@@ -0,0 +1,344 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the segmented open-addressing cooldown table.
+ */
+public class CooldownTableTest {
+    /** Initial number of slots of a segment, see CooldownTable. */
+    private static final int CAPACITY = 16;
+
+    /** Number of entries a segment takes before it grows. */
+    private static final int MAX_ENTRIES = CAPACITY * 3 / 4;
+
+    /**
+     * Finds a random UUID stored in the given segment whose home slot is the given index,
+     * while the segment still has its initial capacity.
+     */
+    private static UUID keyAt(Random random, int segment, int home) {
+        while (true) {
+            UUID key = new UUID(random.nextLong(), random.nextLong());
+            int hash = CooldownTable.hash(key.getMostSignificantBits(), key.getLeastSignificantBits());
+            if (((hash >>> 28) & 15) == segment && (hash & (CAPACITY - 1)) == home)
+                return key;
+        }
+    }
+
+    /**
+     * Checks that a key is stored with exactly the given deadline.
+     */
+    private static void assertDeadline(CooldownTable table, UUID key, long deadline) {
+        long msb = key.getMostSignificantBits();
+        long lsb = key.getLeastSignificantBits();
+        assertTrue(table.isActive(msb, lsb, deadline - 1), key + " should be active before " + deadline);
+        assertFalse(table.isActive(msb, lsb, deadline), key + " should expire at " + deadline);
+    }
+
+    private static void assertMissing(CooldownTable table, UUID key) {
+        assertFalse(table.isActive(key.getMostSignificantBits(), key.getLeastSignificantBits(), Long.MIN_VALUE / 2), key + " should be missing");
+    }
+
+    @Test
+    public void putReplacesAndRemoveDeletes() {
+        CooldownTable table = new CooldownTable();
+        UUID key = UUID.randomUUID();
+
+        assertTrue(table.put(key, 100));
+        assertDeadline(table, key, 100);
+        assertFalse(table.put(key, 200));
+        assertDeadline(table, key, 200);
+        assertEquals(1, table.size());
+
+        assertTrue(table.remove(key));
+        assertFalse(table.remove(key));
+        assertMissing(table, key);
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void reportsRemainingTime() {
+        CooldownTable table = new CooldownTable();
+        UUID active = UUID.randomUUID();
+        UUID expired = UUID.randomUUID();
+        table.put(active, System.nanoTime() + TimeUnit.MINUTES.toNanos(10));
+        table.put(expired, System.nanoTime() - 1);
+
+        assertTrue(table.isActive(active));
+        assertFalse(table.isActive(expired));
+        assertFalse(table.isActive(UUID.randomUUID()));
+        long remaining = table.getRemaining(active, TimeUnit.SECONDS);
+        assertTrue(remaining > 590 && remaining <= 600, "remaining " + remaining);
+        assertEquals(0, table.getRemaining(expired, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void expireOnlyRemovesElapsedDeadlines() {
+        CooldownTable table = new CooldownTable();
+        UUID key = UUID.randomUUID();
+        table.put(key, 1_000);
+
+        assertEquals(400, table.expire(key, 600));
+        assertDeadline(table, key, 1_000);
+        assertEquals(0, table.expire(key, 1_000));
+        assertMissing(table, key);
+        assertEquals(0, table.expire(UUID.randomUUID(), 1_000));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void tryAcquireLimitsBurstsAndRefills() {
+        CooldownTable table = new CooldownTable();
+        long interval = 100;
+        int capacity = 3;
+
+        for (int i = 0; i < capacity; i++) {
+            assertTrue(table.tryAcquire(1, 2, interval, capacity, 0), "token " + i);
+        }
+        assertFalse(table.tryAcquire(1, 2, interval, capacity, 0));
+        assertFalse(table.tryAcquire(1, 2, interval, capacity, 99));
+
+        // One token refills per interval.
+        assertTrue(table.tryAcquire(1, 2, interval, capacity, 100));
+        assertFalse(table.tryAcquire(1, 2, interval, capacity, 100));
+
+        // A refund gives back exactly one token.
+        table.refund(1, 2, interval);
+        assertTrue(table.tryAcquire(1, 2, interval, capacity, 100));
+        assertFalse(table.tryAcquire(1, 2, interval, capacity, 100));
+
+        // An idle bucket refills completely, but never beyond its capacity.
+        for (int i = 0; i < capacity; i++) {
+            assertTrue(table.tryAcquire(1, 2, interval, capacity, 10_000), "token " + i);
+        }
+        assertFalse(table.tryAcquire(1, 2, interval, capacity, 10_000));
+
+        // Other keys have their own bucket, refunding an unknown key does nothing.
+        table.refund(3, 4, interval);
+        assertTrue(table.tryAcquire(3, 4, interval, capacity, 10_000));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    public void purgeExpiredRemovesOnlyElapsedEntries() {
+        CooldownTable table = new CooldownTable();
+        List<UUID> keys = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            UUID key = UUID.randomUUID();
+            keys.add(key);
+            table.put(key, i);
+        }
+
+        assertEquals(100, table.purgeExpired(99));
+        assertEquals(100, table.size());
+        for (int i = 0; i < keys.size(); i++) {
+            if (i <= 99)
+                assertMissing(table, keys.get(i));
+            else
+                assertDeadline(table, keys.get(i), i);
+        }
+        assertEquals(0, table.purgeExpired(99));
+        assertEquals(100, table.purgeExpired(Long.MAX_VALUE / 2));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void backwardShiftDeletionWrapsAroundAFullSegment() {
+        Random random = new Random(42);
+        // Every rotation of the removal order starts the cluster hole at another slot.
+        for (int first = 0; first < MAX_ENTRIES; first++) {
+            CooldownTable table = new CooldownTable();
+            List<UUID> keys = new ArrayList<>();
+            // A cluster starting at the last slots wraps around to the beginning of the segment.
+            for (int i = 0; i < MAX_ENTRIES; i++) {
+                int home = i < 4 ? CAPACITY - 2 : (i < 8 ? CAPACITY - 1 : i - 8);
+                UUID key = keyAt(random, 5, home);
+                keys.add(key);
+                assertTrue(table.put(key, 1_000 + i));
+            }
+            assertEquals(MAX_ENTRIES, table.size());
+
+            List<UUID> removed = new ArrayList<>();
+            for (int step = 0; step < MAX_ENTRIES; step++) {
+                UUID key = keys.get((first + step * 5) % MAX_ENTRIES);
+                if (removed.contains(key))
+                    continue;
+                assertTrue(table.remove(key));
+                removed.add(key);
+                for (int i = 0; i < keys.size(); i++) {
+                    UUID other = keys.get(i);
+                    if (removed.contains(other))
+                        assertMissing(table, other);
+                    else
+                        assertDeadline(table, other, 1_000 + i);
+                }
+            }
+            assertEquals(MAX_ENTRIES - removed.size(), table.size());
+        }
+    }
+
+    @Test
+    public void purgeExpiredShiftsAWrappedCluster() {
+        Random random = new Random(7);
+        CooldownTable table = new CooldownTable();
+        List<UUID> keys = new ArrayList<>();
+        for (int i = 0; i < MAX_ENTRIES; i++) {
+            UUID key = keyAt(random, 9, i % 2 == 0 ? CAPACITY - 1 : 0);
+            keys.add(key);
+            // Every other entry is expired.
+            table.put(key, i % 2 == 0 ? 10 : 1_000 + i);
+        }
+
+        assertEquals(MAX_ENTRIES / 2, table.purgeExpired(10));
+        for (int i = 0; i < keys.size(); i++) {
+            if (i % 2 == 0)
+                assertMissing(table, keys.get(i));
+            else
+                assertDeadline(table, keys.get(i), 1_000 + i);
+        }
+    }
+
+    @Test
+    public void growsBeyondTheInitialCapacity() {
+        Random random = new Random(3);
+        CooldownTable table = new CooldownTable();
+        List<UUID> keys = new ArrayList<>();
+        for (int i = 0; i < CAPACITY * 8; i++) {
+            UUID key = keyAt(random, 2, i % CAPACITY);
+            keys.add(key);
+            table.put(key, 1_000 + i);
+        }
+
+        assertEquals(keys.size(), table.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertDeadline(table, keys.get(i), 1_000 + i);
+        }
+    }
+
+    @Test
+    public void concurrentUpdatesMatchAReferenceMap() throws InterruptedException {
+        int writers = 4;
+        int keysPerWriter = 64;
+        int operations = 50_000;
+        CooldownTable table = new CooldownTable();
+
+        // Stable keys never change, so readers must always find them while writers shift and grow the segments.
+        Random random = new Random(11);
+        Map<UUID, Long> stable = new HashMap<>();
+        for (int i = 0; i < 32; i++) {
+            UUID key = keyAt(random, i % 16, random.nextInt(CAPACITY));
+            stable.put(key, 1_000_000L + i);
+            table.put(key, 1_000_000L + i);
+        }
+
+        List<Map<UUID, Long>> references = new ArrayList<>();
+        List<List<UUID>> writerKeys = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            references.add(new HashMap<>());
+            List<UUID> keys = new ArrayList<>();
+            for (int i = 0; i < keysPerWriter; i++) {
+                // Crowd a few segments, so writers share segments and clusters.
+                keys.add(keyAt(random, i % 4, random.nextInt(CAPACITY)));
+            }
+            writerKeys.add(keys);
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(writers);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            Map<UUID, Long> reference = references.get(w);
+            List<UUID> keys = writerKeys.get(w);
+            threads.add(new Thread(() -> {
+                try {
+                    ThreadLocalRandom threadRandom = ThreadLocalRandom.current();
+                    for (int op = 0; op < operations; op++) {
+                        UUID key = keys.get(threadRandom.nextInt(keys.size()));
+                        long now = threadRandom.nextLong(1, 1_000);
+                        switch (threadRandom.nextInt(4)) {
+                            case 0, 1 -> {
+                                long deadline = threadRandom.nextLong(1, 1_000);
+                                assertEquals(!reference.containsKey(key), table.put(key, deadline), "put");
+                                reference.put(key, deadline);
+                            }
+                            case 2 -> assertEquals(reference.remove(key) != null, table.remove(key), "remove");
+                            default -> {
+                                Long current = reference.get(key);
+                                long expected = current == null || current - now <= 0 ? 0 : current - now;
+                                assertEquals(expected, table.expire(key, now), "expire");
+                                if (expected == 0)
+                                    reference.remove(key);
+                            }
+                        }
+
+                        Long deadline = reference.get(key);
+                        if (deadline == null)
+                            assertMissing(table, key);
+                        else
+                            assertDeadline(table, key, deadline);
+                    }
+                } catch (Throwable ex) {
+                    failure.compareAndSet(null, ex);
+                } finally {
+                    done.countDown();
+                }
+            }));
+        }
+        for (int r = 0; r < 2; r++) {
+            threads.add(new Thread(() -> {
+                try {
+                    while (running.get()) {
+                        for (var entry : stable.entrySet()) {
+                            UUID key = entry.getKey();
+                            long deadline = entry.getValue();
+                            if (!table.isActive(key.getMostSignificantBits(), key.getLeastSignificantBits(), deadline - 1))
+                                throw new AssertionError("Stable key " + key + " went missing");
+                        }
+                    }
+                } catch (Throwable ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            }));
+        }
+
+        Collections.shuffle(threads, random);
+        threads.forEach(Thread::start);
+        assertTrue(done.await(60, TimeUnit.SECONDS), "writers timed out");
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join(10_000);
+        }
+        assertNull(failure.get(), () -> "concurrent failure: " + failure.get());
+
+        int expectedSize = stable.size();
+        for (Map<UUID, Long> reference : references) {
+            expectedSize += reference.size();
+            for (var entry : reference.entrySet()) {
+                assertDeadline(table, entry.getKey(), entry.getValue());
+            }
+        }
+        for (var entry : stable.entrySet()) {
+            assertDeadline(table, entry.getKey(), entry.getValue());
+        }
+        assertEquals(expectedSize, table.size());
+    }
+}
@@ -0,0 +1,320 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the segmented packed profile table.
+ */
+public class PackedProfileTableTest {
+    /** Initial number of slots of a segment, see PackedProfileTable. */
+    private static final int CAPACITY = 16;
+
+    /** Number of entries a segment takes before it grows. */
+    private static final int MAX_ENTRIES = CAPACITY * 3 / 4;
+
+    /**
+     * Finds a random UUID stored in the given segment whose home slot is the given index,
+     * while the segment still has its initial capacity.
+     */
+    private static UUID keyAt(Random random, int segment, int home) {
+        while (true) {
+            UUID key = new UUID(random.nextLong(), random.nextLong());
+            int hash = PackedProfileTable.hash(key.getMostSignificantBits(), key.getLeastSignificantBits());
+            if (((hash >>> 28) & 15) == segment && (hash & (CAPACITY - 1)) == home)
+                return key;
+        }
+    }
+
+    private static int get(PackedProfileTable table, UUID key) {
+        return table.get(key.getMostSignificantBits(), key.getLeastSignificantBits());
+    }
+
+    private static void put(PackedProfileTable table, UUID key, int value) {
+        table.put(key.getMostSignificantBits(), key.getLeastSignificantBits(), value);
+    }
+
+    private static int remove(PackedProfileTable table, UUID key) {
+        return table.remove(key.getMostSignificantBits(), key.getLeastSignificantBits());
+    }
+
+    @Test
+    public void putReplacesAndRemoveDeletes() {
+        PackedProfileTable table = new PackedProfileTable(100, 0);
+        UUID key = UUID.randomUUID();
+
+        assertEquals(PackedProfileTable.MISSING, get(table, key));
+        put(table, key, 7);
+        assertEquals(7, get(table, key));
+        put(table, key, 9);
+        assertEquals(9, get(table, key));
+        assertEquals(1, table.size());
+
+        assertEquals(9, remove(table, key));
+        assertEquals(PackedProfileTable.MISSING, remove(table, key));
+        assertEquals(PackedProfileTable.MISSING, get(table, key));
+        assertEquals(0, table.size());
+        assertThrows(IllegalArgumentException.class, () -> put(table, key, -2));
+    }
+
+    @Test
+    public void disabledTableStoresNothing() {
+        PackedProfileTable table = new PackedProfileTable(0, 0);
+        UUID key = UUID.randomUUID();
+        put(table, key, 1);
+
+        assertEquals(PackedProfileTable.MISSING, get(table, key));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedEntry() {
+        long[] nanos = {0};
+        // 64 entries are 4 per segment.
+        PackedProfileTable table = new PackedProfileTable(64, 0, () -> nanos[0]);
+        Random random = new Random(5);
+        List<UUID> keys = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            UUID key = keyAt(random, 3, i * 3);
+            keys.add(key);
+            put(table, key, i);
+            nanos[0] += TimeUnit.SECONDS.toNanos(1);
+        }
+
+        // Reading the oldest entry makes the second one the least recently used.
+        nanos[0] = TimeUnit.SECONDS.toNanos(10);
+        assertEquals(0, get(table, keys.get(0)));
+        nanos[0] = TimeUnit.SECONDS.toNanos(11);
+        UUID fifth = keyAt(random, 3, 13);
+        put(table, fifth, 4);
+
+        assertEquals(PackedProfileTable.MISSING, get(table, keys.get(1)));
+        assertEquals(4, table.size());
+        assertEquals(1, table.evictions());
+
+        // The third entry is now the least recently used.
+        nanos[0] = TimeUnit.SECONDS.toNanos(12);
+        UUID sixth = keyAt(random, 3, 1);
+        put(table, sixth, 5);
+        assertEquals(4, table.size());
+        assertEquals(2, table.evictions());
+        assertEquals(PackedProfileTable.MISSING, get(table, keys.get(2)));
+        assertEquals(0, get(table, keys.get(0)));
+        assertEquals(3, get(table, keys.get(3)));
+        assertEquals(4, get(table, fifth));
+        assertEquals(5, get(table, sixth));
+    }
+
+    @Test
+    public void expiresEntriesNotAccessedInTime() {
+        long[] nanos = {0};
+        PackedProfileTable table = new PackedProfileTable(100, 1, () -> nanos[0]);
+        UUID recent = UUID.randomUUID();
+        UUID stale = UUID.randomUUID();
+        put(table, recent, 1);
+        put(table, stale, 2);
+
+        // Every read moves the expiry of the entry.
+        nanos[0] = TimeUnit.SECONDS.toNanos(50);
+        assertEquals(1, get(table, recent));
+        nanos[0] = TimeUnit.SECONDS.toNanos(60);
+        assertEquals(2, get(table, stale));
+        nanos[0] = TimeUnit.SECONDS.toNanos(110);
+        assertEquals(1, get(table, recent));
+
+        nanos[0] = TimeUnit.SECONDS.toNanos(121);
+        assertEquals(PackedProfileTable.MISSING, get(table, stale));
+        assertEquals(1, get(table, recent));
+
+        // Expired entries are kept until they are removed or replaced.
+        assertEquals(2, table.size());
+        assertEquals(PackedProfileTable.MISSING, remove(table, stale));
+        put(table, stale, 3);
+        assertEquals(3, get(table, stale));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    public void backwardShiftDeletionWrapsAroundAFullSegment() {
+        Random random = new Random(42);
+        // Every rotation of the removal order starts the cluster hole at another slot.
+        for (int first = 0; first < MAX_ENTRIES; first++) {
+            PackedProfileTable table = new PackedProfileTable(10_000, 0);
+            List<UUID> keys = new ArrayList<>();
+            // A cluster starting at the last slots wraps around to the beginning of the segment.
+            for (int i = 0; i < MAX_ENTRIES; i++) {
+                int home = i < 4 ? CAPACITY - 2 : (i < 8 ? CAPACITY - 1 : i - 8);
+                UUID key = keyAt(random, 5, home);
+                keys.add(key);
+                put(table, key, 100 + i);
+            }
+            assertEquals(MAX_ENTRIES, table.size());
+
+            List<UUID> removed = new ArrayList<>();
+            for (int step = 0; step < MAX_ENTRIES; step++) {
+                UUID key = keys.get((first + step * 5) % MAX_ENTRIES);
+                if (removed.contains(key))
+                    continue;
+                assertEquals(100 + keys.indexOf(key), remove(table, key));
+                removed.add(key);
+                for (int i = 0; i < keys.size(); i++) {
+                    UUID other = keys.get(i);
+                    assertEquals(removed.contains(other) ? PackedProfileTable.MISSING : 100 + i, get(table, other), other.toString());
+                }
+            }
+            assertEquals(MAX_ENTRIES - removed.size(), table.size());
+        }
+    }
+
+    @Test
+    public void evictionShiftsAWrappedCluster() {
+        long[] nanos = {0};
+        // 16 * 12 entries fill a segment without growing it.
+        PackedProfileTable table = new PackedProfileTable(16 * MAX_ENTRIES, 0, () -> nanos[0]);
+        Random random = new Random(7);
+        List<UUID> keys = new ArrayList<>();
+        for (int i = 0; i < MAX_ENTRIES; i++) {
+            keys.add(keyAt(random, 9, i % 2 == 0 ? CAPACITY - 1 : 0));
+            put(table, keys.get(i), i);
+            nanos[0] += TimeUnit.SECONDS.toNanos(1);
+        }
+
+        // Every eviction deletes an entry out of the cluster, shifting the entries behind it.
+        List<UUID> added = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            added.add(keyAt(random, 9, 4));
+            put(table, added.get(i), 100 + i);
+            nanos[0] += TimeUnit.SECONDS.toNanos(1);
+        }
+        assertEquals(4, table.evictions());
+        assertEquals(MAX_ENTRIES, table.size());
+
+        int evicted = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            int value = get(table, keys.get(i));
+            if (value == PackedProfileTable.MISSING)
+                evicted++;
+            else
+                assertEquals(i, value, "entry " + i);
+        }
+        assertEquals(4, evicted);
+        for (int i = 0; i < added.size(); i++) {
+            assertEquals(100 + i, get(table, added.get(i)), "added " + i);
+        }
+    }
+
+    @Test
+    public void growsBeyondTheInitialCapacity() {
+        Random random = new Random(3);
+        PackedProfileTable table = new PackedProfileTable(10_000, 0);
+        List<UUID> keys = new ArrayList<>();
+        for (int i = 0; i < CAPACITY * 8; i++) {
+            UUID key = keyAt(random, 2, i % CAPACITY);
+            keys.add(key);
+            put(table, key, i);
+        }
+
+        assertEquals(keys.size(), table.size());
+        assertEquals(0, table.evictions());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(i, get(table, keys.get(i)));
+        }
+    }
+
+    @Test
+    public void readersSeeStableEntriesWhileWritersShiftThem() throws InterruptedException {
+        int writers = 4;
+        int operations = 50_000;
+        PackedProfileTable table = new PackedProfileTable(100_000, 0);
+
+        // Stable entries never change, while writers delete and insert around them in the same segments.
+        Random random = new Random(11);
+        Map<UUID, Integer> stable = new HashMap<>();
+        for (int i = 0; i < 32; i++) {
+            UUID key = keyAt(random, i % 4, random.nextInt(CAPACITY));
+            stable.put(key, 1_000 + i);
+            put(table, key, 1_000 + i);
+        }
+
+        List<List<UUID>> writerKeys = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            List<UUID> keys = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                keys.add(keyAt(random, i % 4, random.nextInt(CAPACITY)));
+            }
+            writerKeys.add(keys);
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(writers);
+        List<Thread> threads = new ArrayList<>();
+        for (List<UUID> keys : writerKeys) {
+            threads.add(new Thread(() -> {
+                try {
+                    Map<UUID, Integer> reference = new HashMap<>();
+                    ThreadLocalRandom threadRandom = ThreadLocalRandom.current();
+                    for (int op = 0; op < operations; op++) {
+                        UUID key = keys.get(threadRandom.nextInt(keys.size()));
+                        if (threadRandom.nextBoolean()) {
+                            int value = threadRandom.nextInt(1_000);
+                            put(table, key, value);
+                            reference.put(key, value);
+                        } else {
+                            Integer expected = reference.remove(key);
+                            assertEquals(expected == null ? PackedProfileTable.MISSING : expected, remove(table, key), "remove");
+                        }
+                        Integer expected = reference.get(key);
+                        assertEquals(expected == null ? PackedProfileTable.MISSING : expected, get(table, key), "get");
+                    }
+                } catch (Throwable ex) {
+                    failure.compareAndSet(null, ex);
+                } finally {
+                    done.countDown();
+                }
+            }));
+        }
+        for (int r = 0; r < 2; r++) {
+            threads.add(new Thread(() -> {
+                try {
+                    while (running.get()) {
+                        for (var entry : stable.entrySet()) {
+                            int value = get(table, entry.getKey());
+                            if (value != entry.getValue())
+                                throw new AssertionError("Stable key " + entry.getKey() + " read " + value);
+                        }
+                    }
+                } catch (Throwable ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        assertTrue(done.await(60, TimeUnit.SECONDS), "writers timed out");
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join(10_000);
+        }
+        assertNull(failure.get(), () -> "concurrent failure: " + failure.get());
+        for (var entry : stable.entrySet()) {
+            assertEquals((int) entry.getValue(), get(table, entry.getKey()));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import io.github.tavstaldev.openMentions.models.CacheStatistics;
+import io.github.tavstaldev.openMentions.models.EMentionDisplay;
+import io.github.tavstaldev.openMentions.models.EMentionPreference;
+import io.github.tavstaldev.openMentions.models.PlayerDatabaseData;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the two-tier profile cache and its packed offline entries.
+ */
+public class ProfileCacheTest {
+    /** Sound names of the cached profiles, a few of them to intern more than one. */
+    private static final String[] SOUNDS = {"entity_player_levelup", "block_note_block_pling", "entity_experience_orb_pickup"};
+
+    /**
+     * Creates the data of a player. The sound is left unresolved, since the cache only interns
+     * sounds by name and resolving them needs a server.
+     */
+    private static PlayerDatabaseData data(UUID key, String sound, EMentionDisplay display, EMentionPreference preference) {
+        return new PlayerDatabaseData(key, sound, null, display, preference);
+    }
+
+    private static void assertData(PlayerDatabaseData expected, PlayerDatabaseData actual) {
+        assertEquals(expected.playerId, actual.playerId);
+        assertEquals(expected.soundName, actual.soundName);
+        assertSame(expected.sound, actual.sound);
+        assertSame(expected.display, actual.display);
+        assertSame(expected.preference, actual.preference);
+    }
+
+    @Test
+    public void packsEveryCombinationOfSettings() {
+        ProfileCache cache = new ProfileCache("test", 10_000, 0);
+        for (String sound : SOUNDS) {
+            for (EMentionDisplay display : EMentionDisplay.values()) {
+                for (EMentionPreference preference : EMentionPreference.values()) {
+                    UUID key = UUID.randomUUID();
+                    PlayerDatabaseData value = data(key, sound, display, preference);
+                    cache.put(key, value);
+
+                    // Offline entries are unpacked into a new copy on every read.
+                    PlayerDatabaseData cached = cache.getIfPresent(key);
+                    assertNotSame(value, cached);
+                    assertData(value, cached);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void putReplacesAnOfflineEntry() {
+        ProfileCache cache = new ProfileCache("test", 100, 0);
+        UUID key = UUID.randomUUID();
+        cache.put(key, data(key, SOUNDS[0], EMentionDisplay.ALL, EMentionPreference.ALWAYS));
+        PlayerDatabaseData updated = data(key, SOUNDS[1], EMentionDisplay.ONLY_CHAT, EMentionPreference.NEVER);
+        cache.put(key, updated);
+
+        assertData(updated, cache.getIfPresent(key));
+        cache.invalidate(key);
+        assertNull(cache.getIfPresent(key));
+    }
+
+    @Test
+    public void dropsDataThatCannotBePacked() {
+        ProfileCache cache = new ProfileCache("test", 100, 0);
+        UUID key = UUID.randomUUID();
+        cache.put(key, data(key, SOUNDS[0], EMentionDisplay.ALL, EMentionPreference.ALWAYS));
+
+        // Keeping the old entry would serve settings the player already changed.
+        cache.put(key, new PlayerDatabaseData(key, null, null, EMentionDisplay.ALL, EMentionPreference.ALWAYS));
+        assertNull(cache.getIfPresent(key));
+    }
+
+    @Test
+    public void pinningMovesEntriesBetweenTheTiers() {
+        ProfileCache cache = new ProfileCache("test", 100, 0);
+        UUID key = UUID.randomUUID();
+        PlayerDatabaseData value = data(key, SOUNDS[2], EMentionDisplay.CHAT_AND_SOUND, EMentionPreference.SILENT_IN_COMBAT);
+        cache.put(key, value);
+
+        // A pinned entry is unpacked once and then changed in place.
+        cache.pin(key);
+        assertTrue(cache.isPinned(key));
+        PlayerDatabaseData pinned = cache.getIfPresent(key);
+        assertData(value, pinned);
+        assertSame(pinned, cache.getIfPresent(key));
+        pinned.setDisplay(EMentionDisplay.ONLY_ACTIONBAR);
+
+        // Pinning twice keeps the same entry.
+        cache.pin(key);
+        assertSame(pinned, cache.getIfPresent(key));
+
+        cache.release(key);
+        assertFalse(cache.isPinned(key));
+        PlayerDatabaseData released = cache.getIfPresent(key);
+        assertNotSame(pinned, released);
+        assertData(pinned, released);
+        assertEquals(new CacheStatistics("test", 0, 1, 1.0, 0), cache.getStatistics());
+    }
+
+    @Test
+    public void pinnedPutsStayInThePinnedTier() {
+        ProfileCache cache = new ProfileCache("test", 100, 0);
+        UUID key = UUID.randomUUID();
+        cache.pin(key);
+        assertNull(cache.getIfPresent(key));
+
+        PlayerDatabaseData value = data(key, SOUNDS[0], EMentionDisplay.ALL, EMentionPreference.ALWAYS);
+        cache.put(key, value);
+        assertSame(value, cache.getIfPresent(key));
+
+        CacheStatistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.pinnedSize());
+        assertEquals(0, statistics.offlineSize());
+        assertEquals(0.5, statistics.hitRate());
+    }
+}
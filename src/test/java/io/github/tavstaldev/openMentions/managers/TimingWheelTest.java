@@ -0,0 +1,196 @@
+package io.github.tavstaldev.openMentions.managers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the hierarchical timing wheel.
+ */
+public class TimingWheelTest {
+    /** Number of ticks covered by the first level, the first two levels and all four levels. */
+    private static final long LEVEL_0 = 64, LEVEL_1 = 64 * 64, SPAN = 64L * 64 * 64 * 64;
+
+    /**
+     * Schedules a task with a delay of whole ticks, recording the tick it runs at.
+     */
+    private static TimingWheel.Timeout schedule(TimingWheel wheel, long ticks, long[] now, List<Long> runs) {
+        return wheel.schedule(ticks * 50, TimeUnit.MILLISECONDS, () -> runs.add(now[0]));
+    }
+
+    /**
+     * Advances the wheel, keeping the tick counter of the test in sync.
+     */
+    private static void advance(TimingWheel wheel, long[] now, long ticks) {
+        for (long i = 0; i < ticks; i++) {
+            now[0]++;
+            wheel.tick();
+        }
+    }
+
+    @Test
+    public void runsOnTheExactTickAtEveryLevelBoundary() {
+        long[] delays = {1, 2, LEVEL_0 - 1, LEVEL_0, LEVEL_0 + 1, LEVEL_1 - 1, LEVEL_1, LEVEL_1 + 1, 64 * LEVEL_1 + 7};
+        // Scheduling at different offsets makes the deadlines cross the cascades at every position.
+        long[] offsets = {0, 1, 37, LEVEL_0 - 1, LEVEL_1 - 3};
+        for (long offset : offsets) {
+            for (long delay : delays) {
+                TimingWheel wheel = new TimingWheel();
+                long[] now = {0};
+                List<Long> runs = new ArrayList<>();
+                advance(wheel, now, offset);
+
+                schedule(wheel, delay, now, runs);
+                assertEquals(1, wheel.size());
+                advance(wheel, now, delay - 1);
+                assertTrue(runs.isEmpty(), "delay " + delay + " at offset " + offset + " ran early at " + runs);
+                advance(wheel, now, 1);
+                assertEquals(List.of(offset + delay), runs, "delay " + delay + " at offset " + offset);
+                assertEquals(0, wheel.size());
+            }
+        }
+    }
+
+    @Test
+    public void runsDeadlinesBeyondTheSpanOfTheWheel() {
+        TimingWheel wheel = new TimingWheel();
+        long[] now = {0};
+        List<Long> runs = new ArrayList<>();
+        schedule(wheel, SPAN + 5, now, runs);
+
+        advance(wheel, now, SPAN + 4);
+        assertTrue(runs.isEmpty());
+        advance(wheel, now, 1);
+        assertEquals(List.of(SPAN + 5), runs);
+    }
+
+    @Test
+    public void roundsDelaysUpToWholeTicks() {
+        TimingWheel wheel = new TimingWheel();
+        long[] now = {0};
+        List<Long> runs = new ArrayList<>();
+        wheel.schedule(0, TimeUnit.MILLISECONDS, () -> runs.add(now[0]));
+        wheel.schedule(51, TimeUnit.MILLISECONDS, () -> runs.add(now[0]));
+        wheel.schedule(1, TimeUnit.SECONDS, () -> runs.add(now[0]));
+
+        advance(wheel, now, 20);
+        assertEquals(List.of(1L, 2L, 20L), runs);
+    }
+
+    @Test
+    public void cancelsBeforeTheFirstTick() {
+        TimingWheel wheel = new TimingWheel();
+        long[] now = {0};
+        List<Long> runs = new ArrayList<>();
+        TimingWheel.Timeout timeout = schedule(wheel, 3, now, runs);
+        timeout.cancel();
+
+        assertTrue(timeout.isCancelled());
+        advance(wheel, now, 10);
+        assertTrue(runs.isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void cancelsBeforeAndAfterACascade() {
+        long[] delays = {LEVEL_0 + 36, LEVEL_1 + 100};
+        for (long delay : delays) {
+            // The last cascade before the deadline happens on the multiple of 64 below it.
+            long cascade = delay / LEVEL_0 * LEVEL_0;
+            for (long cancelAt : new long[]{1, cascade - 1, cascade + 1}) {
+                TimingWheel wheel = new TimingWheel();
+                long[] now = {0};
+                List<Long> runs = new ArrayList<>();
+                TimingWheel.Timeout timeout = schedule(wheel, delay, now, runs);
+                TimingWheel.Timeout other = schedule(wheel, delay, now, runs);
+
+                advance(wheel, now, cancelAt);
+                timeout.cancel();
+                advance(wheel, now, delay);
+
+                // Only the other timeout of the same slot runs.
+                assertEquals(List.of(delay), runs, "delay " + delay + " cancelled at " + cancelAt);
+                assertFalse(other.isCancelled());
+                assertEquals(0, wheel.size());
+            }
+        }
+    }
+
+    @Test
+    public void cancellingAfterTheRunHasNoEffect() {
+        TimingWheel wheel = new TimingWheel();
+        long[] now = {0};
+        List<Long> runs = new ArrayList<>();
+        TimingWheel.Timeout timeout = schedule(wheel, 2, now, runs);
+
+        advance(wheel, now, 2);
+        timeout.cancel();
+        advance(wheel, now, 2);
+        assertEquals(List.of(2L), runs);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void reschedulesFromInsideACallback() {
+        long[] intervals = {1, LEVEL_0 - 1, LEVEL_0, 100};
+        for (long interval : intervals) {
+            TimingWheel wheel = new TimingWheel();
+            long[] now = {0};
+            List<Long> runs = new ArrayList<>();
+            Runnable[] task = new Runnable[1];
+            task[0] = () -> {
+                runs.add(now[0]);
+                if (runs.size() < 5)
+                    wheel.schedule(interval * 50, TimeUnit.MILLISECONDS, task[0]);
+            };
+            wheel.schedule(interval * 50, TimeUnit.MILLISECONDS, task[0]);
+
+            advance(wheel, now, interval * 6);
+            assertEquals(List.of(interval, interval * 2, interval * 3, interval * 4, interval * 5), runs, "interval " + interval);
+            assertEquals(0, wheel.size());
+        }
+    }
+
+    @Test
+    public void cancelsARescheduledTimeout() {
+        TimingWheel wheel = new TimingWheel();
+        long[] now = {0};
+        List<Long> runs = new ArrayList<>();
+        TimingWheel.Timeout[] current = new TimingWheel.Timeout[1];
+        Runnable[] task = new Runnable[1];
+        task[0] = () -> {
+            runs.add(now[0]);
+            current[0] = wheel.schedule(10 * 50, TimeUnit.MILLISECONDS, task[0]);
+        };
+        current[0] = wheel.schedule(10 * 50, TimeUnit.MILLISECONDS, task[0]);
+
+        // Cancelling the handle of the latest schedule stops the chain, like a reload does.
+        advance(wheel, now, 25);
+        current[0].cancel();
+        advance(wheel, now, 100);
+        assertEquals(List.of(10L, 20L), runs);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void clearDropsEveryTimeout() {
+        TimingWheel wheel = new TimingWheel();
+        long[] now = {0};
+        List<Long> runs = new ArrayList<>();
+        schedule(wheel, 1, now, runs);
+        schedule(wheel, LEVEL_0 + 1, now, runs);
+        advance(wheel, now, 1);
+        schedule(wheel, LEVEL_1, now, runs);
+
+        wheel.clear();
+        assertEquals(0, wheel.size());
+        advance(wheel, now, LEVEL_1 + 1);
+        assertEquals(List.of(1L), runs);
+    }
+}
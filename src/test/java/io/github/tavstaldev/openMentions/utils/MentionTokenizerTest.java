@@ -0,0 +1,179 @@
+package io.github.tavstaldev.openMentions.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the single-pass mention tokenizer.
+ */
+public class MentionTokenizerTest {
+    /** Names accepted by the resolvers of these tests. */
+    private static final Set<String> ONLINE = Set.of("bob", "alex", "steve_01", "here");
+
+    /** Groups accepted by the resolvers of these tests, only when written with an '@'. */
+    private static final Set<String> GROUPS = Set.of("everyone", "here");
+
+    /**
+     * Resolver accepting the online names and groups, recording every candidate it was asked about.
+     * Candidates written with an '@' are recorded with it.
+     */
+    private static final class RecordingResolver implements MentionTokenizer.MentionResolver {
+        final List<String> resolved = new ArrayList<>();
+        final List<String> groups = new ArrayList<>();
+
+        @Override
+        public boolean resolve(String name, boolean hasSymbol) {
+            resolved.add(hasSymbol ? "@" + name : name);
+            String key = name.toLowerCase(Locale.ROOT);
+            if (hasSymbol && GROUPS.contains(key)) {
+                groups.add(key);
+                return true;
+            }
+            return ONLINE.contains(key);
+        }
+    }
+
+    private static PlayerNameTrie trie() {
+        PlayerNameTrie trie = new PlayerNameTrie();
+        trie.add("Bob");
+        trie.add("Alex");
+        trie.add("Steve_01");
+        return trie;
+    }
+
+    @Test
+    public void highlightsMentions() {
+        String[][] cases = {
+                // message, expected output
+                {"hello @Bob", "hello §e@Bob§r"},
+                {"@bob hi", "§e@bob§r hi"},
+                {"@Bob, @Alex!", "§e@Bob§r, §e@Alex§r!"},
+                {"@Steve_01.", "§e@Steve_01§r."},
+                {"@everyone look", "§e@everyone§r look"},
+                {"mail me@bob.com", "mail me§e@bob§r.com"},
+                {"@Bobby is not bob", "@Bobby is not bob"},
+                {"@Bo is too short", "@Bo is too short"},
+                {"@@Bob", "@§e@Bob§r"},
+                {"trailing @", "trailing @"},
+        };
+        for (String[] row : cases) {
+            assertEquals(row[1], MentionTokenizer.highlight(row[0], 5, new RecordingResolver()), row[0]);
+        }
+    }
+
+    @Test
+    public void returnsTheSameInstanceWithoutMentions() {
+        String[] messages = {"no mentions here", "@nobody is online", "@ab", ""};
+        for (String message : messages) {
+            assertSame(message, MentionTokenizer.highlight(message, 5, new RecordingResolver()), message);
+            assertSame(message, MentionTokenizer.highlightNames(message, 5, trie(), new RecordingResolver()), message);
+        }
+    }
+
+    @Test
+    public void resolvesRepeatedNamesOnce() {
+        RecordingResolver resolver = new RecordingResolver();
+        String message = MentionTokenizer.highlight("@Bob @bob @BOB @nobody @nobody", 5, resolver);
+
+        assertEquals("§e@Bob§r §e@bob§r §e@BOB§r @nobody @nobody", message);
+        assertEquals(List.of("@Bob", "@nobody"), resolver.resolved);
+    }
+
+    @Test
+    public void limitsDistinctMentions() {
+        RecordingResolver resolver = new RecordingResolver();
+        String message = MentionTokenizer.highlight("@Bob @Bob @Alex @Steve_01", 2, resolver);
+
+        assertEquals("§e@Bob§r §e@Bob§r §e@Alex§r @Steve_01", message);
+        assertEquals(List.of("@Bob", "@Alex"), resolver.resolved);
+        assertSame("@Bob", MentionTokenizer.highlight("@Bob", 0, resolver));
+    }
+
+    @Test
+    public void highlightsBareNamesOnWordBoundaries() {
+        String[][] cases = {
+                // message, expected output
+                {"hi bob", "hi §ebob§r"},
+                {"Bob, Alex!", "§eBob§r, §eAlex§r!"},
+                {"hi @Bob", "hi §e@Bob§r"},
+                {"bobby and xbob", "bobby and xbob"},
+                {"bob_ is not bob_x", "bob_ is not bob_x"},
+                {"steve_01 joined", "§esteve_01§r joined"},
+                {"(alex)", "(§ealex§r)"},
+                {"@everyone hi", "§e@everyone§r hi"},
+                {"everyone hi", "everyone hi"},
+        };
+        for (String[] row : cases) {
+            assertEquals(row[1], MentionTokenizer.highlightNames(row[0], 5, trie(), new RecordingResolver()), row[0]);
+        }
+    }
+
+    @Test
+    public void passesLowercaseKeysInBareMode() {
+        RecordingResolver resolver = new RecordingResolver();
+        String message = MentionTokenizer.highlightNames("BOB and bob and @Bob and @EveryOne", 5, trie(), resolver);
+
+        assertEquals("§eBOB§r and §ebob§r and §e@Bob§r and §e@EveryOne§r", message);
+        assertEquals(List.of("bob", "@bob", "@everyone"), resolver.resolved);
+    }
+
+    @Test
+    public void onlyTakesWordsWithASymbolAsGroups() {
+        PlayerNameTrie trie = trie();
+        trie.add("Here");
+        RecordingResolver resolver = new RecordingResolver();
+        String message = MentionTokenizer.highlightNames("here and everyone, @here", 5, trie, resolver);
+
+        // The bare word is the player named Here, only the '@' mention is the group.
+        assertEquals("§ehere§r and everyone, §e@here§r", message);
+        assertEquals(List.of("here", "@here"), resolver.resolved);
+        assertEquals(List.of("here"), resolver.groups);
+    }
+
+    @Test
+    public void resolvesRepeatedGroupsOnce() {
+        RecordingResolver resolver = new RecordingResolver();
+        assertEquals("§e@everyone§r §e@EVERYONE§r", MentionTokenizer.highlight("@everyone @EVERYONE", 5, resolver));
+        assertEquals(List.of("everyone"), resolver.groups);
+
+        resolver = new RecordingResolver();
+        assertEquals("§e@everyone§r §e@EVERYONE§r", MentionTokenizer.highlightNames("@everyone @EVERYONE", 5, trie(), resolver));
+        assertEquals(List.of("everyone"), resolver.groups);
+    }
+
+    @Test
+    public void findsDistinctNames() {
+        Object[][] cases = {
+                // message, max names, expected names
+                {"no mentions", 5, List.of()},
+                {"@Bob @bob @Alex", 5, List.of("Bob", "Alex")},
+                {"@Bob @Alex @Steve_01", 2, List.of("Bob", "Alex")},
+                {"@ab @abc", 5, List.of("abc")},
+                {"@Bob", 0, List.of()},
+        };
+        for (Object[] row : cases) {
+            assertEquals(row[2], MentionTokenizer.findNames((String) row[0], (Integer) row[1]), (String) row[0]);
+        }
+    }
+
+    @Test
+    public void recognizesNameCharacters() {
+        String valid = "azAZ09_";
+        for (char c : valid.toCharArray()) {
+            assertTrue(MentionTokenizer.isNameChar(c), String.valueOf(c));
+        }
+        String invalid = "@-. !é§";
+        for (char c : invalid.toCharArray()) {
+            assertFalse(MentionTokenizer.isNameChar(c), String.valueOf(c));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.tavstaldev.openMentions.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for the copy-on-write player name trie.
+ */
+public class PlayerNameTrieTest {
+
+    @Test
+    public void matchesAddedNamesIgnoringCase() {
+        PlayerNameTrie trie = new PlayerNameTrie();
+        trie.add("Steve_01");
+
+        String[][] cases = {
+                // text, expected key
+                {"Steve_01", "steve_01"},
+                {"steve_01", "steve_01"},
+                {"STEVE_01", "steve_01"},
+                {"Steve", null},
+                {"Steve_012", null},
+                {"Steve-01", null},
+                {"", null},
+        };
+        for (String[] row : cases) {
+            assertEquals(row[1], trie.match(row[0], 0, row[0].length()), row[0]);
+        }
+    }
+
+    @Test
+    public void matchesRangesInsideText() {
+        PlayerNameTrie trie = new PlayerNameTrie();
+        trie.add("Alex");
+
+        String text = "hi alex!";
+        assertEquals("alex", trie.match(text, 3, 7));
+        assertNull(trie.match(text, 3, 6));
+        assertNull(trie.match(text, 2, 7));
+    }
+
+    @Test
+    public void keepsNamesSharingAPrefix() {
+        PlayerNameTrie trie = new PlayerNameTrie();
+        trie.add("Bob");
+        trie.add("Bobby");
+        trie.add("Bobcat");
+
+        assertEquals("bob", trie.match("Bob", 0, 3));
+        assertEquals("bobby", trie.match("Bobby", 0, 5));
+        assertEquals("bobcat", trie.match("Bobcat", 0, 6));
+        assertNull(trie.match("Bobb", 0, 4));
+
+        // Removing the prefix keeps the longer names.
+        trie.remove("BOB");
+        assertNull(trie.match("Bob", 0, 3));
+        assertEquals("bobby", trie.match("Bobby", 0, 5));
+        assertEquals("bobcat", trie.match("Bobcat", 0, 6));
+
+        // Removing a longer name keeps its siblings.
+        trie.remove("bobby");
+        assertNull(trie.match("Bobby", 0, 5));
+        assertEquals("bobcat", trie.match("Bobcat", 0, 6));
+
+        trie.add("Bob");
+        trie.remove("Bobcat");
+        assertEquals("bob", trie.match("Bob", 0, 3));
+        assertNull(trie.match("Bobcat", 0, 6));
+    }
+
+    @Test
+    public void ignoresUnknownAndInvalidNames() {
+        PlayerNameTrie trie = new PlayerNameTrie();
+        trie.add("Notch");
+        trie.add("not a name");
+        trie.remove("Notc");
+        trie.remove("Jeb_");
+
+        assertEquals("notch", trie.match("Notch", 0, 5));
+        assertNull(trie.match("not a name", 0, 10));
+        assertNull(trie.match("not", 0, 3));
+    }
+
+    @Test
+    public void addsAndRemovesAfterEarlierUpdates() {
+        PlayerNameTrie trie = new PlayerNameTrie();
+        trie.add("Alex");
+        trie.add("Alexa");
+
+        // Every update publishes a new root, built on top of the previous ones.
+        trie.remove("Alex");
+        trie.add("Alexander");
+        assertEquals("alexa", trie.match("Alexa", 0, 5));
+        assertEquals("alexander", trie.match("Alexander", 0, 9));
+        assertNull(trie.match("Alex", 0, 4));
+
+        trie.clear();
+        assertNull(trie.match("Alexa", 0, 5));
+        assertNull(trie.match("Alexander", 0, 9));
+    }
+}